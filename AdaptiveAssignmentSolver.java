@@ -0,0 +1,45 @@
+/**
+ * Assignment solver that picks an algorithm by batch size: Hungarian for
+ * small batches, where it is exact and cheap, and auction for large ones.
+ * The auction hands over to the greedy rule if it runs out of bids.
+ */
+public class AdaptiveAssignmentSolver implements AssignmentSolver {
+    // Largest min(rows, columns)^2 * max(rows, columns) solved with the Hungarian algorithm
+    private static final long DEFAULT_HUNGARIAN_WORK_LIMIT = 1L << 20;
+    
+    private long hungarianWorkLimit;
+    private AssignmentSolver smallBatchSolver = new HungarianAssignmentSolver();
+    private AssignmentSolver largeBatchSolver = new AuctionAssignmentSolver();
+    
+    /**
+     * Create an adaptive solver with the default size threshold
+     */
+    public AdaptiveAssignmentSolver() {
+        this(DEFAULT_HUNGARIAN_WORK_LIMIT);
+    }
+    
+    /**
+     * Create an adaptive solver
+     *
+     * @param hungarianWorkLimit Largest min(rows, columns)^2 * max(rows, columns) solved exactly
+     */
+    public AdaptiveAssignmentSolver(long hungarianWorkLimit) {
+        this.hungarianWorkLimit = hungarianWorkLimit;
+    }
+    
+    @Override
+    public String getName() {
+        return "Adaptive";
+    }
+    
+    @Override
+    public int[] solve(double[] scores, int rows, int columns) {
+        long small = Math.min(rows, columns);
+        long large = Math.max(rows, columns);
+        
+        if (small * small * large <= hungarianWorkLimit) {
+            return smallBatchSolver.solve(scores, rows, columns);
+        }
+        return largeBatchSolver.solve(scores, rows, columns);
+    }
+}
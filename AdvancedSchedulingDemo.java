@@ -1,5 +1,6 @@
 import java.util.*;
 import java.io.*;
+import java.util.function.Supplier;
 
 /**
  * Advanced demonstration of job scheduling with neural network prediction and resource constraints
@@ -13,6 +14,10 @@ import java.io.*;
  * @author Sai Teja Srivillibhutturu
  */
 public class AdvancedSchedulingDemo {
+    // Replicas per pattern when comparing schedulers
+    private static final int REPLICAS = 30;
+    private static final double CONFIDENCE_LEVEL = 0.95;
+    
     public static void main(String[] args) {
         System.out.println("Advanced Job Scheduling with Neural Network and Resource Constraints");
         System.out.println("==================================================================");
@@ -37,45 +42,7 @@ public class AdvancedSchedulingDemo {
             List<DependencyAwareJob> depJobs = graphGenerator.generatePatternedDependencies(pattern.toLowerCase(), 30);
             
             // Convert to resource-aware jobs
-            List<ResourceAwareJob> resourceJobs = new ArrayList<>();
-            Random random = new Random(pattern.hashCode());
-            
-            for (DependencyAwareJob depJob : depJobs) {
-                // Create resource-aware job with same properties
-                ResourceAwareJob resourceJob = new ResourceAwareJob(
-                    depJob.getId(),
-                    depJob.getArrivalTime(),
-                    depJob.getExecutionTime(),
-                    depJob.getPriority()
-                );
-                
-                // Copy dependencies
-                for (Map.Entry<Job, DependencyAwareJob.DependencyType> entry : depJob.getDependencyMap().entrySet()) {
-                    Job dependency = entry.getKey();
-                    DependencyAwareJob.DependencyType type = entry.getValue();
-                    
-                    // Find corresponding resource-aware job
-                    for (ResourceAwareJob resJob : resourceJobs) {
-                        if (resJob.getId() == dependency.getId()) {
-                            resourceJob.addDependency(resJob, type);
-                            break;
-                        }
-                    }
-                }
-                
-                // Set random resource requirements
-                int memory = 512 + random.nextInt(7680); // 0.5GB to 8GB
-                int network = 10 + random.nextInt(990); // 10Mbps to 1Gbps
-                int cpu = 10 + random.nextInt(390); // 10% to 400% (4 cores)
-                resourceJob.setResourceRequirements(memory, network, cpu);
-                
-                resourceJobs.add(resourceJob);
-            }
-            
-            // Calculate critical paths
-            for (ResourceAwareJob job : resourceJobs) {
-                job.calculateCriticalPath();
-            }
+            List<ResourceAwareJob> resourceJobs = toResourceAwareJobs(depJobs, new Random(pattern.hashCode()));
             
             jobSets.put(pattern, resourceJobs);
         }
@@ -83,30 +50,41 @@ public class AdvancedSchedulingDemo {
         // Create resource-aware processors with different capabilities
         List<ResourceAwareProcessor> processors = createResourceAwareProcessors(6);
         
-        // Create base schedulers
-        List<Scheduler> baseSchedulers = Arrays.asList(
-            new FCFSScheduler(),
-            new SJFScheduler(),
-            new MinMinScheduler(),
-            new HybridMinMinSJFScheduler()
-        );
+        // Train the runtime predictor once and share it read-only between all integrated schedulers
+        NeuralNetworkPredictor predictor = new NeuralNetworkPredictor();
+        predictor.loadHistoricalData("job_history_advanced.csv");
+        predictor.freeze();
         
-        // Create advanced schedulers
-        List<Scheduler> advancedSchedulers = new ArrayList<>();
+        // Create base schedulers; every simulation gets fresh instances
+        List<Supplier<Scheduler>> baseSchedulers = Arrays.asList(
+            FCFSScheduler::new,
+            SJFScheduler::new,
+            MinMinScheduler::new,
+            HybridMinMinSJFScheduler::new
+        );
         
-        // Neural network-based scheduler
-        for (Scheduler baseScheduler : baseSchedulers) {
+        // Run every scheduler on every job set concurrently
+        long seed = 42;
+        ExperimentRunner runner = new ExperimentRunner();
+        runner.setProcessors(processors);
+        runner.setSeeds(seed);
+        for (Map.Entry<String, List<ResourceAwareJob>> entry : jobSets.entrySet()) {
+            runner.addWorkload(entry.getKey(), JobSpec.fromJobs(entry.getValue()));
+        }
+        List<String> baseNames = new ArrayList<>();
+        for (Supplier<Scheduler> baseScheduler : baseSchedulers) {
+            baseNames.add(baseScheduler.get().getName());
+            runner.addScheduler(baseScheduler);
+            
             // Resource-aware scheduler
-            ResourceAwareScheduler resourceScheduler = new ResourceAwareScheduler(baseScheduler);
-            advancedSchedulers.add(resourceScheduler);
+            runner.addScheduler(() -> new ResourceAwareScheduler(baseScheduler.get()));
             
             // Fully integrated scheduler
-            IntegratedAdvancedScheduler integratedScheduler = new IntegratedAdvancedScheduler(baseScheduler);
-            integratedScheduler.loadHistoricalData("job_history_advanced.csv");
-            advancedSchedulers.add(integratedScheduler);
+            runner.addScheduler(() -> new IntegratedAdvancedScheduler(baseScheduler.get(), predictor));
         }
+        ExperimentResults results = runner.run();
         
-        // Run comparison for each job set
+        // Report the comparison for each job set
         for (Map.Entry<String, List<ResourceAwareJob>> entry : jobSets.entrySet()) {
             String patternName = entry.getKey();
             List<ResourceAwareJob> jobs = entry.getValue();
@@ -125,54 +103,41 @@ public class AdvancedSchedulingDemo {
             }
             System.out.println("... and " + (jobs.size() - 5) + " more jobs");
             
-            // Run with base schedulers
-            System.out.println("\nBase Schedulers:");
-            Map<String, SchedulingMetrics> baseResults = new HashMap<>();
+            Map<String, SchedulingMetrics> baseResults = new TreeMap<>();
+            Map<String, SchedulingMetrics> advancedResults = new TreeMap<>();
+            results.getBySchedulerName(patternName, seed).forEach((name, metrics) -> {
+                (baseNames.contains(name) ? baseResults : advancedResults).put(name, metrics);
+            });
             
-            for (Scheduler scheduler : baseSchedulers) {
-                // Create a copy of the jobs
-                List<ResourceAwareJob> jobsCopy = new ArrayList<>();
-                for (ResourceAwareJob job : jobs) {
-                    jobsCopy.add(new ResourceAwareJob(job));
-                }
-                
-                SchedulingMetrics metrics = environment.runSimulation(scheduler, new ArrayList<>(jobsCopy), new ArrayList<>(processors));
-                baseResults.put(scheduler.getName(), metrics);
-            }
+            System.out.println("\nBase Schedulers:");
             printResults(baseResults);
             
-            // Run with advanced schedulers
             System.out.println("\nAdvanced Schedulers:");
-            Map<String, SchedulingMetrics> advancedResults = new HashMap<>();
+            printResults(advancedResults);
             
-            for (Scheduler scheduler : advancedSchedulers) {
-                // Create a copy of the jobs
-                List<ResourceAwareJob> jobsCopy = new ArrayList<>();
-                for (ResourceAwareJob job : jobs) {
-                    jobsCopy.add(new ResourceAwareJob(job));
-                }
-                
-                SchedulingMetrics metrics = environment.runSimulation(scheduler, new ArrayList<>(jobsCopy), new ArrayList<>(processors));
-                advancedResults.put(scheduler.getName(), metrics);
+            // Calculate improvement over independent replicas, so differences come with confidence intervals
+            ReplicationRunner replicationRunner = new ReplicationRunner(
+                replicaSeed -> JobSpec.fromJobs(createReplicaJobs(patternName, replicaSeed)), processors);
+            for (Supplier<Scheduler> baseScheduler : baseSchedulers) {
+                replicationRunner.addScheduler(baseScheduler);
+                replicationRunner.addScheduler(() -> new ResourceAwareScheduler(baseScheduler.get()));
+                replicationRunner.addScheduler(() -> new IntegratedAdvancedScheduler(baseScheduler.get(), predictor));
             }
-            printResults(advancedResults);
+            ReplicationResults replicated = replicationRunner.run(seed, REPLICAS);
             
-            // Calculate improvement
-            System.out.println("\nPerformance Improvements:");
-            for (Scheduler baseScheduler : baseSchedulers) {
-                String baseName = baseScheduler.getName();
-                
+            System.out.println("\nPerformance Improvements (" + REPLICAS + " replicas, 95% confidence):");
+            for (String baseName : baseNames) {
                 if (baseResults.containsKey(baseName)) {
                     // Resource-aware improvement
                     String resourceName = "Resource-Aware " + baseName;
                     if (advancedResults.containsKey(resourceName)) {
-                        calculateImprovement(baseName, resourceName, baseResults, advancedResults);
+                        calculateImprovement(baseName, resourceName, replicated);
                     }
                     
                     // Integrated improvement
                     String integratedName = "Integrated-Advanced " + baseName;
                     if (advancedResults.containsKey(integratedName)) {
-                        calculateImprovement(baseName, integratedName, baseResults, advancedResults);
+                        calculateImprovement(baseName, integratedName, replicated);
                     }
                 }
             }
@@ -185,15 +150,11 @@ public class AdvancedSchedulingDemo {
         // Get complex jobs
         List<ResourceAwareJob> complexJobs = jobSets.get("Complex");
         
-        // Create a fresh copy of the jobs
-        List<ResourceAwareJob> jobsCopy = new ArrayList<>();
-        for (ResourceAwareJob job : complexJobs) {
-            jobsCopy.add(new ResourceAwareJob(job));
-        }
+        // Simulated jobs keep their results for the report; their critical paths describe the graph as built
+        JobState complexState = JobState.fromJobs(complexJobs);
         
         // Create integrated scheduler
-        IntegratedAdvancedScheduler integratedScheduler = new IntegratedAdvancedScheduler(new HybridMinMinSJFScheduler());
-        integratedScheduler.loadHistoricalData("job_history_advanced.csv");
+        IntegratedAdvancedScheduler integratedScheduler = new IntegratedAdvancedScheduler(new HybridMinMinSJFScheduler(), predictor);
         
         // Run simulation
         List<ResourceAwareProcessor> processorsCopy = new ArrayList<>();
@@ -201,10 +162,15 @@ public class AdvancedSchedulingDemo {
             processorsCopy.add(new ResourceAwareProcessor(processor));
         }
         
-        environment.runSimulation(integratedScheduler, new ArrayList<>(jobsCopy), new ArrayList<>(processorsCopy));
+        SchedulingMetrics complexMetrics = environment.runSimulation(integratedScheduler, complexState,
+                                                                     new ArrayList<>(processorsCopy));
         
         // Generate comprehensive report
-        String report = integratedScheduler.generateComprehensiveReport(jobsCopy, processorsCopy);
+        List<ResourceAwareJob> simulatedJobs = new ArrayList<>();
+        for (Job job : complexState.getJobs()) {
+            simulatedJobs.add((ResourceAwareJob) job);
+        }
+        String report = integratedScheduler.generateComprehensiveReport(simulatedJobs, processorsCopy, complexMetrics);
         System.out.println(report);
         
         // Save report to file
@@ -315,49 +281,92 @@ public class AdvancedSchedulingDemo {
      * Print scheduling results in a formatted table
      */
     private static void printResults(Map<String, SchedulingMetrics> results) {
-        System.out.printf("%-35s %-15s %-15s %-15s %-15s %-15s%n", 
-                         "Algorithm", "Makespan", "Avg Wait Time", "Avg Turnaround", "Throughput", "Utilization %");
-        System.out.println("-----------------------------------------------------------------------------------------------------");
+        System.out.printf("%-35s %-15s %-15s %-15s %-15s %-15s %-15s %-15s%n", 
+                         "Algorithm", "Makespan", "Avg Wait Time", "P99 Wait Time", "Avg Turnaround", "P99 Slowdown",
+                         "Throughput", "Utilization %");
+        System.out.println("-----------------------------------------------------------------------------------------------------" +
+                           "--------------------------------");
         
         results.forEach((algorithm, metrics) -> {
-            System.out.printf("%-35s %-15.2f %-15.2f %-15.2f %-15.2f %-15.2f%n", 
+            System.out.printf("%-35s %-15.2f %-15.2f %-15d %-15.2f %-15.2f %-15.2f %-15.2f%n", 
                             algorithm, 
                             metrics.getMakespan(),
                             metrics.getAverageWaitingTime(),
+                            metrics.getWaitingTimePercentile(99),
                             metrics.getAverageTurnaroundTime(),
+                            metrics.getBoundedSlowdownPercentile(99),
                             metrics.getThroughput(),
                             metrics.getResourceUtilization() * 100);
         });
     }
     
     /**
-     * Calculate and print improvement between two schedulers
+     * Convert dependency-aware jobs to resource-aware jobs with random requirements, sharing their dependency graph
      */
-    private static void calculateImprovement(String baseAlgorithm, String advancedAlgorithm,
-                                          Map<String, SchedulingMetrics> baseResults,
-                                          Map<String, SchedulingMetrics> advancedResults) {
-        SchedulingMetrics baseMetrics = baseResults.get(baseAlgorithm);
-        SchedulingMetrics advancedMetrics = advancedResults.get(advancedAlgorithm);
-        
-        double makespanImprovement = 100 * (baseMetrics.getMakespan() - advancedMetrics.getMakespan()) / 
-                                   baseMetrics.getMakespan();
+    private static List<ResourceAwareJob> toResourceAwareJobs(List<DependencyAwareJob> depJobs, Random random) {
+        List<ResourceAwareJob> resourceJobs = new ArrayList<>();
         
-        double waitTimeImprovement = 100 * (baseMetrics.getAverageWaitingTime() - 
-                                          advancedMetrics.getAverageWaitingTime()) / 
-                                   baseMetrics.getAverageWaitingTime();
+        for (DependencyAwareJob depJob : depJobs) {
+            // Create resource-aware job with same properties
+            ResourceAwareJob resourceJob = new ResourceAwareJob(
+                depJob.getId(),
+                depJob.getArrivalTime(),
+                depJob.getExecutionTime(),
+                depJob.getPriority()
+            );
+            
+            // Set random resource requirements
+            int memory = 512 + random.nextInt(7680); // 0.5GB to 8GB
+            int network = 10 + random.nextInt(990); // 10Mbps to 1Gbps
+            int cpu = 10 + random.nextInt(390); // 10% to 400% (4 cores)
+            resourceJob.setResourceRequirements(memory, network, cpu);
+            
+            resourceJobs.add(resourceJob);
+        }
         
-        double turnaroundImprovement = 100 * (baseMetrics.getAverageTurnaroundTime() - 
-                                            advancedMetrics.getAverageTurnaroundTime()) / 
-                                     baseMetrics.getAverageTurnaroundTime();
+        // Share the generated dependency graph and calculate critical paths
+        depJobs.get(0).getDependencyGraph().bind(resourceJobs);
+        CriticalPathAnalyzer.analyze(resourceJobs);
         
-        double utilizationImprovement = 100 * (advancedMetrics.getResourceUtilization() - 
-                                             baseMetrics.getResourceUtilization()) / 
-                                      baseMetrics.getResourceUtilization();
+        return resourceJobs;
+    }
+    
+    /**
+     * Generate the jobs of one replica of a pattern
+     */
+    private static List<ResourceAwareJob> createReplicaJobs(String pattern, long seed) {
+        DependencyGraphGenerator graphGenerator = new DependencyGraphGenerator(seed);
+        List<DependencyAwareJob> depJobs = graphGenerator.generatePatternedDependencies(pattern.toLowerCase(), 30);
+        return toResourceAwareJobs(depJobs, new Random(seed * 31 + pattern.hashCode()));
+    }
+    
+    /**
+     * Print the improvement of one scheduler over another, averaged over paired replicas
+     */
+    private static void calculateImprovement(String baseAlgorithm, String advancedAlgorithm,
+                                          ReplicationResults results) {
+        MetricsSummary baseSummary = results.getSummary(baseAlgorithm);
+        MetricsSummary reduction = results.getDifference(baseAlgorithm, advancedAlgorithm);
+        MetricsSummary increase = results.getDifference(advancedAlgorithm, baseAlgorithm);
         
         System.out.printf("%s vs %s:\n", baseAlgorithm, advancedAlgorithm);
-        System.out.printf("  Makespan: %.2f%% reduction\n", makespanImprovement);
-        System.out.printf("  Average waiting time: %.2f%% reduction\n", waitTimeImprovement);
-        System.out.printf("  Average turnaround time: %.2f%% reduction\n", turnaroundImprovement);
-        System.out.printf("  Resource utilization: %.2f%% improvement\n", utilizationImprovement);
+        printImprovement("Makespan", reduction.getMakespan(), baseSummary.getMakespan(), "reduction");
+        printImprovement("Average waiting time", reduction.getAverageWaitingTime(),
+                         baseSummary.getAverageWaitingTime(), "reduction");
+        printImprovement("Average turnaround time", reduction.getAverageTurnaroundTime(),
+                         baseSummary.getAverageTurnaroundTime(), "reduction");
+        printImprovement("Resource utilization", increase.getResourceUtilization(),
+                         baseSummary.getResourceUtilization(), "improvement");
+    }
+    
+    /**
+     * Print a paired difference as a percentage of the base mean, with its confidence interval
+     */
+    private static void printImprovement(String metric, RunningStatistics difference, RunningStatistics base,
+                                         String direction) {
+        double percent = 100 * difference.getMean() / base.getMean();
+        double halfWidth = 100 * difference.getConfidenceHalfWidth(CONFIDENCE_LEVEL) / base.getMean();
+        System.out.printf("  %s: %.2f%% +/- %.2f%% %s%s\n", metric, percent, halfWidth, direction,
+                          difference.isSignificant(CONFIDENCE_LEVEL) ? "" : " (not significant)");
     }
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+import java.util.*;
+
+/**
+ * Stochastic process producing job arrival times.
+ *
+ * Every call to arrivalTimes() starts a new, independent sequence of
+ * non-decreasing times from time zero, so one process can drive any number
+ * of workloads. Sequences are unbounded and hold a few fields of state,
+ * never a buffer of times.
+ */
+public interface ArrivalProcess {
+    /**
+     * Get a short description of the process
+     */
+    String getName();
+
+    /**
+     * Start a new sequence of arrival times
+     *
+     * @param random Source of randomness, used only by the returned sequence
+     * @return Unbounded, non-decreasing arrival times
+     */
+    PrimitiveIterator.OfLong arrivalTimes(SplittableRandom random);
+
+    /**
+     * Homogeneous Poisson arrivals: exponential gaps with a fixed mean
+     */
+    class Poisson implements ArrivalProcess {
+        private double rate;
+
+        /**
+         * Create a Poisson process
+         *
+         * @param rate Mean arrivals per time unit
+         */
+        public Poisson(double rate) {
+            if (!(rate > 0)) {
+                throw new IllegalArgumentException("Arrival rate must be positive: " + rate);
+            }
+            this.rate = rate;
+        }
+
+        @Override
+        public String getName() {
+            return String.format("Poisson(%.3g/t)", rate);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivalTimes(SplittableRandom random) {
+            return new PrimitiveIterator.OfLong() {
+                private double time;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public long nextLong() {
+                    time += exponential(random, rate);
+                    return (long) time;
+                }
+            };
+        }
+    }
+
+    /**
+     * Markov-modulated Poisson arrivals. The process cycles through states,
+     * staying in each for an exponentially distributed time and producing
+     * Poisson arrivals at that state's rate. Two states, one quiet and one
+     * busy, give the usual on/off model of bursty load.
+     */
+    class Mmpp implements ArrivalProcess {
+        private double[] rates;
+        private double[] meanDurations;
+
+        /**
+         * Create a Markov-modulated Poisson process
+         *
+         * @param rates Arrival rate in each state; zero means no arrivals
+         * @param meanDurations Mean time spent in each state before moving to the next
+         */
+        public Mmpp(double[] rates, double[] meanDurations) {
+            if (rates.length == 0 || rates.length != meanDurations.length) {
+                throw new IllegalArgumentException("Need one mean duration per state");
+            }
+            boolean anyArrivals = false;
+            for (int state = 0; state < rates.length; state++) {
+                if (!(rates[state] >= 0) || !(meanDurations[state] > 0)) {
+                    throw new IllegalArgumentException("Invalid rate or duration for state " + state);
+                }
+                anyArrivals |= rates[state] > 0;
+            }
+            if (!anyArrivals) {
+                throw new IllegalArgumentException("At least one state must produce arrivals");
+            }
+            this.rates = rates.clone();
+            this.meanDurations = meanDurations.clone();
+        }
+
+        /**
+         * Create a two-state bursty process
+         *
+         * @param quietRate Arrival rate between bursts
+         * @param burstRate Arrival rate during a burst
+         * @param meanQuietTime Mean time between bursts
+         * @param meanBurstTime Mean length of a burst
+         */
+        public static Mmpp bursty(double quietRate, double burstRate, double meanQuietTime, double meanBurstTime) {
+            return new Mmpp(new double[] {quietRate, burstRate}, new double[] {meanQuietTime, meanBurstTime});
+        }
+
+        @Override
+        public String getName() {
+            return "MMPP" + Arrays.toString(rates);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivalTimes(SplittableRandom random) {
+            return new PrimitiveIterator.OfLong() {
+                private double time;
+                private int state;
+                private double stateEnd = exponential(random, 1 / meanDurations[0]);
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public long nextLong() {
+                    while (true) {
+                        // Gaps are memoryless, so a gap crossing a state change is simply redrawn there
+                        double next = rates[state] > 0
+                            ? time + exponential(random, rates[state])
+                            : Double.POSITIVE_INFINITY;
+                        if (next <= stateEnd) {
+                            time = next;
+                            return (long) time;
+                        }
+                        time = stateEnd;
+                        state = (state + 1) % rates.length;
+                        stateEnd = time + exponential(random, 1 / meanDurations[state]);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Poisson arrivals whose rate follows a daily cycle,
+     * rate(t) = meanRate * (1 + amplitude * sin(2 * pi * t / period)),
+     * generated by thinning arrivals at the peak rate
+     */
+    class Diurnal implements ArrivalProcess {
+        private double meanRate;
+        private double amplitude;
+        private double period;
+
+        /**
+         * Create a diurnal process
+         *
+         * @param meanRate Arrival rate averaged over a cycle
+         * @param amplitude Relative swing around the mean, from 0 (flat) to 1 (silent at the trough)
+         * @param period Length of one cycle in time units
+         */
+        public Diurnal(double meanRate, double amplitude, double period) {
+            if (!(meanRate > 0) || !(amplitude >= 0 && amplitude <= 1) || !(period > 0)) {
+                throw new IllegalArgumentException("Invalid diurnal parameters");
+            }
+            this.meanRate = meanRate;
+            this.amplitude = amplitude;
+            this.period = period;
+        }
+
+        @Override
+        public String getName() {
+            return String.format("Diurnal(%.3g/t, +-%.0f%%, period %.0f)", meanRate, amplitude * 100, period);
+        }
+
+        @Override
+        public PrimitiveIterator.OfLong arrivalTimes(SplittableRandom random) {
+            double peakRate = meanRate * (1 + amplitude);
+            return new PrimitiveIterator.OfLong() {
+                private double time;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public long nextLong() {
+                    while (true) {
+                        time += exponential(random, peakRate);
+                        double rate = meanRate * (1 + amplitude * Math.sin(2 * Math.PI * time / period));
+                        if (random.nextDouble() * peakRate < rate) {
+                            return (long) time;
+                        }
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Draw an exponentially distributed gap
+     */
+    static double exponential(SplittableRandom random, double rate) {
+        return -Math.log(1 - random.nextDouble()) / rate;
+    }
+}
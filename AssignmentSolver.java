@@ -0,0 +1,24 @@
+/**
+ * Solver for one batch of the job-processor assignment problem.
+ *
+ * Scores are passed as a flat row-major matrix with one row per job and one
+ * column per processor; higher is better. Double.NEGATIVE_INFINITY marks a
+ * pair that must not be assigned. Each job gets at most one processor and
+ * each processor at most one job.
+ */
+public interface AssignmentSolver {
+    /**
+     * Get the name of the solver
+     */
+    String getName();
+    
+    /**
+     * Assign rows to columns
+     *
+     * @param scores Row-major score matrix of size rows * columns
+     * @param rows Number of jobs
+     * @param columns Number of processors
+     * @return Column assigned to each row, or -1 for rows left unassigned
+     */
+    int[] solve(double[] scores, int rows, int columns);
+}
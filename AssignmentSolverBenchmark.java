@@ -0,0 +1,161 @@
+import java.util.*;
+
+/**
+ * Benchmark comparing the greedy, Hungarian and auction assignment solvers
+ * on score matrices produced by IntegratedAdvancedScheduler.
+ * 
+ * For every batch size it reports total score, number of assigned pairs and
+ * median decision latency of each solver, then the latency of whole batches
+ * with full-matrix scoring against bounded per-processor candidate scoring.
+ * 
+ * Usage: java AssignmentSolverBenchmark [iterations]
+ */
+public class AssignmentSolverBenchmark {
+    private static final int[][] BATCH_SIZES = {
+        {20, 6}, {100, 20}, {500, 50}, {2000, 100}, {5000, 200}
+    };
+    private static final int WARMUP_ITERATIONS = 3;
+    
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        
+        List<AssignmentSolver> solvers = Arrays.asList(
+            new GreedyAssignmentSolver(),
+            new HungarianAssignmentSolver(),
+            new AuctionAssignmentSolver()
+        );
+        
+        System.out.println("Assignment Solver Benchmark");
+        System.out.println("===========================");
+        System.out.printf("%-14s%-12s%-18s%-12s%-16s%n", "Batch", "Solver", "Total Score", "Assigned", "Median ms");
+        System.out.println("------------------------------------------------------------------------");
+        
+        for (int[] size : BATCH_SIZES) {
+            int jobCount = size[0];
+            int processorCount = size[1];
+            double[] scores = createScoreMatrix(jobCount, processorCount, new Random(42));
+            
+            for (AssignmentSolver solver : solvers) {
+                int[] assignment = null;
+                for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                    assignment = solver.solve(scores, jobCount, processorCount);
+                }
+                
+                long[] latencies = new long[iterations];
+                for (int i = 0; i < iterations; i++) {
+                    long start = System.nanoTime();
+                    assignment = solver.solve(scores, jobCount, processorCount);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+                
+                double totalScore = 0;
+                int assigned = 0;
+                for (int row = 0; row < jobCount; row++) {
+                    if (assignment[row] != -1) {
+                        totalScore += scores[row * processorCount + assignment[row]];
+                        assigned++;
+                    }
+                }
+                
+                System.out.printf("%-14s%-12s%-18.2f%-12d%-16.3f%n",
+                                 jobCount + "x" + processorCount, solver.getName(),
+                                 totalScore, assigned, latencies[iterations / 2] / 1e6);
+            }
+        }
+        
+        for (AssignmentSolver solver : solvers) {
+            benchmarkScoring(solver, iterations);
+        }
+    }
+    
+    /**
+     * Score a random batch of resource-aware jobs against resource-aware processors
+     */
+    private static double[] createScoreMatrix(int jobCount, int processorCount, Random random) {
+        List<Job> jobs = createJobs(jobCount, random);
+        List<Processor> processors = createProcessors(processorCount, random);
+        
+        IntegratedAdvancedScheduler scheduler = new IntegratedAdvancedScheduler(new FCFSScheduler());
+        return scheduler.buildScoreMatrix(jobs, processors, 0, new ArrayList<>());
+    }
+    
+    /**
+     * Compare scoring the full matrix against keeping top candidates per processor,
+     * both followed by the given solver
+     */
+    private static void benchmarkScoring(AssignmentSolver solver, int iterations) {
+        IntegratedAdvancedScheduler scheduler = new IntegratedAdvancedScheduler(new FCFSScheduler());
+        
+        System.out.println("\nBatch latency including scoring (" + solver.getName() + " solver)");
+        System.out.printf("%-14s%-16s%-16s%-16s%n", "Batch", "Full ms", "Top-k ms", "Candidates");
+        System.out.println("--------------------------------------------------------------");
+        
+        for (int[] size : BATCH_SIZES) {
+            Random random = new Random(42);
+            List<Job> jobs = createJobs(size[0], random);
+            List<Processor> processors = createProcessors(size[1], random);
+            List<Job> completedJobs = new ArrayList<>();
+            
+            long[] fullLatencies = new long[iterations];
+            long[] topKLatencies = new long[iterations];
+            int candidateCount = 0;
+            
+            for (int i = -WARMUP_ITERATIONS; i < iterations; i++) {
+                long start = System.nanoTime();
+                double[] scores = scheduler.buildScoreMatrix(jobs, processors, 0, completedJobs);
+                solver.solve(scores, jobs.size(), processors.size());
+                long fullTime = System.nanoTime() - start;
+                
+                start = System.nanoTime();
+                CandidateHeaps candidates = scheduler.scoreCandidates(jobs, processors, 0, completedJobs);
+                int[] candidateRows = candidates.getCandidateRows();
+                solver.solve(candidates.toScoreMatrix(candidateRows), candidateRows.length, processors.size());
+                long topKTime = System.nanoTime() - start;
+                
+                if (i >= 0) {
+                    fullLatencies[i] = fullTime;
+                    topKLatencies[i] = topKTime;
+                }
+                candidateCount = candidateRows.length;
+            }
+            Arrays.sort(fullLatencies);
+            Arrays.sort(topKLatencies);
+            
+            System.out.printf("%-14s%-16.3f%-16.3f%-16d%n", size[0] + "x" + size[1],
+                             fullLatencies[iterations / 2] / 1e6, topKLatencies[iterations / 2] / 1e6,
+                             candidateCount);
+        }
+    }
+    
+    /**
+     * Create jobs with random runtimes, priorities and resource requirements
+     */
+    private static List<Job> createJobs(int jobCount, Random random) {
+        List<Job> jobs = new ArrayList<>();
+        for (int i = 0; i < jobCount; i++) {
+            ResourceAwareJob job = new ResourceAwareJob(i, 0, 1 + random.nextInt(50), 1 + random.nextInt(10));
+            job.setResourceRequirements(512 + random.nextInt(7680), 10 + random.nextInt(990), 10 + random.nextInt(390));
+            jobs.add(job);
+        }
+        return jobs;
+    }
+    
+    /**
+     * Create processors drawn from the demo's resource-aware processor types
+     */
+    private static List<Processor> createProcessors(int processorCount, Random random) {
+        double[] speedFactors = {0.5, 1.0, 1.5, 2.0, 2.5, 3.0};
+        int[] memoryCapacities = {4096, 8192, 16384, 32768, 65536, 131072};
+        int[] networkCapacities = {100, 250, 500, 1000, 2000, 10000};
+        int[] cpuCapacities = {100, 200, 400, 600, 800, 1600};
+        
+        List<Processor> processors = new ArrayList<>();
+        for (int i = 0; i < processorCount; i++) {
+            int type = random.nextInt(speedFactors.length);
+            processors.add(new ResourceAwareProcessor(i, speedFactors[type], memoryCapacities[type],
+                                                      networkCapacities[type], cpuCapacities[type]));
+        }
+        return processors;
+    }
+}
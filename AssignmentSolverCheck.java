@@ -0,0 +1,232 @@
+import java.util.*;
+
+/**
+ * Brute-force check of the assignment solvers on small random matrices.
+ * 
+ * Every matching of each matrix is enumerated. Hungarian must assign as many
+ * pairs as possible with the highest total score among those; auction must
+ * assign as many pairs as possible, both when it finishes and when it runs out
+ * of bids and falls back to greedy, and come within min(rows, columns) *
+ * epsilon of the best total when every pair is allowed; greedy must pick
+ * exactly the pairs the highest-score-first rule picks. Larger sparse matrices,
+ * too large to enumerate, check that auction assigns as many pairs as
+ * Hungarian.
+ * 
+ * Usage: java AssignmentSolverCheck [matrices]
+ * Exits with status 1 if any check fails.
+ */
+public class AssignmentSolverCheck {
+    private static final int MAX_SIZE = 6;
+    private static final int MAX_SPARSE_SIZE = 60;
+    private static final double AUCTION_RELATIVE_EPSILON = 0.01; // AuctionAssignmentSolver's default
+    private static final double TOLERANCE = 1e-9;
+    
+    private static int failures = 0;
+    
+    public static void main(String[] args) {
+        int matrices = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        Random random = new Random(42);
+        
+        AssignmentSolver hungarian = new HungarianAssignmentSolver();
+        AssignmentSolver auction = new AuctionAssignmentSolver();
+        AssignmentSolver greedy = new GreedyAssignmentSolver();
+        AssignmentSolver outbidAuction = new AuctionAssignmentSolver(AUCTION_RELATIVE_EPSILON, 1, greedy); // Always falls back
+        
+        for (int i = 0; i < matrices; i++) {
+            int rows = 1 + random.nextInt(MAX_SIZE);
+            int columns = 1 + random.nextInt(MAX_SIZE);
+            boolean allFeasible = i % 2 == 0;
+            double[] scores = createScores(rows, columns, allFeasible, random);
+            String label = "matrix " + i + " (" + rows + "x" + columns + ")";
+            
+            Best best = bruteForce(scores, rows, columns);
+            
+            int[] assignment = hungarian.solve(scores, rows, columns);
+            if (checkValid("Hungarian", label, assignment, scores, columns)
+                    && (count(assignment) != best.pairs || total(assignment, scores, columns) < best.total - TOLERANCE)) {
+                fail("Hungarian", label, "assigned " + count(assignment) + " pairs scoring " +
+                     total(assignment, scores, columns) + ", best is " + best.pairs + " scoring " + best.total);
+            }
+            
+            assignment = auction.solve(scores, rows, columns);
+            if (checkValid("Auction", label, assignment, scores, columns)) {
+                double epsilon = AUCTION_RELATIVE_EPSILON * spread(scores);
+                double bound = allFeasible ? best.total - Math.min(rows, columns) * epsilon - TOLERANCE
+                                           : Double.NEGATIVE_INFINITY;
+                if (count(assignment) != best.pairs || total(assignment, scores, columns) < bound) {
+                    fail("Auction", label, "scored " + total(assignment, scores, columns) + " with " +
+                         count(assignment) + " pairs, best is " + best.pairs + " pairs and bound is " + bound);
+                }
+            }
+            
+            assignment = outbidAuction.solve(scores, rows, columns);
+            if (checkValid("Auction fallback", label, assignment, scores, columns)
+                    && count(assignment) != best.pairs) {
+                fail("Auction fallback", label, "assigned " + count(assignment) + " pairs, best is " + best.pairs);
+            }
+            
+            assignment = greedy.solve(scores, rows, columns);
+            if (checkValid("Greedy", label, assignment, scores, columns)
+                    && !Arrays.equals(assignment, greedyReference(scores, rows, columns))) {
+                fail("Greedy", label, "differs from the highest-score-first rule: " + Arrays.toString(assignment));
+            }
+        }
+        
+        int sparseMatrices = matrices / 20;
+        for (int i = 0; i < sparseMatrices; i++) {
+            int rows = 1 + random.nextInt(MAX_SPARSE_SIZE);
+            int columns = 1 + random.nextInt(MAX_SPARSE_SIZE);
+            double[] scores = createSparseScores(rows, columns, random);
+            String label = "sparse matrix " + i + " (" + rows + "x" + columns + ")";
+            
+            int pairs = count(hungarian.solve(scores, rows, columns));
+            int[] assignment = auction.solve(scores, rows, columns);
+            if (checkValid("Auction", label, assignment, scores, columns) && count(assignment) != pairs) {
+                fail("Auction", label, "assigned " + count(assignment) + " pairs, Hungarian assigned " + pairs);
+            }
+        }
+        
+        System.out.println(failures == 0 ? "All solvers passed on " + (matrices + sparseMatrices) + " matrices"
+                                         : failures + " check(s) failed");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Create scores with frequent ties; a third of the pairs are forbidden unless all must be feasible
+     */
+    private static double[] createScores(int rows, int columns, boolean allFeasible, Random random) {
+        double[] scores = new double[rows * columns];
+        for (int cell = 0; cell < scores.length; cell++) {
+            scores[cell] = !allFeasible && random.nextInt(3) == 0 ? Double.NEGATIVE_INFINITY
+                                                                  : random.nextInt(20) / 2.0;
+        }
+        return scores;
+    }
+    
+    /**
+     * Create scores where each job can only go to a few processors, so the first
+     * choices collide and larger matchings need jobs to move
+     */
+    private static double[] createSparseScores(int rows, int columns, Random random) {
+        double[] scores = new double[rows * columns];
+        for (int cell = 0; cell < scores.length; cell++) {
+            scores[cell] = random.nextInt(10) == 0 ? random.nextInt(20) / 2.0 : Double.NEGATIVE_INFINITY;
+        }
+        return scores;
+    }
+    
+    /**
+     * Most pairs, then highest total, over every matching
+     */
+    private static Best bruteForce(double[] scores, int rows, int columns) {
+        Best best = new Best();
+        search(scores, rows, columns, 0, new boolean[columns], 0, 0, best);
+        return best;
+    }
+    
+    private static void search(double[] scores, int rows, int columns, int row, boolean[] columnTaken,
+                               int pairs, double total, Best best) {
+        if (row == rows) {
+            if (pairs > best.pairs || (pairs == best.pairs && total > best.total)) {
+                best.pairs = pairs;
+                best.total = total;
+            }
+            return;
+        }
+        search(scores, rows, columns, row + 1, columnTaken, pairs, total, best);
+        for (int column = 0; column < columns; column++) {
+            double score = scores[row * columns + column];
+            if (!columnTaken[column] && score != Double.NEGATIVE_INFINITY) {
+                columnTaken[column] = true;
+                search(scores, rows, columns, row + 1, columnTaken, pairs + 1, total + score, best);
+                columnTaken[column] = false;
+            }
+        }
+    }
+    
+    /**
+     * Repeatedly take the highest scoring free pair, the first in row-major order on ties
+     */
+    private static int[] greedyReference(double[] scores, int rows, int columns) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        boolean[] columnTaken = new boolean[columns];
+        while (true) {
+            int bestCell = -1;
+            for (int cell = 0; cell < rows * columns; cell++) {
+                if (scores[cell] != Double.NEGATIVE_INFINITY && assignment[cell / columns] == -1
+                        && !columnTaken[cell % columns]
+                        && (bestCell == -1 || scores[cell] > scores[bestCell])) {
+                    bestCell = cell;
+                }
+            }
+            if (bestCell == -1) {
+                return assignment;
+            }
+            assignment[bestCell / columns] = bestCell % columns;
+            columnTaken[bestCell % columns] = true;
+        }
+    }
+    
+    /**
+     * Check that no column is used twice and no forbidden pair is assigned
+     */
+    private static boolean checkValid(String solver, String label, int[] assignment, double[] scores, int columns) {
+        boolean[] columnTaken = new boolean[columns];
+        for (int row = 0; row < assignment.length; row++) {
+            int column = assignment[row];
+            if (column == -1) {
+                continue;
+            }
+            if (column < 0 || column >= columns || columnTaken[column]
+                    || scores[row * columns + column] == Double.NEGATIVE_INFINITY) {
+                fail(solver, label, "invalid assignment " + Arrays.toString(assignment));
+                return false;
+            }
+            columnTaken[column] = true;
+        }
+        return true;
+    }
+    
+    private static int count(int[] assignment) {
+        int pairs = 0;
+        for (int column : assignment) {
+            if (column != -1) {
+                pairs++;
+            }
+        }
+        return pairs;
+    }
+    
+    private static double total(int[] assignment, double[] scores, int columns) {
+        double total = 0;
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] != -1) {
+                total += scores[row * columns + assignment[row]];
+            }
+        }
+        return total;
+    }
+    
+    private static double spread(double[] scores) {
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            min = Math.min(min, score);
+            max = Math.max(max, score);
+        }
+        return max - min;
+    }
+    
+    private static void fail(String solver, String label, String message) {
+        failures++;
+        System.out.println("FAIL " + solver + " on " + label + ": " + message);
+    }
+    
+    private static class Best {
+        int pairs = -1;
+        double total = Double.NEGATIVE_INFINITY;
+    }
+}
@@ -0,0 +1,266 @@
+import java.util.Arrays;
+
+/**
+ * Near-optimal assignment with Bertsekas' forward auction algorithm.
+ * 
+ * The smaller side bids for the larger one. Each bid raises the price of the
+ * bidder's favourite item by the margin over its second choice plus epsilon,
+ * so the final total score is within min(rows, columns) * epsilon of optimal.
+ * Epsilon is a fraction of the spread of the scores, which keeps the result
+ * independent of their scale.
+ * 
+ * A bidder leaves the auction once every item it can take costs more than
+ * the score spread, even if moving another bidder would free one of them.
+ * On its own an auction therefore only guarantees that no allowed pair could
+ * simply be added, which with forbidden pairs can be fewer pairs than
+ * possible, so the result is completed along augmenting paths over the
+ * allowed pairs. Every solution assigns as many pairs as possible. The score
+ * bound above holds when every pair is allowed, as the auction then assigns
+ * all of the smaller side and no path is followed.
+ * 
+ * Auctions can stall in long price wars when many bidders value the same
+ * items almost equally; once the bid budget is spent the batch is handed to
+ * a fallback solver instead, and its result is completed the same way.
+ */
+public class AuctionAssignmentSolver implements AssignmentSolver {
+    private static final double DEFAULT_RELATIVE_EPSILON = 0.01;
+    private static final int DEFAULT_BIDS_PER_BIDDER = 1000;
+    
+    private double relativeEpsilon; // Epsilon as a fraction of the score spread
+    private int bidsPerBidder; // Bid budget per bidder before giving up
+    private AssignmentSolver fallback;
+    
+    /**
+     * Create an auction solver with default accuracy that falls back to the greedy rule
+     */
+    public AuctionAssignmentSolver() {
+        this(DEFAULT_RELATIVE_EPSILON, DEFAULT_BIDS_PER_BIDDER, new GreedyAssignmentSolver());
+    }
+    
+    /**
+     * Create an auction solver
+     * 
+     * @param relativeEpsilon Allowed loss per assigned pair, as a fraction of the score spread
+     * @param bidsPerBidder Bid budget per bidder
+     * @param fallback Solver used when the budget runs out
+     */
+    public AuctionAssignmentSolver(double relativeEpsilon, int bidsPerBidder, AssignmentSolver fallback) {
+        if (relativeEpsilon <= 0) {
+            throw new IllegalArgumentException("Relative epsilon must be positive: " + relativeEpsilon);
+        }
+        if (bidsPerBidder <= 0) {
+            throw new IllegalArgumentException("Bid budget must be positive: " + bidsPerBidder);
+        }
+        this.relativeEpsilon = relativeEpsilon;
+        this.bidsPerBidder = bidsPerBidder;
+        this.fallback = fallback;
+    }
+    
+    @Override
+    public String getName() {
+        return "Auction";
+    }
+    
+    @Override
+    public int[] solve(double[] scores, int rows, int columns) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        
+        double minScore = Double.POSITIVE_INFINITY;
+        double maxScore = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            if (score != Double.NEGATIVE_INFINITY) {
+                minScore = Math.min(minScore, score);
+                maxScore = Math.max(maxScore, score);
+            }
+        }
+        if (maxScore == Double.NEGATIVE_INFINITY) {
+            return assignment; // No feasible pair
+        }
+        
+        // Bidders are the smaller side; copy the matrix so each bidder's values are contiguous
+        boolean transposed = rows > columns;
+        int bidders = transposed ? columns : rows;
+        int items = transposed ? rows : columns;
+        double[] values = scores;
+        if (transposed) {
+            values = new double[bidders * items];
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    values[column * items + row] = scores[row * columns + column];
+                }
+            }
+        }
+        
+        double spread = maxScore - minScore;
+        double epsilon = spread > 0 ? relativeEpsilon * spread : 1.0;
+        
+        // Value of staying unassigned, below any pair at its starting price
+        double unassignedValue = minScore - spread - epsilon;
+        
+        double[] prices = new double[items];
+        int[] ownerOfItem = new int[items];
+        int[] itemOfBidder = new int[bidders];
+        Arrays.fill(ownerOfItem, -1);
+        Arrays.fill(itemOfBidder, -1);
+        
+        // Circular queue of bidders without an item
+        int[] queue = new int[bidders];
+        int head = 0;
+        int queued = bidders;
+        for (int bidder = 0; bidder < bidders; bidder++) {
+            queue[bidder] = bidder;
+        }
+        
+        long bidBudget = (long) bidsPerBidder * bidders;
+        long bids = 0;
+        
+        while (queued > 0) {
+            int bidder = queue[head];
+            head = (head + 1) % bidders;
+            queued--;
+            
+            // Best and second best net value, with staying unassigned as an always available option
+            int bestItem = -1;
+            double bestNet = Double.NEGATIVE_INFINITY;
+            double secondNet = unassignedValue;
+            int offset = bidder * items;
+            
+            for (int item = 0; item < items; item++) {
+                double value = values[offset + item];
+                if (value == Double.NEGATIVE_INFINITY) {
+                    continue;
+                }
+                double net = value - prices[item];
+                if (net > bestNet) {
+                    secondNet = Math.max(secondNet, bestNet);
+                    bestNet = net;
+                    bestItem = item;
+                } else if (net > secondNet) {
+                    secondNet = net;
+                }
+            }
+            
+            // Prices only rise, so a bidder priced out now stays out
+            if (bestItem == -1 || bestNet < unassignedValue) {
+                continue;
+            }
+            
+            if (++bids > bidBudget) {
+                useFallback(scores, rows, columns, transposed, itemOfBidder, ownerOfItem);
+                break;
+            }
+            
+            prices[bestItem] += bestNet - secondNet + epsilon;
+            
+            int previousOwner = ownerOfItem[bestItem];
+            if (previousOwner != -1) {
+                itemOfBidder[previousOwner] = -1;
+                queue[(head + queued) % bidders] = previousOwner;
+                queued++;
+            }
+            ownerOfItem[bestItem] = bidder;
+            itemOfBidder[bidder] = bestItem;
+        }
+        
+        augment(values, bidders, items, itemOfBidder, ownerOfItem);
+        
+        for (int bidder = 0; bidder < bidders; bidder++) {
+            int item = itemOfBidder[bidder];
+            if (item == -1) {
+                continue;
+            }
+            if (transposed) {
+                assignment[item] = bidder;
+            } else {
+                assignment[bidder] = item;
+            }
+        }
+        
+        return assignment;
+    }
+    
+    /**
+     * Replace the auction's pairs with the fallback solver's, as bidders and items
+     */
+    private void useFallback(double[] scores, int rows, int columns, boolean transposed,
+                             int[] itemOfBidder, int[] ownerOfItem) {
+        Arrays.fill(itemOfBidder, -1);
+        Arrays.fill(ownerOfItem, -1);
+        int[] fallbackAssignment = fallback.solve(scores, rows, columns);
+        for (int row = 0; row < rows; row++) {
+            int column = fallbackAssignment[row];
+            if (column != -1) {
+                int bidder = transposed ? column : row;
+                int item = transposed ? row : column;
+                itemOfBidder[bidder] = item;
+                ownerOfItem[item] = bidder;
+            }
+        }
+    }
+    
+    /**
+     * Assign as many bidders as possible by following augmenting paths from each
+     * unassigned bidder. A bidder keeps an item once it has one, though possibly
+     * another; the item a path ends on was free. Items a search could not get
+     * through stay marked until a path is found, so failed searches together
+     * cost one pass over the allowed pairs.
+     */
+    private static void augment(double[] values, int bidders, int items, int[] itemOfBidder, int[] ownerOfItem) {
+        int assigned = 0;
+        for (int bidder = 0; bidder < bidders; bidder++) {
+            if (itemOfBidder[bidder] != -1) {
+                assigned++;
+            }
+        }
+        
+        int[] visited = new int[items];
+        int mark = 1;
+        int[] path = new int[bidders]; // Bidders on the current path, each owning an item the one before it wants
+        int[] nextItem = new int[bidders];
+        for (int start = 0; start < bidders && assigned < items; start++) {
+            if (itemOfBidder[start] != -1) {
+                continue;
+            }
+            
+            int length = 0;
+            path[length++] = start;
+            nextItem[start] = 0;
+            int freeItem = -1;
+            while (length > 0 && freeItem == -1) {
+                int bidder = path[length - 1];
+                if (nextItem[bidder] == items) {
+                    length--;
+                    continue;
+                }
+                int item = nextItem[bidder]++;
+                if (values[bidder * items + item] == Double.NEGATIVE_INFINITY || visited[item] == mark) {
+                    continue;
+                }
+                visited[item] = mark;
+                int owner = ownerOfItem[item];
+                if (owner == -1) {
+                    freeItem = item;
+                } else {
+                    nextItem[owner] = 0;
+                    path[length++] = owner;
+                }
+            }
+            if (freeItem == -1) {
+                continue;
+            }
+            
+            // Move each bidder on the path to the item the one after it gives up
+            int item = freeItem;
+            for (int i = length - 1; i >= 0; i--) {
+                int bidder = path[i];
+                int previous = itemOfBidder[bidder];
+                itemOfBidder[bidder] = item;
+                ownerOfItem[item] = bidder;
+                item = previous;
+            }
+            assigned++;
+            mark++;
+        }
+    }
+}
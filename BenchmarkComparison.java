@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Regression gate comparing benchmark results against a stored baseline.
+ * 
+ * Entries are matched by name and compared on one measurement, where lower is
+ * better for times and higher is better for rates such as events per second.
+ * An entry regresses when its value is worse than the baseline by more than
+ * the threshold, or when this run skipped a case the baseline measured. The
+ * comparison fails on any regression, when no entry could be compared at all,
+ * and, unless missing entries are allowed, when a baseline entry has no
+ * counterpart in this run. Cases the baseline itself skipped are listed only.
+ * 
+ * Usage: java BenchmarkComparison [--allow-missing] [--higher-is-better]
+ *        <baseline file> <results file> [threshold percent] [measurement]
+ * Exits with status 1 if the comparison failed.
+ */
+public class BenchmarkComparison {
+    public static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    public static final String DEFAULT_MEASUREMENT = "medianNanos";
+    
+    /**
+     * Which way a measurement improves
+     */
+    public enum Direction {
+        LOWER_IS_BETTER,
+        HIGHER_IS_BETTER
+    }
+    
+    private final String measurement;
+    private final Direction direction;
+    private final double thresholdPercent;
+    private final boolean allowMissing;
+    private final List<String> regressions = new ArrayList<>();
+    private final List<String> missing = new ArrayList<>();
+    private final List<String> added = new ArrayList<>();
+    private final List<String> skippedInBaseline = new ArrayList<>();
+    private int compared;
+    
+    /**
+     * Compare two reports on a measurement where lower is better, failing on missing entries
+     * 
+     * @param baseline Stored results to compare against
+     * @param current Results of this run
+     * @param measurement Measurement to compare, where lower values are better
+     * @param thresholdPercent Increase over the baseline, in percent, beyond which an entry regresses
+     */
+    public BenchmarkComparison(BenchmarkReport baseline, BenchmarkReport current,
+                               String measurement, double thresholdPercent) {
+        this(baseline, current, measurement, Direction.LOWER_IS_BETTER, thresholdPercent, false);
+    }
+    
+    /**
+     * Compare two reports
+     * 
+     * @param baseline Stored results to compare against
+     * @param current Results of this run
+     * @param measurement Measurement to compare
+     * @param direction Whether lower or higher values of the measurement are better
+     * @param thresholdPercent Change for the worse, in percent of the baseline, beyond which an entry regresses
+     * @param allowMissing Whether baseline entries this run has no measurement for may pass
+     */
+    public BenchmarkComparison(BenchmarkReport baseline, BenchmarkReport current, String measurement,
+                               Direction direction, double thresholdPercent, boolean allowMissing) {
+        if (thresholdPercent < 0) {
+            throw new IllegalArgumentException("Threshold must not be negative: " + thresholdPercent);
+        }
+        this.measurement = measurement;
+        this.direction = direction;
+        this.thresholdPercent = thresholdPercent;
+        this.allowMissing = allowMissing;
+        
+        for (BenchmarkReport.Entry base : baseline.getEntries()) {
+            if (base.isSkipped()) {
+                skippedInBaseline.add(base.getName());
+                continue;
+            }
+            BenchmarkReport.Entry entry = current.getEntry(base.getName());
+            if (entry != null && entry.isSkipped()) {
+                regressions.add(base.getName() + ": skipped (" + entry.getSkipReason() + ")");
+                continue;
+            }
+            double baseValue = base.getNumber(measurement);
+            double value = entry != null ? entry.getNumber(measurement) : Double.NaN;
+            if (Double.isNaN(baseValue) || Double.isNaN(value)) {
+                missing.add(base.getName());
+                continue;
+            }
+            
+            compared++;
+            double change = baseValue > 0 ? (value - baseValue) / baseValue * 100 : 0;
+            double worsening = direction == Direction.LOWER_IS_BETTER ? change : -change;
+            if (worsening > thresholdPercent) {
+                regressions.add(String.format("%s: %s %.0f -> %.0f (%+.1f%%)",
+                                              base.getName(), measurement, baseValue, value, change));
+            }
+        }
+        for (BenchmarkReport.Entry entry : current.getEntries()) {
+            if (baseline.getEntry(entry.getName()) == null) {
+                added.add(entry.getName());
+            }
+        }
+    }
+    
+    public static void main(String[] args) throws IOException {
+        boolean allowMissing = false;
+        Direction direction = Direction.LOWER_IS_BETTER;
+        List<String> positional = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--allow-missing")) {
+                allowMissing = true;
+            } else if (arg.equals("--higher-is-better")) {
+                direction = Direction.HIGHER_IS_BETTER;
+            } else {
+                positional.add(arg);
+            }
+        }
+        if (positional.size() < 2) {
+            System.err.println("Usage: java BenchmarkComparison [--allow-missing] [--higher-is-better] " +
+                               "<baseline file> <results file> [threshold percent] [measurement]");
+            System.exit(2);
+        }
+        BenchmarkReport baseline = BenchmarkReport.read(Paths.get(positional.get(0)));
+        BenchmarkReport current = BenchmarkReport.read(Paths.get(positional.get(1)));
+        double threshold = positional.size() > 2 ? Double.parseDouble(positional.get(2)) : DEFAULT_THRESHOLD_PERCENT;
+        String measurement = positional.size() > 3 ? positional.get(3) : DEFAULT_MEASUREMENT;
+        
+        BenchmarkComparison comparison = new BenchmarkComparison(baseline, current, measurement, direction,
+                                                                 threshold, allowMissing);
+        comparison.print();
+        if (comparison.isFailed()) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Check whether the gate fails: an entry regressed, nothing could be compared,
+     * or a baseline entry is missing without missing entries being allowed
+     */
+    public boolean isFailed() {
+        return hasRegressions() || compared == 0 || (!allowMissing && !missing.isEmpty());
+    }
+    
+    public boolean hasRegressions() {
+        return !regressions.isEmpty();
+    }
+    
+    /**
+     * Get a description of every regressed entry
+     */
+    public List<String> getRegressions() {
+        return Collections.unmodifiableList(regressions);
+    }
+    
+    /**
+     * Get the baseline entries this run has no measurement for
+     */
+    public List<String> getMissing() {
+        return Collections.unmodifiableList(missing);
+    }
+    
+    /**
+     * Get the baseline entries the baseline run itself skipped
+     */
+    public List<String> getSkippedInBaseline() {
+        return Collections.unmodifiableList(skippedInBaseline);
+    }
+    
+    /**
+     * Get the entries of this run that the baseline does not have
+     */
+    public List<String> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+    
+    /**
+     * Print a summary of the comparison
+     */
+    public void print() {
+        System.out.printf("Compared %d entries on %s (%s) with a %.1f%% threshold%n", compared, measurement,
+                          direction == Direction.LOWER_IS_BETTER ? "lower is better" : "higher is better",
+                          thresholdPercent);
+        for (String name : missing) {
+            System.out.println("  Not measured: " + name);
+        }
+        for (String name : skippedInBaseline) {
+            System.out.println("  Skipped in baseline: " + name);
+        }
+        for (String name : added) {
+            System.out.println("  Not in baseline: " + name);
+        }
+        for (String regression : regressions) {
+            System.out.println("  REGRESSION " + regression);
+        }
+        
+        if (compared == 0) {
+            System.out.println("FAILED: no entry could be compared");
+        } else if (!allowMissing && !missing.isEmpty()) {
+            System.out.println("FAILED: " + missing.size() + " baseline entries not measured" +
+                               (regressions.isEmpty() ? "" : ", " + regressions.size() + " regression(s)"));
+        } else {
+            System.out.println(regressions.isEmpty() ? "No regressions" : regressions.size() + " regression(s)");
+        }
+    }
+}
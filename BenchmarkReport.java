@@ -0,0 +1,401 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Machine-readable results of a benchmark run, written as JSON.
+ * 
+ * A report holds one entry per benchmarked case. Each entry has a unique name
+ * and an ordered set of parameters and measurements, so results can be compared
+ * across runs by name. Reports written by write() can be read back with read(),
+ * for instance to compare against a stored baseline. A case a benchmark did
+ * not run is still added, marked as skipped, so comparisons can tell it from
+ * a case that no longer exists.
+ */
+public class BenchmarkReport {
+    private final String benchmark;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    
+    /**
+     * Create an empty report
+     * 
+     * @param benchmark Name of the benchmark the results come from
+     */
+    public BenchmarkReport(String benchmark) {
+        this.benchmark = benchmark;
+    }
+    
+    public String getBenchmark() {
+        return benchmark;
+    }
+    
+    /**
+     * Add an entry for one benchmarked case
+     * 
+     * @param name Name unique within the report
+     * @return The new entry, to put values into
+     */
+    public Entry add(String name) {
+        if (entries.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate benchmark entry: " + name);
+        }
+        Entry entry = new Entry(name);
+        entries.put(name, entry);
+        return entry;
+    }
+    
+    /**
+     * Get the entries in the order they were added
+     */
+    public Collection<Entry> getEntries() {
+        return Collections.unmodifiableCollection(entries.values());
+    }
+    
+    /**
+     * Get an entry by name, or null if there is none
+     */
+    public Entry getEntry(String name) {
+        return entries.get(name);
+    }
+    
+    /**
+     * Write the report as a JSON object with the benchmark name and an array of entries
+     */
+    public void write(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\n  \"benchmark\": ");
+            writer.write(quote(benchmark));
+            writer.write(",\n  \"results\": [");
+            
+            String separator = "\n";
+            for (Entry entry : entries.values()) {
+                writer.write(separator);
+                writer.write("    {\"name\": ");
+                writer.write(quote(entry.name));
+                for (Map.Entry<String, Object> value : entry.values.entrySet()) {
+                    writer.write(", ");
+                    writer.write(quote(value.getKey()));
+                    writer.write(": ");
+                    writer.write(value.getValue() instanceof String ? quote((String) value.getValue())
+                                                                    : String.valueOf(value.getValue()));
+                }
+                writer.write("}");
+                separator = ",\n";
+            }
+            writer.write("\n  ]\n}\n");
+        }
+    }
+    
+    /**
+     * Read a report written by write()
+     * 
+     * @throws IOException if the file cannot be read or is not a report
+     */
+    public static BenchmarkReport read(Path path) throws IOException {
+        String text = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        try {
+            JsonParser parser = new JsonParser(text);
+            Object root = parser.parseDocument();
+            if (!(root instanceof Map)) {
+                throw new IllegalArgumentException("expected an object at the top level");
+            }
+            Map<?, ?> object = (Map<?, ?>) root;
+            Object benchmark = object.get("benchmark");
+            Object results = object.get("results");
+            if (!(benchmark instanceof String) || !(results instanceof List)) {
+                throw new IllegalArgumentException("expected \"benchmark\" and \"results\" fields");
+            }
+            
+            BenchmarkReport report = new BenchmarkReport((String) benchmark);
+            for (Object result : (List<?>) results) {
+                if (!(result instanceof Map) || !(((Map<?, ?>) result).get("name") instanceof String)) {
+                    throw new IllegalArgumentException("expected results to be objects with a name");
+                }
+                Map<?, ?> fields = (Map<?, ?>) result;
+                Entry entry = report.add((String) fields.get("name"));
+                for (Map.Entry<?, ?> field : fields.entrySet()) {
+                    Object value = field.getValue();
+                    if (!field.getKey().equals("name")
+                            && (value instanceof String || value instanceof Number || value instanceof Boolean)) {
+                        entry.values.put((String) field.getKey(), value);
+                    }
+                }
+            }
+            return report;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid benchmark report " + path + ": " + e.getMessage(), e);
+        }
+    }
+    
+    private static String quote(String text) {
+        StringBuilder builder = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append('"').toString();
+    }
+    
+    /**
+     * Minimal JSON parser for reading reports back: objects become LinkedHashMaps, arrays
+     * ArrayLists, integral numbers Longs and other numbers Doubles
+     */
+    private static class JsonParser {
+        private final String text;
+        private int position;
+        
+        JsonParser(String text) {
+            this.text = text;
+        }
+        
+        Object parseDocument() {
+            Object value = parseValue();
+            skipWhitespace();
+            if (position != text.length()) {
+                throw error("unexpected trailing content");
+            }
+            return value;
+        }
+        
+        private Object parseValue() {
+            skipWhitespace();
+            if (position >= text.length()) {
+                throw error("unexpected end of input");
+            }
+            char c = text.charAt(position);
+            switch (c) {
+                case '{':
+                    return parseObject();
+                case '[':
+                    return parseArray();
+                case '"':
+                    return parseString();
+                case 't':
+                    expect("true");
+                    return Boolean.TRUE;
+                case 'f':
+                    expect("false");
+                    return Boolean.FALSE;
+                case 'n':
+                    expect("null");
+                    return null;
+                default:
+                    return parseNumber();
+            }
+        }
+        
+        private Map<String, Object> parseObject() {
+            Map<String, Object> object = new LinkedHashMap<>();
+            position++; // '{'
+            skipWhitespace();
+            if (peek() == '}') {
+                position++;
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                if (peek() != '"') {
+                    throw error("expected a field name");
+                }
+                String key = parseString();
+                skipWhitespace();
+                expect(":");
+                object.put(key, parseValue());
+                skipWhitespace();
+                char c = next();
+                if (c == '}') {
+                    return object;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+        
+        private List<Object> parseArray() {
+            List<Object> array = new ArrayList<>();
+            position++; // '['
+            skipWhitespace();
+            if (peek() == ']') {
+                position++;
+                return array;
+            }
+            while (true) {
+                array.add(parseValue());
+                skipWhitespace();
+                char c = next();
+                if (c == ']') {
+                    return array;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or ']'");
+                }
+            }
+        }
+        
+        private String parseString() {
+            StringBuilder builder = new StringBuilder();
+            position++; // Opening quote
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return builder.toString();
+                }
+                if (c != '\\') {
+                    builder.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw error("truncated unicode escape");
+                        }
+                        try {
+                            builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid unicode escape");
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        builder.append(escaped); // '"', '\\' and '/'
+                }
+            }
+        }
+        
+        private Number parseNumber() {
+            int start = position;
+            while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+                position++;
+            }
+            String number = text.substring(start, position);
+            try {
+                if (number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                    return Long.parseLong(number);
+                }
+                return Double.parseDouble(number);
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("expected a value");
+            }
+        }
+        
+        private void expect(String token) {
+            if (!text.startsWith(token, position)) {
+                throw error("expected " + token);
+            }
+            position += token.length();
+        }
+        
+        private char peek() {
+            return position < text.length() ? text.charAt(position) : 0;
+        }
+        
+        private char next() {
+            if (position >= text.length()) {
+                throw error("unexpected end of input");
+            }
+            return text.charAt(position++);
+        }
+        
+        private void skipWhitespace() {
+            while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+                position++;
+            }
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + position);
+        }
+    }
+    
+    /**
+     * Parameters and measurements of one benchmarked case
+     */
+    public static class Entry {
+        private static final String SKIPPED = "skipped";
+        private static final String SKIP_REASON = "skipReason";
+        
+        private final String name;
+        private final Map<String, Object> values = new LinkedHashMap<>();
+        
+        private Entry(String name) {
+            this.name = name;
+        }
+        
+        public String getName() {
+            return name;
+        }
+        
+        public Entry put(String key, String value) {
+            values.put(key, value);
+            return this;
+        }
+        
+        public Entry put(String key, long value) {
+            values.put(key, value);
+            return this;
+        }
+        
+        /**
+         * Put a measurement; values that are not finite are not valid JSON and are left out
+         */
+        public Entry put(String key, double value) {
+            if (Double.isFinite(value)) {
+                values.put(key, value);
+            }
+            return this;
+        }
+        
+        /**
+         * Mark the case as not run; it has parameters but no measurements
+         * 
+         * @param reason Why the benchmark skipped the case
+         */
+        public Entry skip(String reason) {
+            values.put(SKIPPED, Boolean.TRUE);
+            values.put(SKIP_REASON, reason);
+            return this;
+        }
+        
+        public boolean isSkipped() {
+            return Boolean.TRUE.equals(values.get(SKIPPED));
+        }
+        
+        /**
+         * Get why the case was skipped, or null if it was run
+         */
+        public String getSkipReason() {
+            return isSkipped() ? getText(SKIP_REASON) : null;
+        }
+        
+        /**
+         * Get a numeric value, or NaN if the entry has no number under this key
+         */
+        public double getNumber(String key) {
+            Object value = values.get(key);
+            return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+        }
+        
+        /**
+         * Get a text value, or null if the entry has no text under this key
+         */
+        public String getText(String key) {
+            Object value = values.get(key);
+            return value instanceof String ? (String) value : null;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.Arrays;
+
+/**
+ * Bounded per-processor candidate lists for batch assignment.
+ * 
+ * Each processor keeps only its best `capacity` jobs in a min-heap whose root
+ * is the weakest candidate kept, stored in flat primitive arrays. With
+ * capacity equal to the number of processors this is lossless for assignment:
+ * every other processor takes at most one job, so in any greedy or optimal
+ * assignment a processor's job can be swapped for one of its top candidates
+ * without lowering the total score.
+ */
+public class CandidateHeaps {
+    private int columns;
+    private int capacity;
+    private double[] scores; // Heap of processor c occupies [c * capacity, (c + 1) * capacity)
+    private int[] rows;
+    private int[] sizes;
+    private double[] weakestScores; // Root score of each full heap, contiguous for cheap rejection
+    
+    /**
+     * Create empty candidate heaps
+     * 
+     * @param columns Number of processors
+     * @param capacity Candidates kept per processor
+     */
+    public CandidateHeaps(int columns, int capacity) {
+        this.columns = columns;
+        this.capacity = capacity;
+        this.scores = new double[columns * capacity];
+        this.rows = new int[columns * capacity];
+        this.sizes = new int[columns];
+        this.weakestScores = new double[columns];
+        Arrays.fill(weakestScores, Double.NEGATIVE_INFINITY);
+    }
+    
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Offer a job as candidate for a processor; it is kept if it ranks among the best
+     * 
+     * Candidates rank by score, then by lower row so ties resolve in list order.
+     */
+    public void offer(int column, int row, double score) {
+        if (capacity == 0 || score < weakestScores[column]) {
+            return;
+        }
+        
+        int base = column * capacity;
+        int size = sizes[column];
+        
+        if (size < capacity) {
+            // Sift the new candidate up from the end
+            int position = size;
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+                if (!isWeaker(score, row, scores[base + parent], rows[base + parent])) {
+                    break;
+                }
+                scores[base + position] = scores[base + parent];
+                rows[base + position] = rows[base + parent];
+                position = parent;
+            }
+            scores[base + position] = score;
+            rows[base + position] = row;
+            sizes[column] = size + 1;
+            if (size + 1 == capacity) {
+                weakestScores[column] = scores[base];
+            }
+            return;
+        }
+        
+        // Full: replace the weakest candidate only if the new one beats it
+        if (!isWeaker(scores[base], rows[base], score, row)) {
+            return;
+        }
+        
+        int position = 0;
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isWeaker(scores[base + child + 1], rows[base + child + 1],
+                                             scores[base + child], rows[base + child])) {
+                child++;
+            }
+            if (!isWeaker(scores[base + child], rows[base + child], score, row)) {
+                break;
+            }
+            scores[base + position] = scores[base + child];
+            rows[base + position] = rows[base + child];
+            position = child;
+        }
+        scores[base + position] = score;
+        rows[base + position] = row;
+        weakestScores[column] = scores[base];
+    }
+    
+    /**
+     * Merge another set of heaps over the same processors into this one
+     */
+    public void addAll(CandidateHeaps other) {
+        for (int column = 0; column < columns; column++) {
+            int base = column * other.capacity;
+            for (int i = 0; i < other.sizes[column]; i++) {
+                offer(column, other.rows[base + i], other.scores[base + i]);
+            }
+        }
+    }
+    
+    /**
+     * Get every job that is a candidate for at least one processor, in ascending row order
+     */
+    public int[] getCandidateRows() {
+        int total = 0;
+        for (int column = 0; column < columns; column++) {
+            total += sizes[column];
+        }
+        
+        int[] candidateRows = new int[total];
+        int count = 0;
+        for (int column = 0; column < columns; column++) {
+            System.arraycopy(rows, column * capacity, candidateRows, count, sizes[column]);
+            count += sizes[column];
+        }
+        
+        Arrays.sort(candidateRows);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || candidateRows[distinct - 1] != candidateRows[i]) {
+                candidateRows[distinct++] = candidateRows[i];
+            }
+        }
+        return Arrays.copyOf(candidateRows, distinct);
+    }
+    
+    /**
+     * Build a row-major score matrix over the candidate rows
+     * 
+     * Pairs that were not kept as candidates are marked Double.NEGATIVE_INFINITY.
+     * 
+     * @param candidateRows Rows from getCandidateRows()
+     */
+    public double[] toScoreMatrix(int[] candidateRows) {
+        double[] matrix = new double[candidateRows.length * columns];
+        Arrays.fill(matrix, Double.NEGATIVE_INFINITY);
+        
+        for (int column = 0; column < columns; column++) {
+            int base = column * capacity;
+            for (int i = 0; i < sizes[column]; i++) {
+                int reducedRow = Arrays.binarySearch(candidateRows, rows[base + i]);
+                matrix[reducedRow * columns + column] = scores[base + i];
+            }
+        }
+        return matrix;
+    }
+    
+    /**
+     * Check whether candidate (score, row) ranks below (otherScore, otherRow)
+     */
+    private static boolean isWeaker(double score, int row, double otherScore, int otherRow) {
+        return score < otherScore || (score == otherScore && row > otherRow);
+    }
+}
@@ -0,0 +1,281 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Streaming reader for files written by ColumnarWriter.
+ * 
+ * The schema is read from the file header. Blocks are then loaded one at a
+ * time into a reused direct buffer, and values are read in place by column
+ * and row without decoding whole rows, so scanning a single column touches
+ * only that column's bytes.
+ */
+public class ColumnarReader implements Closeable {
+    private FileChannel channel;
+    private ColumnarSchema schema;
+    private int version;
+    private ByteBuffer blockHeader = ByteBuffer.allocateDirect(ColumnarWriter.BLOCK_HEADER_SIZE)
+                                               .order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer block = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+    private int blockRowCount;
+    private int[] columnStart; // Offset of each column in the block
+    private int[] stringStart; // Offset of the bytes of each UTF8 column
+    
+    /**
+     * Open a columnar file and read its schema
+     * 
+     * @throws IOException if the file is not a supported columnar file
+     */
+    public ColumnarReader(String filePath) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        try {
+            readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.columnStart = new int[schema.getColumnCount()];
+        this.stringStart = new int[schema.getColumnCount()];
+    }
+    
+    public ColumnarSchema getSchema() {
+        return schema;
+    }
+    
+    public int getVersion() {
+        return version;
+    }
+    
+    /**
+     * Load the next block
+     * 
+     * @return false at the end of the file
+     */
+    public boolean nextBlock() throws IOException {
+        blockHeader.clear();
+        if (!readFully(blockHeader, true)) {
+            blockRowCount = 0;
+            return false;
+        }
+        int rowCount = blockHeader.getInt(0);
+        int blockBytes = blockHeader.getInt(4);
+        if (rowCount < 1 || blockBytes < 0) {
+            throw new IOException("Corrupt block header: " + rowCount + " rows in " + blockBytes + " bytes");
+        }
+        
+        if (block.capacity() < blockBytes) {
+            block = ByteBuffer.allocateDirect(Math.max(blockBytes, 2 * block.capacity())).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        block.clear().limit(blockBytes);
+        readFully(block, false);
+        
+        // Locate the columns
+        int offset = 0;
+        for (int column = 0; column < columnStart.length; column++) {
+            columnStart[column] = offset;
+            int width = schema.getColumnType(column).getWidth();
+            if (width > 0) {
+                offset += rowCount * width;
+            } else {
+                stringStart[column] = offset + (rowCount + 1) * 4;
+                offset = stringStart[column] + (stringStart[column] <= blockBytes ? block.getInt(stringStart[column] - 4) : 0);
+            }
+            if (offset > blockBytes) {
+                throw new IOException("Block of " + blockBytes + " bytes is too short for " + rowCount + " rows");
+            }
+        }
+        if (offset != blockBytes) {
+            throw new IOException("Block has " + (blockBytes - offset) + " unexpected trailing bytes");
+        }
+        blockRowCount = rowCount;
+        return true;
+    }
+    
+    /**
+     * Get the number of rows in the current block
+     */
+    public int getBlockRowCount() {
+        return blockRowCount;
+    }
+    
+    /**
+     * Get a read-only view of one column of the current block. Fixed-width
+     * columns hold packed little-endian values; UTF8 columns hold the row
+     * offsets followed by the bytes. The view is only valid until nextBlock().
+     */
+    public ByteBuffer getColumn(int column) {
+        int end = column + 1 < columnStart.length ? columnStart[column + 1] : block.limit();
+        ByteBuffer view = block.duplicate();
+        view.limit(end).position(columnStart[column]);
+        return view.slice().order(ByteOrder.LITTLE_ENDIAN).asReadOnlyBuffer();
+    }
+    
+    public int getInt(int column, int row) {
+        return block.getInt(valueOffset(column, row, ColumnarSchema.ColumnType.INT32));
+    }
+    
+    public long getLong(int column, int row) {
+        return block.getLong(valueOffset(column, row, ColumnarSchema.ColumnType.INT64));
+    }
+    
+    public double getDouble(int column, int row) {
+        return block.getDouble(valueOffset(column, row, ColumnarSchema.ColumnType.FLOAT64));
+    }
+    
+    public String getString(int column, int row) {
+        int offsets = valueOffset(column, row, ColumnarSchema.ColumnType.UTF8);
+        int start = block.getInt(offsets);
+        int length = block.getInt(offsets + 4) - start;
+        byte[] bytes = new byte[length];
+        ByteBuffer view = block.duplicate();
+        view.position(stringStart[column] + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Iterate over the jobs of a JOB_SPECS file, loading blocks as needed.
+     * I/O errors while iterating are thrown as UncheckedIOException.
+     */
+    public Iterator<Job> jobs() {
+        if (!schema.sameLayout(ColumnarSchema.JOB_SPECS)) {
+            throw new IllegalStateException("File schema is " + schema.getName() + ", not " +
+                                            ColumnarSchema.JOB_SPECS.getName());
+        }
+        return new Iterator<Job>() {
+            private int row = blockRowCount;
+            
+            @Override
+            public boolean hasNext() {
+                try {
+                    while (row >= blockRowCount) {
+                        if (!nextBlock()) {
+                            return false;
+                        }
+                        row = 0;
+                    }
+                    return true;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            
+            @Override
+            public Job next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return readJob(row++);
+            }
+        };
+    }
+    
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+    
+    private Job readJob(int row) {
+        int id = getInt(ColumnarSchema.SPEC_ID, row);
+        long arrivalTime = getLong(ColumnarSchema.SPEC_ARRIVAL_TIME, row);
+        int executionTime = getInt(ColumnarSchema.SPEC_EXECUTION_TIME, row);
+        int priority = getInt(ColumnarSchema.SPEC_PRIORITY, row);
+        int flags = getInt(ColumnarSchema.SPEC_FLAGS, row);
+        
+        Job job;
+        if ((flags & TraceWriter.FLAG_RESOURCES) != 0) {
+            ResourceAwareJob resourceJob = new ResourceAwareJob(id, arrivalTime, executionTime, priority);
+            resourceJob.setResourceRequirements(getInt(ColumnarSchema.SPEC_MEMORY, row),
+                                                getInt(ColumnarSchema.SPEC_NETWORK, row),
+                                                getInt(ColumnarSchema.SPEC_CPU, row));
+            job = resourceJob;
+        } else {
+            job = new Job(id, arrivalTime, executionTime, priority);
+        }
+        job.setEstimatedExecutionTime(getInt(ColumnarSchema.SPEC_ESTIMATED_TIME, row));
+        job.setIOBound((flags & TraceWriter.FLAG_IO_BOUND) != 0);
+        return job;
+    }
+    
+    private int valueOffset(int column, int row, ColumnarSchema.ColumnType type) {
+        if (schema.getColumnType(column) != type) {
+            throw new IllegalArgumentException("Column " + schema.getColumnName(column) + " is " +
+                                               schema.getColumnType(column) + ", not " + type);
+        }
+        if (row < 0 || row >= blockRowCount) {
+            throw new IndexOutOfBoundsException("Row " + row + " of a block with " + blockRowCount + " rows");
+        }
+        return columnStart[column] + row * (type == ColumnarSchema.ColumnType.UTF8 ? 4 : type.getWidth());
+    }
+    
+    private void readHeader() throws IOException {
+        ByteBuffer prefix = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(prefix, false);
+        if (prefix.getInt(0) != ColumnarWriter.MAGIC) {
+            throw new IOException("Not a columnar file");
+        }
+        version = prefix.getInt(4);
+        if (version < 1 || version > ColumnarWriter.VERSION) {
+            throw new IOException("Unsupported columnar format version " + version);
+        }
+        int headerLength = prefix.getInt(8);
+        if (headerLength < 18) {
+            throw new IOException("Corrupt columnar header length " + headerLength);
+        }
+        
+        ByteBuffer header = ByteBuffer.allocate(headerLength - 12).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(header, false);
+        header.flip();
+        String name = readName(header);
+        int columnCount = header.getInt();
+        if (columnCount < 1 || columnCount > 64) {
+            throw new IOException("Corrupt column count " + columnCount);
+        }
+        ColumnarSchema.ColumnType[] types = ColumnarSchema.ColumnType.values();
+        String[] columnNames = new String[columnCount];
+        ColumnarSchema.ColumnType[] columnTypes = new ColumnarSchema.ColumnType[columnCount];
+        for (int column = 0; column < columnCount; column++) {
+            int type = header.get();
+            if (type < 0 || type >= types.length) {
+                throw new IOException("Unknown column type " + type);
+            }
+            columnTypes[column] = types[type];
+            columnNames[column] = readName(header);
+        }
+        schema = new ColumnarSchema(name, columnNames, columnTypes);
+    }
+    
+    private static String readName(ByteBuffer header) {
+        byte[] bytes = new byte[header.getShort() & 0xFFFF];
+        header.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Fill the buffer from the channel
+     * 
+     * @param endAllowed Whether a clean end of file before the first byte is expected
+     * @return false if the file ended before the first byte and endAllowed is set
+     */
+    private boolean readFully(ByteBuffer buffer, boolean endAllowed) throws IOException {
+        boolean first = true;
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (first && endAllowed) {
+                    return false;
+                }
+                throw new EOFException("Columnar file ends in the middle of a block");
+            }
+            first = false;
+        }
+        return true;
+    }
+}
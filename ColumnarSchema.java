@@ -0,0 +1,153 @@
+import java.util.*;
+
+/**
+ * Column layout of a columnar binary file written by ColumnarWriter.
+ * 
+ * The schema is stored in the file header, so every file describes itself
+ * and readers can check they were given the layout they expect. Standard
+ * schemas are provided for job specs, per-job outcomes and scheduling metrics.
+ */
+public class ColumnarSchema {
+    public enum ColumnType {
+        INT32(4),
+        INT64(8),
+        FLOAT64(8),
+        UTF8(-1); // Variable width: row offsets followed by the bytes
+        
+        private final int width;
+        
+        ColumnType(int width) {
+            this.width = width;
+        }
+        
+        /**
+         * Get the bytes per value, or -1 for variable-width columns
+         */
+        public int getWidth() {
+            return width;
+        }
+    }
+    
+    // Columns of JOB_SPECS
+    public static final int SPEC_ID = 0;
+    public static final int SPEC_ARRIVAL_TIME = 1;
+    public static final int SPEC_EXECUTION_TIME = 2;
+    public static final int SPEC_ESTIMATED_TIME = 3;
+    public static final int SPEC_PRIORITY = 4;
+    public static final int SPEC_FLAGS = 5; // TraceWriter.FLAG_IO_BOUND | TraceWriter.FLAG_RESOURCES
+    public static final int SPEC_MEMORY = 6;
+    public static final int SPEC_NETWORK = 7;
+    public static final int SPEC_CPU = 8;
+    
+    // Columns of JOB_OUTCOMES
+    public static final int OUTCOME_ID = 0;
+    public static final int OUTCOME_START_TIME = 1;
+    public static final int OUTCOME_COMPLETION_TIME = 2;
+    public static final int OUTCOME_WAITING_TIME = 3;
+    public static final int OUTCOME_PROCESSOR = 4;
+    
+    // Columns of SCHEDULING_METRICS
+    public static final int METRICS_LABEL = 0;
+    public static final int METRICS_MAKESPAN = 1;
+    public static final int METRICS_AVERAGE_WAITING_TIME = 2;
+    public static final int METRICS_AVERAGE_TURNAROUND_TIME = 3;
+    public static final int METRICS_THROUGHPUT = 4;
+    public static final int METRICS_RESOURCE_UTILIZATION = 5;
+    public static final int METRICS_P95_WAITING_TIME = 6;
+    public static final int METRICS_P99_WAITING_TIME = 7;
+    public static final int METRICS_MAX_WAITING_TIME = 8;
+    public static final int METRICS_P95_BOUNDED_SLOWDOWN = 9;
+    public static final int METRICS_P99_BOUNDED_SLOWDOWN = 10;
+    public static final int METRICS_MAX_BOUNDED_SLOWDOWN = 11;
+    
+    public static final ColumnarSchema JOB_SPECS = new ColumnarSchema("JobSpecs",
+        new String[] {"JobId", "ArrivalTime", "ExecutionTime", "EstimatedTime", "Priority", "Flags",
+                      "MemoryReq", "NetworkReq", "CpuReq"},
+        new ColumnType[] {ColumnType.INT32, ColumnType.INT64, ColumnType.INT32, ColumnType.INT32, ColumnType.INT32,
+                          ColumnType.INT32, ColumnType.INT32, ColumnType.INT32, ColumnType.INT32});
+    
+    /**
+     * Start, completion and waiting time are -1 when unknown; processor is -1 if the job never ran
+     */
+    public static final ColumnarSchema JOB_OUTCOMES = new ColumnarSchema("JobOutcomes",
+        new String[] {"JobId", "StartTime", "CompletionTime", "WaitingTime", "Processor"},
+        new ColumnType[] {ColumnType.INT32, ColumnType.INT64, ColumnType.INT64, ColumnType.INT64, ColumnType.INT32});
+    
+    /**
+     * Waiting-time tail columns are -1 and bounded-slowdown columns NaN for metrics without a latency distribution
+     */
+    public static final ColumnarSchema SCHEDULING_METRICS = new ColumnarSchema("SchedulingMetrics",
+        new String[] {"Label", "Makespan", "AverageWaitingTime", "AverageTurnaroundTime", "Throughput",
+                      "ResourceUtilization", "P95WaitingTime", "P99WaitingTime", "MaxWaitingTime",
+                      "P95BoundedSlowdown", "P99BoundedSlowdown", "MaxBoundedSlowdown"},
+        new ColumnType[] {ColumnType.UTF8, ColumnType.FLOAT64, ColumnType.FLOAT64, ColumnType.FLOAT64,
+                          ColumnType.FLOAT64, ColumnType.FLOAT64, ColumnType.INT64, ColumnType.INT64,
+                          ColumnType.INT64, ColumnType.FLOAT64, ColumnType.FLOAT64, ColumnType.FLOAT64});
+    
+    private String name;
+    private String[] columnNames;
+    private ColumnType[] columnTypes;
+    
+    /**
+     * Create a schema
+     * 
+     * @param name Name stored in the file header
+     * @param columnNames Name of each column
+     * @param columnTypes Type of each column
+     */
+    public ColumnarSchema(String name, String[] columnNames, ColumnType[] columnTypes) {
+        if (columnNames.length != columnTypes.length || columnNames.length == 0 || columnNames.length > 64) {
+            throw new IllegalArgumentException("Need between 1 and 64 columns, each with a name and a type");
+        }
+        this.name = name;
+        this.columnNames = columnNames.clone();
+        this.columnTypes = columnTypes.clone();
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+    
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+    
+    public ColumnType getColumnType(int column) {
+        return columnTypes[column];
+    }
+    
+    /**
+     * Find a column by name
+     * 
+     * @return Column index, or -1 if there is no such column
+     */
+    public int indexOf(String columnName) {
+        for (int column = 0; column < columnNames.length; column++) {
+            if (columnNames[column].equals(columnName)) {
+                return column;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Check whether another schema has the same name and columns
+     */
+    public boolean sameLayout(ColumnarSchema other) {
+        return name.equals(other.name) && Arrays.equals(columnNames, other.columnNames) &&
+               Arrays.equals(columnTypes, other.columnTypes);
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(name).append('(');
+        for (int column = 0; column < columnNames.length; column++) {
+            builder.append(column > 0 ? ", " : "").append(columnNames[column]).append(' ').append(columnTypes[column]);
+        }
+        return builder.append(')').toString();
+    }
+}
@@ -0,0 +1,319 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streaming writer for versioned, columnar binary files.
+ * 
+ * A file is a header (magic "JCOL", format version, header length, then the
+ * schema) followed by blocks of up to blockRows rows. Each block starts with
+ * its row count and byte length, then stores every column contiguously:
+ * fixed-width columns as packed little-endian values, UTF8 columns as
+ * rowCount + 1 int offsets followed by the bytes. Rows are staged in one
+ * direct buffer per column and each full block goes out in a single
+ * gathering write, so nothing is formatted as text and memory stays at one
+ * block however many rows are written.
+ */
+public class ColumnarWriter implements Closeable {
+    static final int MAGIC = 0x4C4F434A; // "JCOL" read as a little-endian int
+    static final int VERSION = 2; // 2 added the latency tail columns of SCHEDULING_METRICS
+    static final int BLOCK_HEADER_SIZE = 8;
+    
+    public static final int DEFAULT_BLOCK_ROWS = 8192;
+    
+    // Blocks are flushed early once their strings reach this size, keeping block lengths in int range
+    private static final int MAX_STRING_BYTES = 1 << 26;
+    
+    private FileChannel channel;
+    private ColumnarSchema schema;
+    private int blockRows;
+    private ByteBuffer blockHeader;
+    private ByteBuffer[] columns; // Values, or row offsets for UTF8 columns
+    private ByteBuffer[] stringBytes; // Bytes of UTF8 columns, null for the others
+    private long pendingColumns; // Bit per column not yet set in the current row
+    private long allColumns;
+    private int rowCount; // Rows in the current block
+    private long totalRows;
+    
+    /**
+     * Create a columnar file, replacing any existing file
+     * 
+     * @param filePath Path of the file to write
+     * @param schema Layout of every row
+     */
+    public ColumnarWriter(String filePath, ColumnarSchema schema) throws IOException {
+        this(filePath, schema, DEFAULT_BLOCK_ROWS);
+    }
+    
+    /**
+     * Create a columnar file with a specific block size
+     * 
+     * @param blockRows Rows per block; readers hold one block at a time
+     */
+    public ColumnarWriter(String filePath, ColumnarSchema schema, int blockRows) throws IOException {
+        if (blockRows < 1) {
+            throw new IllegalArgumentException("Blocks need at least one row: " + blockRows);
+        }
+        this.schema = schema;
+        this.blockRows = blockRows;
+        this.blockHeader = ByteBuffer.allocateDirect(BLOCK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.columns = new ByteBuffer[schema.getColumnCount()];
+        this.stringBytes = new ByteBuffer[schema.getColumnCount()];
+        for (int column = 0; column < columns.length; column++) {
+            int width = schema.getColumnType(column).getWidth();
+            if (width > 0) {
+                columns[column] = ByteBuffer.allocateDirect(blockRows * width).order(ByteOrder.LITTLE_ENDIAN);
+            } else {
+                columns[column] = ByteBuffer.allocateDirect((blockRows + 1) * 4).order(ByteOrder.LITTLE_ENDIAN);
+                stringBytes[column] = ByteBuffer.allocateDirect(16 * blockRows);
+            }
+        }
+        this.allColumns = columns.length == 64 ? -1L : (1L << columns.length) - 1;
+        this.pendingColumns = allColumns;
+        
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        try {
+            writeHeader();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public ColumnarSchema getSchema() {
+        return schema;
+    }
+    
+    /**
+     * Get the number of complete rows written so far
+     */
+    public long getRowCount() {
+        return totalRows;
+    }
+    
+    public void setInt(int column, int value) {
+        columns[checkColumn(column, ColumnarSchema.ColumnType.INT32)].putInt(rowCount * 4, value);
+    }
+    
+    public void setLong(int column, long value) {
+        columns[checkColumn(column, ColumnarSchema.ColumnType.INT64)].putLong(rowCount * 8, value);
+    }
+    
+    public void setDouble(int column, double value) {
+        columns[checkColumn(column, ColumnarSchema.ColumnType.FLOAT64)].putDouble(rowCount * 8, value);
+    }
+    
+    public void setString(int column, String value) {
+        checkColumn(column, ColumnarSchema.ColumnType.UTF8);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = stringBytes[column];
+        if (buffer.remaining() < bytes.length) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(Math.max(2 * buffer.capacity(), buffer.position() + bytes.length));
+            buffer.flip();
+            larger.put(buffer);
+            stringBytes[column] = buffer = larger;
+        }
+        buffer.put(bytes);
+        columns[column].putInt((rowCount + 1) * 4, buffer.position());
+    }
+    
+    /**
+     * Finish the current row; every column must have been set
+     * 
+     * @throws IllegalStateException if a column is missing
+     */
+    public void endRow() throws IOException {
+        if (pendingColumns != 0) {
+            int missing = Long.numberOfTrailingZeros(pendingColumns);
+            throw new IllegalStateException("Column " + schema.getColumnName(missing) + " was not set");
+        }
+        pendingColumns = allColumns;
+        rowCount++;
+        totalRows++;
+        if (rowCount == blockRows || stringBytesInBlock() >= MAX_STRING_BYTES) {
+            flushBlock();
+        }
+    }
+    
+    /**
+     * Write one row of a JOB_SPECS file
+     */
+    public void writeJobSpec(Job job) throws IOException {
+        checkSchema(ColumnarSchema.JOB_SPECS);
+        int flags = job.isIOBound() ? TraceWriter.FLAG_IO_BOUND : 0;
+        int memory = 0;
+        int network = 0;
+        int cpu = 0;
+        if (job instanceof ResourceAwareJob) {
+            ResourceAwareJob resourceJob = (ResourceAwareJob) job;
+            flags |= TraceWriter.FLAG_RESOURCES;
+            memory = resourceJob.getMemoryRequirement();
+            network = resourceJob.getNetworkRequirement();
+            cpu = resourceJob.getCpuRequirement();
+        }
+        
+        setInt(ColumnarSchema.SPEC_ID, job.getId());
+        setLong(ColumnarSchema.SPEC_ARRIVAL_TIME, job.getArrivalTime());
+        setInt(ColumnarSchema.SPEC_EXECUTION_TIME, job.getExecutionTime());
+        setInt(ColumnarSchema.SPEC_ESTIMATED_TIME, job.getEstimatedExecutionTime());
+        setInt(ColumnarSchema.SPEC_PRIORITY, job.getPriority());
+        setInt(ColumnarSchema.SPEC_FLAGS, flags);
+        setInt(ColumnarSchema.SPEC_MEMORY, memory);
+        setInt(ColumnarSchema.SPEC_NETWORK, network);
+        setInt(ColumnarSchema.SPEC_CPU, cpu);
+        endRow();
+    }
+    
+    /**
+     * Write one row of a JOB_OUTCOMES file
+     * 
+     * @param waitingTime Time the job waited, or -1 if unknown
+     * @param processorId Processor that last ran the job, or -1 if it never ran
+     */
+    public void writeJobOutcome(Job job, long waitingTime, int processorId) throws IOException {
+        checkSchema(ColumnarSchema.JOB_OUTCOMES);
+        setInt(ColumnarSchema.OUTCOME_ID, job.getId());
+        setLong(ColumnarSchema.OUTCOME_START_TIME, job.getStartTime());
+        setLong(ColumnarSchema.OUTCOME_COMPLETION_TIME, job.getCompletionTime());
+        setLong(ColumnarSchema.OUTCOME_WAITING_TIME, waitingTime);
+        setInt(ColumnarSchema.OUTCOME_PROCESSOR, processorId);
+        endRow();
+    }
+    
+    /**
+     * Write one row of a SCHEDULING_METRICS file
+     * 
+     * @param label Name of the run, such as the scheduler and workload
+     */
+    public void writeMetrics(String label, SchedulingMetrics metrics) throws IOException {
+        checkSchema(ColumnarSchema.SCHEDULING_METRICS);
+        setString(ColumnarSchema.METRICS_LABEL, label);
+        setDouble(ColumnarSchema.METRICS_MAKESPAN, metrics.getMakespan());
+        setDouble(ColumnarSchema.METRICS_AVERAGE_WAITING_TIME, metrics.getAverageWaitingTime());
+        setDouble(ColumnarSchema.METRICS_AVERAGE_TURNAROUND_TIME, metrics.getAverageTurnaroundTime());
+        setDouble(ColumnarSchema.METRICS_THROUGHPUT, metrics.getThroughput());
+        setDouble(ColumnarSchema.METRICS_RESOURCE_UTILIZATION, metrics.getResourceUtilization());
+        boolean hasLatencies = metrics.getLatencies() != null;
+        setLong(ColumnarSchema.METRICS_P95_WAITING_TIME, hasLatencies ? metrics.getWaitingTimePercentile(95) : -1);
+        setLong(ColumnarSchema.METRICS_P99_WAITING_TIME, hasLatencies ? metrics.getWaitingTimePercentile(99) : -1);
+        setLong(ColumnarSchema.METRICS_MAX_WAITING_TIME, hasLatencies ? metrics.getMaxWaitingTime() : -1);
+        setDouble(ColumnarSchema.METRICS_P95_BOUNDED_SLOWDOWN,
+                  hasLatencies ? metrics.getBoundedSlowdownPercentile(95) : Double.NaN);
+        setDouble(ColumnarSchema.METRICS_P99_BOUNDED_SLOWDOWN,
+                  hasLatencies ? metrics.getBoundedSlowdownPercentile(99) : Double.NaN);
+        setDouble(ColumnarSchema.METRICS_MAX_BOUNDED_SLOWDOWN,
+                  hasLatencies ? metrics.getMaxBoundedSlowdown() : Double.NaN);
+        endRow();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowCount > 0) {
+                flushBlock();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+    
+    private int checkColumn(int column, ColumnarSchema.ColumnType type) {
+        if (schema.getColumnType(column) != type) {
+            throw new IllegalArgumentException("Column " + schema.getColumnName(column) + " is " +
+                                               schema.getColumnType(column) + ", not " + type);
+        }
+        pendingColumns &= ~(1L << column);
+        return column;
+    }
+    
+    private void checkSchema(ColumnarSchema expected) {
+        if (!schema.sameLayout(expected)) {
+            throw new IllegalStateException("Writer schema is " + schema.getName() + ", not " + expected.getName());
+        }
+    }
+    
+    private long stringBytesInBlock() {
+        long bytes = 0;
+        for (ByteBuffer buffer : stringBytes) {
+            if (buffer != null) {
+                bytes += buffer.position();
+            }
+        }
+        return bytes;
+    }
+    
+    private void writeHeader() throws IOException {
+        byte[] name = schema.getName().getBytes(StandardCharsets.UTF_8);
+        int length = 12 + 2 + name.length + 4;
+        byte[][] columnNames = new byte[columns.length][];
+        for (int column = 0; column < columns.length; column++) {
+            columnNames[column] = schema.getColumnName(column).getBytes(StandardCharsets.UTF_8);
+            length += 1 + 2 + columnNames[column].length;
+        }
+        
+        ByteBuffer header = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(length);
+        header.putShort((short) name.length).put(name);
+        header.putInt(columns.length);
+        for (int column = 0; column < columns.length; column++) {
+            header.put((byte) schema.getColumnType(column).ordinal());
+            header.putShort((short) columnNames[column].length).put(columnNames[column]);
+        }
+        header.flip();
+        writeFully(new ByteBuffer[] {header});
+    }
+    
+    private void flushBlock() throws IOException {
+        ByteBuffer[] parts = new ByteBuffer[1 + columns.length + columns.length];
+        int partCount = 0;
+        long blockBytes = 0;
+        parts[partCount++] = blockHeader;
+        for (int column = 0; column < columns.length; column++) {
+            int width = schema.getColumnType(column).getWidth();
+            ByteBuffer values = columns[column];
+            values.clear();
+            values.limit(width > 0 ? rowCount * width : (rowCount + 1) * 4);
+            parts[partCount++] = values;
+            blockBytes += values.remaining();
+            if (width < 0) {
+                ByteBuffer bytes = stringBytes[column];
+                bytes.flip();
+                parts[partCount++] = bytes;
+                blockBytes += bytes.remaining();
+            }
+        }
+        
+        blockHeader.clear();
+        blockHeader.putInt(rowCount).putInt((int) blockBytes);
+        blockHeader.flip();
+        ByteBuffer[] used = new ByteBuffer[partCount];
+        System.arraycopy(parts, 0, used, 0, partCount);
+        writeFully(used);
+        
+        // Reset the staging buffers for the next block
+        for (int column = 0; column < columns.length; column++) {
+            columns[column].clear();
+            if (stringBytes[column] != null) {
+                stringBytes[column].clear();
+                columns[column].putInt(0, 0);
+            }
+        }
+        rowCount = 0;
+    }
+    
+    private void writeFully(ByteBuffer[] buffers) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer buffer : buffers) {
+            remaining += buffer.remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers);
+        }
+    }
+}
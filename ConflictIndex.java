@@ -0,0 +1,165 @@
+import java.util.*;
+
+/**
+ * Symmetric index of CONFLICTS_WITH relationships plus the set of running jobs.
+ * 
+ * Each job's conflicting ids are kept as a sorted, duplicate-free slice of one
+ * flat int array, and running jobs are bits in a bitmap, so checking a job
+ * for conflicts costs one bit test per conflict edge and allocates nothing.
+ * A conflict declared by either job applies in both directions.
+ * 
+ * Jobs are identified by id, so the index works on simulation copies whose
+ * dependency maps still point at the original jobs. The running set must be
+ * told about every start and finish.
+ */
+public class ConflictIndex {
+    private int[] conflictOffsets;
+    private int[] conflicts;
+    private long[] running;
+    
+    /**
+     * Build an index over a list of jobs with unique, non-negative ids and attach
+     * it to the dependency-aware ones, whose hasConflicts() then reads it
+     * 
+     * @param jobs Jobs to index; conflicts with jobs outside the list are ignored
+     */
+    public ConflictIndex(List<? extends Job> jobs) {
+        int maxId = -1;
+        for (Job job : jobs) {
+            if (job.getId() < 0) {
+                throw new IllegalArgumentException("Job ids must be non-negative: " + job);
+            }
+            maxId = Math.max(maxId, job.getId());
+        }
+        boolean[] indexed = new boolean[maxId + 1];
+        for (Job job : jobs) {
+            if (indexed[job.getId()]) {
+                throw new IllegalArgumentException("Duplicate job id: " + job.getId());
+            }
+            indexed[job.getId()] = true;
+        }
+        
+        // Count both directions of every declared conflict, then lay them out by job id
+        this.conflictOffsets = new int[maxId + 2];
+        for (Job job : jobs) {
+            for (Job other : declaredConflicts(job)) {
+                int otherId = other.getId();
+                if (otherId >= 0 && otherId <= maxId && indexed[otherId] && otherId != job.getId()) {
+                    conflictOffsets[job.getId() + 1]++;
+                    conflictOffsets[otherId + 1]++;
+                }
+            }
+        }
+        for (int id = 0; id <= maxId; id++) {
+            conflictOffsets[id + 1] += conflictOffsets[id];
+        }
+        
+        int[] pairs = new int[conflictOffsets[maxId + 1]];
+        int[] fill = Arrays.copyOf(conflictOffsets, maxId + 1);
+        for (Job job : jobs) {
+            for (Job other : declaredConflicts(job)) {
+                int otherId = other.getId();
+                if (otherId >= 0 && otherId <= maxId && indexed[otherId] && otherId != job.getId()) {
+                    pairs[fill[job.getId()]++] = otherId;
+                    pairs[fill[otherId]++] = job.getId();
+                }
+            }
+        }
+        
+        // Sort each slice and drop pairs declared from both sides
+        int[] compactOffsets = new int[maxId + 2];
+        int kept = 0;
+        for (int id = 0; id <= maxId; id++) {
+            int start = conflictOffsets[id];
+            int end = conflictOffsets[id + 1];
+            Arrays.sort(pairs, start, end);
+            for (int i = start; i < end; i++) {
+                if (i == start || pairs[i] != pairs[i - 1]) {
+                    pairs[kept++] = pairs[i];
+                }
+            }
+            compactOffsets[id + 1] = kept;
+        }
+        this.conflictOffsets = compactOffsets;
+        this.conflicts = Arrays.copyOf(pairs, kept);
+        this.running = new long[(maxId + 64) >>> 6];
+        
+        for (Job job : jobs) {
+            if (job instanceof DependencyAwareJob) {
+                ((DependencyAwareJob) job).setConflictIndex(this);
+            }
+        }
+    }
+    
+    /**
+     * Check whether any job conflicting with a job is running
+     * 
+     * @param jobId Id of the job to check
+     */
+    public boolean hasRunningConflict(int jobId) {
+        if (!isIndexed(jobId)) {
+            return false;
+        }
+        for (int i = conflictOffsets[jobId]; i < conflictOffsets[jobId + 1]; i++) {
+            if (isRunning(conflicts[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Check whether two jobs conflict, in either direction
+     */
+    public boolean conflicts(int jobId, int otherId) {
+        return isIndexed(jobId) &&
+               Arrays.binarySearch(conflicts, conflictOffsets[jobId], conflictOffsets[jobId + 1], otherId) >= 0;
+    }
+    
+    /**
+     * Get the number of jobs a job conflicts with
+     */
+    public int getConflictCount(int jobId) {
+        return isIndexed(jobId) ? conflictOffsets[jobId + 1] - conflictOffsets[jobId] : 0;
+    }
+    
+    /**
+     * Record that a job has been assigned to a processor
+     * 
+     * @param jobId Id of the started job; ids outside the index are ignored
+     */
+    public void markRunning(int jobId) {
+        if (isIndexed(jobId)) {
+            running[jobId >>> 6] |= 1L << jobId;
+        }
+    }
+    
+    /**
+     * Record that a job has left its processor
+     * 
+     * @param jobId Id of the finished job; ids outside the index are ignored
+     */
+    public void markFinished(int jobId) {
+        if (isIndexed(jobId)) {
+            running[jobId >>> 6] &= ~(1L << jobId);
+        }
+    }
+    
+    public boolean isRunning(int jobId) {
+        return isIndexed(jobId) && (running[jobId >>> 6] & (1L << jobId)) != 0;
+    }
+    
+    private boolean isIndexed(int jobId) {
+        return jobId >= 0 && jobId < conflictOffsets.length - 1;
+    }
+    
+    /**
+     * Get the CONFLICTS_WITH dependencies a job declared itself; plain jobs have none
+     */
+    private static List<Job> declaredConflicts(Job job) {
+        if (job instanceof DependencyAwareJob) {
+            return ((DependencyAwareJob) job).getDependenciesByType(DependencyAwareJob.DependencyType.CONFLICTS_WITH);
+        }
+        return Collections.emptyList();
+    }
+}
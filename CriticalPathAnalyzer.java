@@ -0,0 +1,538 @@
+import java.util.*;
+
+/**
+ * Whole-graph critical path analysis over REQUIRES dependencies.
+ * 
+ * One pass in topological order (Kahn's algorithm) computes each job's
+ * top level, the longest chain of required work that must finish before it
+ * can start, and one pass in reverse order computes its bottom level, the
+ * longest chain from its start to the end of the graph including itself.
+ * Slack is how far a job can slip without lengthening the whole graph; jobs
+ * with zero slack are on a critical path. Both passes are iterative, run in
+ * O(V + E) and read adjacency straight from a job's DependencyGraph when it
+ * is bound to one.
+ * 
+ * Completions are applied incrementally instead of rerunning the passes.
+ * While every completed job's required dependencies have completed too, a
+ * pending job's bottom level never changes, and the top level of a pending
+ * job whose dependencies have all completed is fixed. Completing a job only
+ * touches its direct dependents, and the graph length is kept as the longest
+ * path through those ready jobs. Other levels are derived on demand from the
+ * nearest fixed ones, at most once per job between completions, so querying
+ * the ready jobs stays cheap however large the graph. A completion that
+ * breaks the dependency order falls back to a full pass on the next query.
+ * 
+ * Dependencies are resolved by job id. Required dependencies outside the
+ * analyzed set contribute their critical path length as of the last full
+ * pass but are not updated. Like the jobs it annotates, an analyzer is not
+ * safe for concurrent use.
+ */
+public class CriticalPathAnalyzer {
+    private List<? extends DependencyAwareJob> jobs;
+    private DependencyAwareJob[] jobsById;
+    private boolean[] completed;
+    private boolean structural; // Counts the full work of every job, whatever has completed
+    private boolean stale;
+    private boolean incremental;
+    private long graphLength;
+    
+    // Required dependencies within the analyzed set, by job id, from the last full pass
+    private int[] predecessorOffsets;
+    private int[] predecessors;
+    private int[] successorOffsets;
+    private int[] successors;
+    private long[] externalTops;
+    
+    // Top levels are fixed once a job has no pending dependencies, bottom levels while it is pending;
+    // other values are valid for the completion epoch they were derived in
+    private long[] topLevels;
+    private long[] bottomLevels;
+    private int[] pendingPredecessors;
+    private int[] topEpochs;
+    private int[] bottomEpochs;
+    private int[] jobEpochs;
+    private int epoch;
+    
+    // Paths through pending jobs with no pending dependencies, as length -> number of jobs
+    private final TreeMap<Long, Integer> readyPaths = new TreeMap<>();
+    private long completedTopMax;
+    
+    private int[] visited;
+    private int visit;
+    private int[] stack = new int[16];
+    
+    /**
+     * Create an analyzer for a dependency graph and attach it to the jobs
+     * 
+     * @param jobs Jobs with unique, non-negative ids
+     */
+    public CriticalPathAnalyzer(List<? extends DependencyAwareJob> jobs) {
+        this(jobs, false);
+    }
+    
+    private CriticalPathAnalyzer(List<? extends DependencyAwareJob> jobs, boolean structural) {
+        int maxId = -1;
+        for (DependencyAwareJob job : jobs) {
+            if (job.getId() < 0) {
+                throw new IllegalArgumentException("Job ids must be non-negative: " + job);
+            }
+            maxId = Math.max(maxId, job.getId());
+        }
+        
+        this.jobs = jobs;
+        this.structural = structural;
+        this.jobsById = new DependencyAwareJob[maxId + 1];
+        this.completed = new boolean[maxId + 1];
+        for (DependencyAwareJob job : jobs) {
+            if (jobsById[job.getId()] != null) {
+                throw new IllegalArgumentException("Duplicate job id: " + job.getId());
+            }
+            jobsById[job.getId()] = job;
+            completed[job.getId()] = !structural && job.isCompleted();
+        }
+        
+        this.stale = true;
+        for (DependencyAwareJob job : jobs) {
+            job.setCriticalPathAnalyzer(this);
+        }
+    }
+    
+    /**
+     * Analyze a dependency graph and keep the results on its jobs current from now on
+     * 
+     * @param jobs Jobs with unique, non-negative ids
+     * @return Length of the longest chain of required work in the graph
+     * @throws IllegalArgumentException if the REQUIRES dependencies contain a cycle
+     */
+    public static long analyze(List<? extends DependencyAwareJob> jobs) {
+        return new CriticalPathAnalyzer(jobs).getGraphLength();
+    }
+    
+    /**
+     * Create an analyzer of the graph as built, counting the full work of every job
+     * whether or not it has completed, and attach it to the jobs. The analysis runs on
+     * the first query.
+     * 
+     * @param jobs Jobs with unique, non-negative ids
+     * @return Analyzer that only changes its results when the graph changes or a
+     *         completion is recorded through markCompleted()
+     */
+    public static CriticalPathAnalyzer structural(List<? extends DependencyAwareJob> jobs) {
+        return new CriticalPathAnalyzer(jobs, true);
+    }
+    
+    /**
+     * Look up whether each job is critical, bringing each job's analysis up to date first
+     * 
+     * @param jobs Jobs to query; plain jobs are never critical
+     * @return Critical flag per job, in list order
+     */
+    public static boolean[] criticalFlags(List<? extends Job> jobs) {
+        boolean[] flags = new boolean[jobs.size()];
+        for (int i = 0; i < flags.length; i++) {
+            Job job = jobs.get(i);
+            flags[i] = job instanceof DependencyAwareJob && ((DependencyAwareJob) job).isCriticalJob();
+        }
+        return flags;
+    }
+    
+    /**
+     * Detach this analyzer from the jobs still attached to it. Their critical path
+     * fields keep the values last stored on them.
+     */
+    public void detach() {
+        for (DependencyAwareJob job : jobs) {
+            job.detachCriticalPathAnalyzer(this);
+        }
+    }
+    
+    /**
+     * Mark the analysis stale after the graph has changed
+     */
+    public void invalidate() {
+        stale = true;
+    }
+    
+    /**
+     * Record that a job has finished; its work no longer counts towards any path.
+     * Takes time proportional to the dependencies of the job's direct dependents.
+     * 
+     * @param jobId Id of the finished job
+     */
+    public void markCompleted(int jobId) {
+        if (jobId < 0 || jobId >= jobsById.length || jobsById[jobId] == null || completed[jobId]) {
+            return;
+        }
+        completed[jobId] = true;
+        if (stale || !incremental || pendingPredecessors[jobId] > 0) {
+            // Finishing ahead of a required dependency changes pending bottom levels
+            incremental = false;
+            stale = true;
+            return;
+        }
+        
+        removeReadyPath(topLevels[jobId] + bottomLevels[jobId]);
+        completedTopMax = Math.max(completedTopMax, topLevels[jobId]);
+        for (int i = successorOffsets[jobId]; i < successorOffsets[jobId + 1]; i++) {
+            int successor = successors[i];
+            if (--pendingPredecessors[successor] == 0) {
+                long top = externalTops[successor];
+                for (int j = predecessorOffsets[successor]; j < predecessorOffsets[successor + 1]; j++) {
+                    top = Math.max(top, topLevels[predecessors[j]]);
+                }
+                topLevels[successor] = top;
+                readyPaths.merge(top + bottomLevels[successor], 1, Integer::sum);
+            }
+        }
+        
+        graphLength = Math.max(readyPaths.isEmpty() ? 0 : readyPaths.lastKey(), completedTopMax);
+        epoch++;
+    }
+    
+    /**
+     * Rerun the full analysis if the graph has changed or a completion could not
+     * be applied incrementally
+     * 
+     * @throws IllegalArgumentException if the REQUIRES dependencies contain a cycle
+     */
+    public void ensureCurrent() {
+        if (stale) {
+            // Cleared first, as storing the results reads back through the jobs
+            stale = false;
+            graphLength = recompute();
+        }
+    }
+    
+    /**
+     * Bring the results stored on one job up to date
+     * 
+     * @param job Job attached to this analyzer
+     * @throws IllegalArgumentException if the REQUIRES dependencies contain a cycle
+     */
+    public void ensureCurrent(DependencyAwareJob job) {
+        ensureCurrent();
+        int id = job.getId();
+        if (id >= jobsById.length || jobsById[id] != job || jobEpochs[id] == epoch) {
+            return;
+        }
+        long top = topLevel(id);
+        long bottom = bottomLevel(id);
+        jobEpochs[id] = epoch;
+        job.setCriticalPathInfo(top, bottom, graphLength - top - bottom);
+    }
+    
+    /**
+     * Get the length of the longest chain of remaining required work
+     */
+    public long getGraphLength() {
+        ensureCurrent();
+        return graphLength;
+    }
+    
+    /**
+     * Get all critical jobs, in the order the analyzer was given them
+     */
+    public List<DependencyAwareJob> getCriticalJobs() {
+        ensureCurrent();
+        List<DependencyAwareJob> criticalJobs = new ArrayList<>();
+        for (DependencyAwareJob job : jobs) {
+            if (job.isCriticalJob()) {
+                criticalJobs.add(job);
+            }
+        }
+        return criticalJobs;
+    }
+    
+    /**
+     * Run the forward and backward passes, store the results on the jobs and
+     * set up the state completions are applied to
+     * 
+     * @return Graph length
+     */
+    private long recompute() {
+        int maxId = jobsById.length - 1;
+        buildAdjacency(maxId);
+        
+        // Top levels start from required work outside the analyzed set
+        topLevels = Arrays.copyOf(externalTops, maxId + 1);
+        int[] inDegrees = new int[maxId + 1];
+        for (int id = 0; id <= maxId; id++) {
+            inDegrees[id] = predecessorOffsets[id + 1] - predecessorOffsets[id];
+        }
+        
+        // Forward pass in topological order
+        int[] order = new int[jobs.size()];
+        int head = 0;
+        int tail = 0;
+        for (DependencyAwareJob job : jobs) {
+            if (inDegrees[job.getId()] == 0) {
+                order[tail++] = job.getId();
+            }
+        }
+        while (head < tail) {
+            int id = order[head++];
+            long finish = topLevels[id] + remainingWork(id);
+            for (int i = successorOffsets[id]; i < successorOffsets[id + 1]; i++) {
+                int successor = successors[i];
+                topLevels[successor] = Math.max(topLevels[successor], finish);
+                if (--inDegrees[successor] == 0) {
+                    order[tail++] = successor;
+                }
+            }
+        }
+        if (tail < jobs.size()) {
+            stale = true;
+            throw new IllegalArgumentException("REQUIRES dependencies contain a cycle");
+        }
+        
+        // Backward pass in reverse topological order
+        bottomLevels = new long[maxId + 1];
+        long length = 0;
+        for (int index = tail - 1; index >= 0; index--) {
+            int id = order[index];
+            long longestSuccessor = 0;
+            for (int i = successorOffsets[id]; i < successorOffsets[id + 1]; i++) {
+                longestSuccessor = Math.max(longestSuccessor, bottomLevels[successors[i]]);
+            }
+            bottomLevels[id] = remainingWork(id) + longestSuccessor;
+            length = Math.max(length, topLevels[id] + bottomLevels[id]);
+        }
+        
+        // Every value is exact for this epoch; ready jobs and completed ones seed the incremental state
+        epoch++;
+        topEpochs = new int[maxId + 1];
+        bottomEpochs = new int[maxId + 1];
+        jobEpochs = new int[maxId + 1];
+        visited = new int[maxId + 1];
+        pendingPredecessors = new int[maxId + 1];
+        readyPaths.clear();
+        completedTopMax = 0;
+        incremental = true;
+        for (int index = 0; index < tail; index++) {
+            int id = order[index];
+            for (int i = predecessorOffsets[id]; i < predecessorOffsets[id + 1]; i++) {
+                if (!completed[predecessors[i]]) {
+                    pendingPredecessors[id]++;
+                }
+            }
+            if (completed[id]) {
+                incremental &= pendingPredecessors[id] == 0;
+                completedTopMax = Math.max(completedTopMax, topLevels[id]);
+            } else if (pendingPredecessors[id] == 0) {
+                readyPaths.merge(topLevels[id] + bottomLevels[id], 1, Integer::sum);
+            }
+            topEpochs[id] = epoch;
+            bottomEpochs[id] = epoch;
+            jobEpochs[id] = epoch;
+        }
+        
+        for (int index = 0; index < tail; index++) {
+            int id = order[index];
+            long slack = length - topLevels[id] - bottomLevels[id];
+            jobsById[id].setCriticalPathInfo(topLevels[id], bottomLevels[id], slack);
+        }
+        
+        return length;
+    }
+    
+    /**
+     * Collect required dependencies within the analyzed set into predecessor and
+     * successor arrays by job id, and the work of those outside it
+     */
+    private void buildAdjacency(int maxId) {
+        predecessorOffsets = new int[maxId + 2];
+        externalTops = new long[maxId + 1];
+        for (DependencyAwareJob job : jobs) {
+            int id = job.getId();
+            DependencyGraph graph = job.getDependencyGraph();
+            boolean external = false;
+            if (graph != null) {
+                int index = job.getGraphIndex();
+                for (int edge = graph.getPredecessorStart(index); edge < graph.getPredecessorEnd(index); edge++) {
+                    if (graph.getPredecessorType(edge) == DependencyAwareJob.DependencyType.REQUIRES) {
+                        if (isAnalyzed(graph.getJobId(graph.getPredecessor(edge)))) {
+                            predecessorOffsets[id + 1]++;
+                        } else {
+                            external = true;
+                        }
+                    }
+                }
+            } else {
+                for (Job dependency : job.getRequiredDependencies()) {
+                    if (isAnalyzed(dependency.getId())) {
+                        predecessorOffsets[id + 1]++;
+                    } else {
+                        external = true;
+                    }
+                }
+            }
+            if (external) {
+                externalTops[id] = externalWork(job);
+            }
+        }
+        for (int id = 0; id <= maxId; id++) {
+            predecessorOffsets[id + 1] += predecessorOffsets[id];
+        }
+        
+        predecessors = new int[predecessorOffsets[maxId + 1]];
+        successorOffsets = new int[maxId + 2];
+        int[] fill = Arrays.copyOf(predecessorOffsets, maxId + 1);
+        for (DependencyAwareJob job : jobs) {
+            int id = job.getId();
+            DependencyGraph graph = job.getDependencyGraph();
+            if (graph != null) {
+                int index = job.getGraphIndex();
+                for (int edge = graph.getPredecessorStart(index); edge < graph.getPredecessorEnd(index); edge++) {
+                    int dependencyId = graph.getJobId(graph.getPredecessor(edge));
+                    if (graph.getPredecessorType(edge) == DependencyAwareJob.DependencyType.REQUIRES
+                            && isAnalyzed(dependencyId)) {
+                        predecessors[fill[id]++] = dependencyId;
+                        successorOffsets[dependencyId + 1]++;
+                    }
+                }
+            } else {
+                for (Job dependency : job.getRequiredDependencies()) {
+                    if (isAnalyzed(dependency.getId())) {
+                        predecessors[fill[id]++] = dependency.getId();
+                        successorOffsets[dependency.getId() + 1]++;
+                    }
+                }
+            }
+        }
+        for (int id = 0; id <= maxId; id++) {
+            successorOffsets[id + 1] += successorOffsets[id];
+        }
+        
+        successors = new int[successorOffsets[maxId + 1]];
+        fill = Arrays.copyOf(successorOffsets, maxId + 1);
+        for (int id = 0; id <= maxId; id++) {
+            for (int i = predecessorOffsets[id]; i < predecessorOffsets[id + 1]; i++) {
+                successors[fill[predecessors[i]]++] = id;
+            }
+        }
+    }
+    
+    private boolean isAnalyzed(int jobId) {
+        return jobId >= 0 && jobId < jobsById.length && jobsById[jobId] != null;
+    }
+    
+    /**
+     * Longest unfinished required work outside the analyzed set that a job waits for
+     */
+    private long externalWork(DependencyAwareJob job) {
+        long longest = 0;
+        for (Job dependency : job.getRequiredDependencies()) {
+            if (!isAnalyzed(dependency.getId()) && (structural || !dependency.isCompleted())) {
+                long externalFinish = dependency instanceof DependencyAwareJob
+                    ? ((DependencyAwareJob) dependency).getCriticalPathLength()
+                    : dependency.getExecutionTime();
+                longest = Math.max(longest, externalFinish);
+            }
+        }
+        return longest;
+    }
+    
+    /**
+     * Top level of a job, deriving it from pending dependencies whose values are out of date
+     */
+    private long topLevel(int jobId) {
+        if (!isTopKnown(jobId)) {
+            int mark = nextVisit();
+            int size = push(0, jobId);
+            while (size > 0) {
+                int id = stack[size - 1];
+                if (isTopKnown(id)) {
+                    size--;
+                } else if (visited[id] != mark) {
+                    // Dependencies first; on the second visit they are all known
+                    visited[id] = mark;
+                    for (int i = predecessorOffsets[id]; i < predecessorOffsets[id + 1]; i++) {
+                        if (!isTopKnown(predecessors[i])) {
+                            size = push(size, predecessors[i]);
+                        }
+                    }
+                } else {
+                    long top = externalTops[id];
+                    for (int i = predecessorOffsets[id]; i < predecessorOffsets[id + 1]; i++) {
+                        int dependency = predecessors[i];
+                        top = Math.max(top, topLevels[dependency] + remainingWork(dependency));
+                    }
+                    topLevels[id] = top;
+                    topEpochs[id] = epoch;
+                    size--;
+                }
+            }
+        }
+        return topLevels[jobId];
+    }
+    
+    /**
+     * Bottom level of a job, deriving it from completed dependents whose values are out of date
+     */
+    private long bottomLevel(int jobId) {
+        if (!isBottomKnown(jobId)) {
+            int mark = nextVisit();
+            int size = push(0, jobId);
+            while (size > 0) {
+                int id = stack[size - 1];
+                if (isBottomKnown(id)) {
+                    size--;
+                } else if (visited[id] != mark) {
+                    visited[id] = mark;
+                    for (int i = successorOffsets[id]; i < successorOffsets[id + 1]; i++) {
+                        if (!isBottomKnown(successors[i])) {
+                            size = push(size, successors[i]);
+                        }
+                    }
+                } else {
+                    long longestSuccessor = 0;
+                    for (int i = successorOffsets[id]; i < successorOffsets[id + 1]; i++) {
+                        longestSuccessor = Math.max(longestSuccessor, bottomLevels[successors[i]]);
+                    }
+                    // Only completed jobs get here, so there is no remaining work of their own
+                    bottomLevels[id] = longestSuccessor;
+                    bottomEpochs[id] = epoch;
+                    size--;
+                }
+            }
+        }
+        return bottomLevels[jobId];
+    }
+    
+    private boolean isTopKnown(int jobId) {
+        return pendingPredecessors[jobId] == 0 || topEpochs[jobId] == epoch;
+    }
+    
+    private boolean isBottomKnown(int jobId) {
+        return !completed[jobId] || bottomEpochs[jobId] == epoch;
+    }
+    
+    private int nextVisit() {
+        if (++visit == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            visit = 1;
+        }
+        return visit;
+    }
+    
+    private int push(int size, int jobId) {
+        if (size == stack.length) {
+            stack = Arrays.copyOf(stack, size * 2);
+        }
+        stack[size] = jobId;
+        return size + 1;
+    }
+    
+    private void removeReadyPath(long length) {
+        Integer count = readyPaths.get(length);
+        if (count == 1) {
+            readyPaths.remove(length);
+        } else {
+            readyPaths.put(length, count - 1);
+        }
+    }
+    
+    private long remainingWork(int jobId) {
+        return completed[jobId] ? 0 : jobsById[jobId].getExecutionTime();
+    }
+}
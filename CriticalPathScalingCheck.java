@@ -0,0 +1,255 @@
+import java.util.*;
+
+/**
+ * Check of CriticalPathAnalyzer's incremental updates: results must match a
+ * full recomputation after every completion, and the cost per completion
+ * must not grow with the size of the graph.
+ * 
+ * The first part completes the jobs of small random graphs one by one, mostly
+ * in dependency order but now and then ahead of a required dependency, and
+ * compares a random sample of jobs against levels computed from scratch, both
+ * for jobs keeping their own dependencies and for jobs bound to a
+ * DependencyGraph. The second part replays LAYERED workloads of growing size
+ * the way a simulation does, completing the oldest ready job per event after
+ * looking up the critical flags of the oldest ready jobs, one per processor,
+ * and compares the time per event of the largest workload with that of the
+ * smallest. The last part runs a simulation over a JobState and checks that
+ * the critical path getters give the values from before the run, both once
+ * the run is over and after the state is reset.
+ * 
+ * Usage: java CriticalPathScalingCheck [graphs]
+ * Exits with status 1 if any check fails.
+ */
+public class CriticalPathScalingCheck {
+    private static final int GRAPH_SIZE = 200;
+    private static final int[] WORKLOAD_SIZES = {4_000, 16_000, 64_000};
+    private static final int LAYER_WIDTH = 50;
+    private static final int PROCESSOR_COUNT = 16;
+    private static final int RUNS = 3;
+    private static final double MAX_GROWTH = 3.0; // Allowed rise in time per event from the smallest workload
+    
+    private static int failures = 0;
+    
+    public static void main(String[] args) {
+        int graphs = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        Random random = new Random(42);
+        
+        for (int i = 0; i < graphs; i++) {
+            checkGraph("graph " + i, random, i % 2 == 0);
+        }
+        System.out.println(failures == 0 ? "Incremental results matched on " + graphs + " graphs"
+                                         : failures + " mismatch(es)");
+        
+        double[] nanosPerEvent = new double[WORKLOAD_SIZES.length];
+        for (int i = 0; i < WORKLOAD_SIZES.length; i++) {
+            nanosPerEvent[i] = measure(WORKLOAD_SIZES[i]);
+            System.out.printf("%-8d jobs: %.0f ns per event%n", WORKLOAD_SIZES[i], nanosPerEvent[i]);
+        }
+        double growth = nanosPerEvent[WORKLOAD_SIZES.length - 1] / nanosPerEvent[0];
+        if (growth > MAX_GROWTH) {
+            failures++;
+            System.out.printf("FAIL time per event grew %.1fx from %d to %d jobs%n", growth,
+                              WORKLOAD_SIZES[0], WORKLOAD_SIZES[WORKLOAD_SIZES.length - 1]);
+        }
+        
+        checkSimulation();
+        
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+    
+    /**
+     * Complete every job of a random graph, checking a sample of jobs after each completion
+     */
+    private static void checkGraph(String label, Random random, boolean bound) {
+        List<DependencyAwareJob> jobs = new ArrayList<>();
+        for (int id = 0; id < GRAPH_SIZE; id++) {
+            DependencyAwareJob job = new DependencyAwareJob(id, 0, 1 + random.nextInt(20), 1);
+            int dependencies = id == 0 ? 0 : random.nextInt(4);
+            for (int d = 0; d < dependencies; d++) {
+                Job dependency = jobs.get(Math.max(0, id - 1 - random.nextInt(20)));
+                if (!job.getDependencyMap().containsKey(dependency)) {
+                    job.addDependency(dependency, random.nextInt(4) == 0 ? DependencyAwareJob.DependencyType.PREFERS
+                                                                         : DependencyAwareJob.DependencyType.REQUIRES);
+                }
+            }
+            jobs.add(job);
+        }
+        if (bound) {
+            DependencyGraph.fromJobs(jobs).bind(jobs);
+            label += " (bound)";
+        }
+        
+        CriticalPathAnalyzer analyzer = new CriticalPathAnalyzer(jobs);
+        analyzer.getGraphLength();
+        List<DependencyAwareJob> pending = new ArrayList<>(jobs);
+        while (!pending.isEmpty() && failures < 10) {
+            // Mostly the first pending job whose required dependencies are done, otherwise any
+            DependencyAwareJob next = pending.get(random.nextInt(pending.size()));
+            if (random.nextInt(20) != 0) {
+                for (DependencyAwareJob job : pending) {
+                    if (job.getRequiredDependencies().stream().allMatch(Job::isCompleted)) {
+                        next = job;
+                        break;
+                    }
+                }
+            }
+            pending.remove(next);
+            next.markCompleted(0);
+            analyzer.markCompleted(next.getId());
+            
+            List<DependencyAwareJob> sample = new ArrayList<>(jobs);
+            Collections.shuffle(sample, random);
+            compare(label + " after job " + next.getId(), jobs, sample.subList(0, GRAPH_SIZE / 4), analyzer);
+        }
+    }
+    
+    /**
+     * Compare analyzer results on the sampled jobs with levels computed from scratch;
+     * jobs only depend on lower ids, so id order is a topological order
+     */
+    private static void compare(String label, List<DependencyAwareJob> jobs, List<DependencyAwareJob> sample,
+                                CriticalPathAnalyzer analyzer) {
+        long[] tops = new long[jobs.size()];
+        long[] bottoms = new long[jobs.size()];
+        for (DependencyAwareJob job : jobs) {
+            for (Job dependency : job.getRequiredDependencies()) {
+                tops[job.getId()] = Math.max(tops[job.getId()], tops[dependency.getId()] + remainingWork(dependency));
+            }
+        }
+        long length = 0;
+        for (int id = jobs.size() - 1; id >= 0; id--) {
+            DependencyAwareJob job = jobs.get(id);
+            bottoms[id] += remainingWork(job);
+            for (Job dependency : job.getRequiredDependencies()) {
+                bottoms[dependency.getId()] = Math.max(bottoms[dependency.getId()], bottoms[id]);
+            }
+            length = Math.max(length, tops[id] + bottoms[id]);
+        }
+        
+        if (analyzer.getGraphLength() != length) {
+            fail(label, "graph length " + analyzer.getGraphLength() + ", expected " + length);
+        }
+        for (DependencyAwareJob job : sample) {
+            int id = job.getId();
+            long slack = length - tops[id] - bottoms[id];
+            boolean critical = slack == 0 && job.getDependentCount() > 0;
+            if (job.getTopLevel() != tops[id] || job.getBottomLevel() != bottoms[id] || job.getSlack() != slack
+                    || job.isCriticalJob() != critical
+                    || job.getCriticalPathLength() != tops[id] + job.getExecutionTime()) {
+                fail(label, "job " + id + " has top " + job.getTopLevel() + ", bottom " + job.getBottomLevel() +
+                     ", slack " + job.getSlack() + ", expected " + tops[id] + ", " + bottoms[id] + ", " + slack);
+            }
+        }
+    }
+    
+    private static long remainingWork(Job job) {
+        // The check completes jobs outright, so remaining time is all or nothing
+        return job.isCompleted() ? 0 : job.getExecutionTime();
+    }
+    
+    /**
+     * Best time per event over several replays of one workload size
+     */
+    private static double measure(int jobCount) {
+        GeneratedWorkload workload = new DependencyGraphGenerator(42).generateWorkload(
+            DependencyGraphGenerator.WorkloadFamily.LAYERED, DependencyGraphGenerator.ArrivalPattern.IMMEDIATE,
+            jobCount, LAYER_WIDTH);
+        DependencyGraph graph = workload.getDependencyGraph();
+        
+        double best = Double.MAX_VALUE;
+        for (int run = 0; run <= RUNS; run++) {
+            List<DependencyAwareJob> jobs = workload.toJobs();
+            int[] pendingDependencies = new int[jobCount];
+            List<Job> ready = new ArrayList<>();
+            for (int id = 0; id < jobCount; id++) {
+                for (int edge = graph.getPredecessorStart(id); edge < graph.getPredecessorEnd(id); edge++) {
+                    if (graph.getPredecessorType(edge) == DependencyAwareJob.DependencyType.REQUIRES) {
+                        pendingDependencies[id]++;
+                    }
+                }
+                if (pendingDependencies[id] == 0) {
+                    ready.add(jobs.get(id));
+                }
+            }
+            
+            long start = System.nanoTime();
+            CriticalPathAnalyzer analyzer = new CriticalPathAnalyzer(jobs);
+            int criticalSeen = 0;
+            while (!ready.isEmpty()) {
+                // The oldest ready job finishes next, as under FCFS; the ready set itself grows with the
+                // workload, so only as many jobs are looked up as there are processors to start them on
+                List<Job> considered = ready.subList(0, Math.min(PROCESSOR_COUNT, ready.size()));
+                for (boolean critical : CriticalPathAnalyzer.criticalFlags(considered)) {
+                    criticalSeen += critical ? 1 : 0;
+                }
+                
+                Job job = ready.remove(0);
+                job.markCompleted(0);
+                analyzer.markCompleted(job.getId());
+                for (int edge = graph.getSuccessorStart(job.getId()); edge < graph.getSuccessorEnd(job.getId()); edge++) {
+                    int successor = graph.getSuccessor(edge);
+                    if (graph.getSuccessorType(edge) == DependencyAwareJob.DependencyType.REQUIRES
+                            && --pendingDependencies[successor] == 0) {
+                        ready.add(jobs.get(successor));
+                    }
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            
+            if (criticalSeen == 0) {
+                fail("LAYERED " + jobCount, "no ready job was ever critical");
+            }
+            // The first replay only warms up
+            if (run > 0) {
+                best = Math.min(best, (double) elapsed / jobCount);
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Compare the critical path getters of a simulated state before a run, after it and after a reset
+     */
+    private static void checkSimulation() {
+        GeneratedWorkload workload = new DependencyGraphGenerator(42).generateWorkload(
+            DependencyGraphGenerator.WorkloadFamily.LAYERED, DependencyGraphGenerator.ArrivalPattern.IMMEDIATE,
+            GRAPH_SIZE, 10);
+        JobState state = JobState.fromJobs(workload.toJobs());
+        SimulationEnvironment environment = new SimulationEnvironment();
+        List<Processor> processors = environment.createProcessors(4, 1.0);
+        
+        List<String> before = criticalPaths(state);
+        environment.runSimulation(new DependencyAwareScheduler(new FCFSScheduler()), state, processors);
+        compareStates("after a run", before, criticalPaths(state));
+        environment.runSimulation(new DependencyAwareScheduler(new FCFSScheduler()), state, processors);
+        state.reset();
+        compareStates("after a run and a reset", before, criticalPaths(state));
+        System.out.println(failures == 0 ? "Critical paths of " + GRAPH_SIZE + " simulated jobs survived a run and a reset"
+                                         : failures + " check(s) failed");
+    }
+    
+    private static List<String> criticalPaths(JobState state) {
+        List<String> values = new ArrayList<>();
+        for (Job job : state.getJobs()) {
+            DependencyAwareJob dependencyJob = (DependencyAwareJob) job;
+            values.add("job " + job.getId() + " has path " + dependencyJob.getCriticalPathLength() +
+                       ", slack " + dependencyJob.getSlack() + ", critical " + dependencyJob.isCriticalJob());
+        }
+        return values;
+    }
+    
+    private static void compareStates(String label, List<String> expected, List<String> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            if (!expected.get(i).equals(actual.get(i))) {
+                fail(label, actual.get(i) + ", before the run " + expected.get(i));
+            }
+        }
+    }
+    
+    private static void fail(String label, String message) {
+        failures++;
+        System.out.println("FAIL " + label + ": " + message);
+    }
+}
@@ -12,26 +12,47 @@ public class DependencyAwareJob extends Job {
         CONFLICTS_WITH   // Job cannot run at same time as dependencies
     }
     
-    // Map to track dependencies and their types
+    // Map to track dependencies and their types; null once bound to a DependencyGraph
     private Map<Job, DependencyType> dependencies;
     
-    // Jobs that depend on this job
+    // Jobs that depend on this job; null once bound to a DependencyGraph
     private Set<DependencyAwareJob> dependents;
     
+    // Shared graph holding this job's dependencies, its node in it, and the jobs bound to each node
+    private DependencyGraph dependencyGraph;
+    private int graphIndex = -1;
+    private DependencyAwareJob[] graphJobs;
+    
     // Critical path length (longest path of dependencies)
-    private int criticalPathLength;
+    private long criticalPathLength;
+    
+    // Results of the last CriticalPathAnalyzer pass
+    private long topLevel; // Longest chain of required work before this job can start
+    private long bottomLevel; // Longest chain from this job's start to the end of the graph
+    private long slack; // How far this job can slip without lengthening the graph
+    private boolean criticalJob;
+    
+    // Analyzer keeping the fields above current, if any
+    private CriticalPathAnalyzer criticalPathAnalyzer;
     
     // Earliest possible start time based on dependencies
-    private int earliestStartTime;
+    private long earliestStartTime;
+    
+    // Readiness tracker for the run this job takes part in, if any
+    private DependencyTracker dependencyTracker;
+    
+    // Conflict and running-set index for the run this job takes part in, if any
+    private ConflictIndex conflictIndex;
     
     /**
      * Create a new DependencyAwareJob
      */
-    public DependencyAwareJob(int id, int arrivalTime, int executionTime, int priority) {
+    public DependencyAwareJob(int id, long arrivalTime, int executionTime, int priority) {
         super(id, arrivalTime, executionTime, priority);
         this.dependencies = new HashMap<>();
         this.dependents = new HashSet<>();
         this.criticalPathLength = executionTime;
+        this.bottomLevel = executionTime;
         this.earliestStartTime = arrivalTime;
     }
     
@@ -40,12 +61,35 @@ public class DependencyAwareJob extends Job {
      */
     public DependencyAwareJob(DependencyAwareJob other) {
         super(other);
-        this.dependencies = new HashMap<>(other.dependencies);
-        this.dependents = new HashSet<>(other.dependents);
+        if (other.dependencyGraph != null) {
+            // Copies share the graph and keep resolving dependencies to the bound jobs
+            this.dependencyGraph = other.dependencyGraph;
+            this.graphIndex = other.graphIndex;
+            this.graphJobs = other.graphJobs;
+        } else {
+            this.dependencies = new HashMap<>(other.dependencies);
+            this.dependents = new HashSet<>(other.dependents);
+        }
         this.criticalPathLength = other.criticalPathLength;
+        this.topLevel = other.topLevel;
+        this.bottomLevel = other.bottomLevel;
+        this.slack = other.slack;
+        this.criticalJob = other.criticalJob;
         this.earliestStartTime = other.earliestStartTime;
     }
     
+    /**
+     * Clear the run state and detach the per-run tracker, conflict index and
+     * critical path analyzer
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.dependencyTracker = null;
+        this.conflictIndex = null;
+        this.criticalPathAnalyzer = null;
+    }
+    
     /**
      * Add a dependency relationship
      * 
@@ -53,6 +97,7 @@ public class DependencyAwareJob extends Job {
      * @param type Type of dependency relationship
      */
     public void addDependency(Job job, DependencyType type) {
+        checkNotGraphBacked();
         dependencies.put(job, type);
         
         // Add this job as a dependent to the dependency
@@ -60,8 +105,12 @@ public class DependencyAwareJob extends Job {
             ((DependencyAwareJob) job).addDependent(this);
         }
         
-        // Recalculate critical path
-        calculateCriticalPath();
+        // An attached analyzer refreshes the whole graph on demand; otherwise update this job's own path length
+        if (criticalPathAnalyzer != null) {
+            criticalPathAnalyzer.invalidate();
+        } else {
+            calculateCriticalPath();
+        }
     }
     
     /**
@@ -70,15 +119,67 @@ public class DependencyAwareJob extends Job {
      * @param job The job that depends on this one
      */
     public void addDependent(DependencyAwareJob job) {
+        checkNotGraphBacked();
         dependents.add(job);
     }
     
+    /**
+     * Read dependencies from a shared graph instead of this job's own map and set.
+     * Called by DependencyGraph.bind().
+     * 
+     * @param dependencyGraph Graph holding this job's dependencies
+     * @param graphIndex Node of this job in the graph
+     * @param graphJobs Jobs bound to the graph, by node index
+     */
+    void bindToGraph(DependencyGraph dependencyGraph, int graphIndex, DependencyAwareJob[] graphJobs) {
+        this.dependencyGraph = dependencyGraph;
+        this.graphIndex = graphIndex;
+        this.graphJobs = graphJobs;
+        this.dependencies = null;
+        this.dependents = null;
+        if (criticalPathAnalyzer != null) {
+            criticalPathAnalyzer.invalidate();
+        }
+    }
+    
+    /**
+     * Get the shared graph this job reads its dependencies from
+     * 
+     * @return Dependency graph, or null if this job keeps its own dependencies
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+    
+    /**
+     * Get the node of this job in its dependency graph
+     * 
+     * @return Node index, or -1 if this job keeps its own dependencies
+     */
+    public int getGraphIndex() {
+        return graphIndex;
+    }
+    
+    private void checkNotGraphBacked() {
+        if (dependencyGraph != null) {
+            throw new IllegalStateException("Dependencies of job " + getId() + " are fixed by its DependencyGraph");
+        }
+    }
+    
     /**
      * Get all dependencies of this job
      * 
      * @return Map of dependency jobs and their relationship types
      */
     public Map<Job, DependencyType> getDependencyMap() {
+        if (dependencyGraph != null) {
+            Map<Job, DependencyType> map = new LinkedHashMap<>();
+            int end = dependencyGraph.getPredecessorEnd(graphIndex);
+            for (int edge = dependencyGraph.getPredecessorStart(graphIndex); edge < end; edge++) {
+                map.put(graphJobs[dependencyGraph.getPredecessor(edge)], dependencyGraph.getPredecessorType(edge));
+            }
+            return Collections.unmodifiableMap(map);
+        }
         return Collections.unmodifiableMap(dependencies);
     }
     
@@ -89,6 +190,16 @@ public class DependencyAwareJob extends Job {
      * @return List of jobs with the specified dependency type
      */
     public List<Job> getDependenciesByType(DependencyType type) {
+        if (dependencyGraph != null) {
+            List<Job> matching = new ArrayList<>();
+            int end = dependencyGraph.getPredecessorEnd(graphIndex);
+            for (int edge = dependencyGraph.getPredecessorStart(graphIndex); edge < end; edge++) {
+                if (dependencyGraph.getPredecessorType(edge) == type) {
+                    matching.add(graphJobs[dependencyGraph.getPredecessor(edge)]);
+                }
+            }
+            return matching;
+        }
         return dependencies.entrySet().stream()
                          .filter(entry -> entry.getValue() == type)
                          .map(Map.Entry::getKey)
@@ -110,9 +221,37 @@ public class DependencyAwareJob extends Job {
      * @return Set of dependent jobs
      */
     public Set<DependencyAwareJob> getDependents() {
+        if (dependencyGraph != null) {
+            Set<DependencyAwareJob> set = new LinkedHashSet<>();
+            int end = dependencyGraph.getSuccessorEnd(graphIndex);
+            for (int edge = dependencyGraph.getSuccessorStart(graphIndex); edge < end; edge++) {
+                set.add(graphJobs[dependencyGraph.getSuccessor(edge)]);
+            }
+            return Collections.unmodifiableSet(set);
+        }
         return Collections.unmodifiableSet(dependents);
     }
     
+    /**
+     * Get the number of dependencies of any type, without building the map
+     */
+    public int getDependencyCount() {
+        if (dependencyGraph != null) {
+            return dependencyGraph.getPredecessorEnd(graphIndex) - dependencyGraph.getPredecessorStart(graphIndex);
+        }
+        return dependencies.size();
+    }
+    
+    /**
+     * Get the number of jobs that depend on this job, without building the set
+     */
+    public int getDependentCount() {
+        if (dependencyGraph != null) {
+            return dependencyGraph.getSuccessorEnd(graphIndex) - dependencyGraph.getSuccessorStart(graphIndex);
+        }
+        return dependents.size();
+    }
+    
     /**
      * Check if all required dependencies are met
      * 
@@ -121,9 +260,14 @@ public class DependencyAwareJob extends Job {
      */
     @Override
     public boolean areDependenciesMet(List<Job> completedJobs) {
+        // A tracker keeps the answer up to date as jobs complete
+        if (dependencyTracker != null) {
+            return dependencyTracker.isReady(getId());
+        }
+        
         // Check that all REQUIRES dependencies are completed
-        for (Map.Entry<Job, DependencyType> entry : dependencies.entrySet()) {
-            if (entry.getValue() == DependencyType.REQUIRES && !completedJobs.contains(entry.getKey())) {
+        for (Job dependency : getRequiredDependencies()) {
+            if (!completedJobs.contains(dependency)) {
                 return false;
             }
         }
@@ -131,21 +275,89 @@ public class DependencyAwareJob extends Job {
     }
     
     /**
-     * Check if this job conflicts with any currently running jobs
+     * Answer areDependenciesMet() from a tracker instead of scanning completed jobs.
+     * The tracker must be told about every completion; copies of this job start untracked.
+     * 
+     * @param dependencyTracker Tracker covering this job, or null to scan again
+     */
+    public void setDependencyTracker(DependencyTracker dependencyTracker) {
+        this.dependencyTracker = dependencyTracker;
+    }
+    
+    /**
+     * Answer hasConflicts() from an index instead of scanning the running jobs.
+     * The index must be told about every start and finish; copies of this job start unindexed.
+     * 
+     * @param conflictIndex Index covering this job, or null to scan again
+     */
+    public void setConflictIndex(ConflictIndex conflictIndex) {
+        this.conflictIndex = conflictIndex;
+    }
+    
+    /**
+     * Attach the analyzer that keeps this job's critical path fields current.
+     * Copies of this job start detached.
+     * 
+     * @param criticalPathAnalyzer Analyzer covering this job, or null to detach
+     */
+    public void setCriticalPathAnalyzer(CriticalPathAnalyzer criticalPathAnalyzer) {
+        this.criticalPathAnalyzer = criticalPathAnalyzer;
+    }
+    
+    /**
+     * Detach an analyzer if it is still the one attached, keeping the critical path fields it stored
+     */
+    void detachCriticalPathAnalyzer(CriticalPathAnalyzer analyzer) {
+        if (criticalPathAnalyzer == analyzer) {
+            criticalPathAnalyzer = null;
+        }
+    }
+    
+    /**
+     * Check if this job conflicts with any currently running jobs.
+     * A conflict declared by either job counts.
      * 
      * @param runningJobs List of currently running jobs
      * @return true if there are conflicts
      */
     public boolean hasConflicts(List<Job> runningJobs) {
-        // Check for CONFLICTS_WITH dependencies
-        for (Map.Entry<Job, DependencyType> entry : dependencies.entrySet()) {
-            if (entry.getValue() == DependencyType.CONFLICTS_WITH && runningJobs.contains(entry.getKey())) {
+        // An index keeps the running set itself
+        if (conflictIndex != null) {
+            return conflictIndex.hasRunningConflict(getId());
+        }
+        
+        for (Job conflict : getConflictingJobs()) {
+            if (runningJobs.contains(conflict)) {
                 return true;
             }
         }
         return false;
     }
     
+    /**
+     * Get the jobs that cannot run at the same time as this job, whichever side declared the conflict
+     * 
+     * @return Jobs this job conflicts with, declared conflicts first
+     */
+    public Set<Job> getConflictingJobs() {
+        Set<Job> conflicts = new LinkedHashSet<>(getDependenciesByType(DependencyType.CONFLICTS_WITH));
+        if (dependencyGraph != null) {
+            int end = dependencyGraph.getSuccessorEnd(graphIndex);
+            for (int edge = dependencyGraph.getSuccessorStart(graphIndex); edge < end; edge++) {
+                if (dependencyGraph.getSuccessorType(edge) == DependencyType.CONFLICTS_WITH) {
+                    conflicts.add(graphJobs[dependencyGraph.getSuccessor(edge)]);
+                }
+            }
+        } else {
+            for (DependencyAwareJob dependent : dependents) {
+                if (dependent.getDependencyMap().get(this) == DependencyType.CONFLICTS_WITH) {
+                    conflicts.add(dependent);
+                }
+            }
+        }
+        return conflicts;
+    }
+    
     /**
      * Calculate the priority score including dependency information
      * 
@@ -156,15 +368,15 @@ public class DependencyAwareJob extends Job {
         double basePriority = getPriority();
         
         // Increase priority for jobs with many dependents (high fanout)
-        double dependentFactor = 0.1 * dependents.size();
+        double dependentFactor = 0.1 * getDependentCount();
         
         // Increase priority for jobs on the critical path
-        double criticalPathFactor = 0.2 * criticalPathLength;
+        double criticalPathFactor = 0.2 * getCriticalPathLength();
         
         // Preferred dependencies bonus
         double preferredBonus = 0;
-        for (Map.Entry<Job, DependencyType> entry : dependencies.entrySet()) {
-            if (entry.getValue() == DependencyType.PREFERS && completedJobs.contains(entry.getKey())) {
+        for (Job dependency : getDependenciesByType(DependencyType.PREFERS)) {
+            if (completedJobs.contains(dependency)) {
                 preferredBonus += 0.5;
             }
         }
@@ -173,15 +385,17 @@ public class DependencyAwareJob extends Job {
     }
     
     /**
-     * Calculate the critical path length (longest path through dependency graph)
+     * Calculate the critical path length from the current values of the required dependencies.
+     * 
+     * This only updates this job. Use CriticalPathAnalyzer to analyze a whole graph in one pass.
      */
     public void calculateCriticalPath() {
         // Base execution time
-        int maxDependencyPath = 0;
+        long maxDependencyPath = 0;
         
         // Find the longest path through dependencies
         for (Job dependency : getRequiredDependencies()) {
-            int dependencyPathLength = dependency.getExecutionTime();
+            long dependencyPathLength = dependency.getExecutionTime();
             
             if (dependency instanceof DependencyAwareJob) {
                 dependencyPathLength = ((DependencyAwareJob) dependency).getCriticalPathLength();
@@ -195,11 +409,21 @@ public class DependencyAwareJob extends Job {
         
         // Update earliest start time
         calculateEarliestStartTime();
-        
-        // Propagate the update to dependent jobs
-        for (DependencyAwareJob dependent : dependents) {
-            dependent.calculateCriticalPath();
-        }
+    }
+    
+    /**
+     * Store the results of a critical path analysis
+     * 
+     * @param topLevel Longest chain of required work before this job can start
+     * @param bottomLevel Longest chain from this job's start to the end of the graph
+     * @param slack Graph length minus the longest chain through this job
+     */
+    public void setCriticalPathInfo(long topLevel, long bottomLevel, long slack) {
+        this.topLevel = topLevel;
+        this.bottomLevel = bottomLevel;
+        this.slack = slack;
+        this.criticalPathLength = topLevel + getExecutionTime();
+        this.criticalJob = slack == 0 && getDependentCount() > 0;
     }
     
     /**
@@ -207,13 +431,13 @@ public class DependencyAwareJob extends Job {
      */
     public void calculateEarliestStartTime() {
         // Start with job's arrival time
-        int earliest = getArrivalTime();
+        long earliest = getArrivalTime();
         
         // Check all required dependencies
         for (Job dependency : getRequiredDependencies()) {
             // If dependency isn't complete, use its earliest completion time
             if (dependency.getCompletionTime() == -1) {
-                int dependencyEst = dependency.getArrivalTime() + dependency.getExecutionTime();
+                long dependencyEst = dependency.getArrivalTime() + dependency.getExecutionTime();
                 
                 if (dependency instanceof DependencyAwareJob) {
                     DependencyAwareJob depJob = (DependencyAwareJob) dependency;
@@ -235,7 +459,8 @@ public class DependencyAwareJob extends Job {
      * 
      * @return Critical path length
      */
-    public int getCriticalPathLength() {
+    public long getCriticalPathLength() {
+        refreshCriticalPath();
         return criticalPathLength;
     }
     
@@ -244,24 +469,48 @@ public class DependencyAwareJob extends Job {
      * 
      * @return Earliest start time
      */
-    public int getEarliestStartTime() {
+    public long getEarliestStartTime() {
         return earliestStartTime;
     }
     
+    public long getTopLevel() {
+        refreshCriticalPath();
+        return topLevel;
+    }
+    
+    public long getBottomLevel() {
+        refreshCriticalPath();
+        return bottomLevel;
+    }
+    
+    public long getSlack() {
+        refreshCriticalPath();
+        return slack;
+    }
+    
     /**
      * Check if this job is a critical job (on the critical path with dependents)
      * 
      * @return true if this is a critical job
      */
     public boolean isCriticalJob() {
-        return !dependents.isEmpty() && dependents.stream()
-            .anyMatch(dep -> dep.getCriticalPathLength() - getExecutionTime() == getCriticalPathLength());
+        refreshCriticalPath();
+        return criticalJob;
+    }
+    
+    /**
+     * Let the attached analyzer update this job if the graph or completion state changed
+     */
+    private void refreshCriticalPath() {
+        if (criticalPathAnalyzer != null) {
+            criticalPathAnalyzer.ensureCurrent(this);
+        }
     }
     
     @Override
     public String toString() {
         return String.format("Job #%d (Arrival: %d, Exec: %d, Priority: %d, Dependencies: %d, Dependents: %d)",
                            getId(), getArrivalTime(), getExecutionTime(), getPriority(), 
-                           dependencies.size(), dependents.size());
+                           getDependencyCount(), getDependentCount());
     }
 } 
\ No newline at end of file
@@ -24,7 +24,7 @@ public class DependencyAwareScheduler implements Scheduler {
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get currently running jobs
         List<Job> runningJobs = processors.stream()
                                         .map(Processor::getCurrentJob)
@@ -47,24 +47,28 @@ public class DependencyAwareScheduler implements Scheduler {
             if (baseScheduler instanceof PriorityScheduler || 
                 baseScheduler instanceof HybridMinMinSJFScheduler) {
                 
-                availableJobs.sort((a, b) -> {
-                    double scoreA = ((DependencyAwareJob)a).calculatePriorityScore(completedJobs);
-                    double scoreB = ((DependencyAwareJob)b).calculatePriorityScore(completedJobs);
-                    return Double.compare(scoreB, scoreA); // Higher score first
-                });
+                // Score each job once rather than on every comparison
+                Map<Job, Double> priorityScores = new HashMap<>();
+                for (Job job : availableJobs) {
+                    priorityScores.put(job, ((DependencyAwareJob)job).calculatePriorityScore(completedJobs));
+                }
+                availableJobs.sort((a, b) -> Double.compare(priorityScores.get(b), priorityScores.get(a))); // Higher score first
             }
             
-            // Prioritize critical path jobs
-            List<Job> criticalJobs = availableJobs.stream()
-                                               .filter(job -> job instanceof DependencyAwareJob && 
-                                                            ((DependencyAwareJob)job).isCriticalJob())
-                                               .collect(Collectors.toList());
-            
-            if (!criticalJobs.isEmpty()) {
-                // Move critical jobs to front of list
-                availableJobs.removeAll(criticalJobs);
-                availableJobs.addAll(0, criticalJobs);
+            // Prioritize critical path jobs, keeping the order within both groups
+            boolean[] critical = CriticalPathAnalyzer.criticalFlags(availableJobs);
+            List<Job> reordered = new ArrayList<>(availableJobs.size());
+            for (int i = 0; i < critical.length; i++) {
+                if (critical[i]) {
+                    reordered.add(availableJobs.get(i));
+                }
+            }
+            for (int i = 0; i < critical.length; i++) {
+                if (!critical[i]) {
+                    reordered.add(availableJobs.get(i));
+                }
             }
+            availableJobs = reordered;
         }
         
         // Get available processors
@@ -87,23 +91,23 @@ public class DependencyAwareScheduler implements Scheduler {
      * Assign jobs with dependency awareness for Min-Min and Max-Min algorithms
      */
     private void assignJobsWithDependencyAwareness(List<Job> availableJobs, List<Processor> availableProcessors, 
-                                                 int currentTime, List<Job> completedJobs) {
+                                                 long currentTime, List<Job> completedJobs) {
         if (availableJobs.isEmpty() || availableProcessors.isEmpty()) {
             return;
         }
         
         // Create completion time matrix for all jobs on all processors
-        Map<Job, Map<Processor, Integer>> completionTimes = new HashMap<>();
+        Map<Job, Map<Processor, Long>> completionTimes = new HashMap<>();
         
         for (Job job : availableJobs) {
-            Map<Processor, Integer> processorTimes = new HashMap<>();
+            Map<Processor, Long> processorTimes = new HashMap<>();
             for (Processor processor : availableProcessors) {
                 int procTime = processor.estimateProcessingTime(job);
                 
                 // For dependency-aware jobs, consider earliest start time
                 if (job instanceof DependencyAwareJob) {
                     DependencyAwareJob dJob = (DependencyAwareJob) job;
-                    int earliestStart = Math.max(currentTime, dJob.getEarliestStartTime());
+                    long earliestStart = Math.max(currentTime, dJob.getEarliestStartTime());
                     processorTimes.put(processor, earliestStart + procTime);
                 } else {
                     processorTimes.put(processor, currentTime + procTime);
@@ -112,24 +116,31 @@ public class DependencyAwareScheduler implements Scheduler {
             completionTimes.put(job, processorTimes);
         }
         
+        // Look up criticality once per batch, not once per job-processor pair
+        Set<Job> criticalJobs = new HashSet<>();
+        boolean[] critical = CriticalPathAnalyzer.criticalFlags(availableJobs);
+        for (int i = 0; i < critical.length; i++) {
+            if (critical[i]) {
+                criticalJobs.add(availableJobs.get(i));
+            }
+        }
+        
         // Based on the base scheduler type
         if (baseScheduler instanceof MinMinScheduler) {
             // Min-Min Algorithm with dependencies
             while (!availableJobs.isEmpty() && !availableProcessors.isEmpty()) {
                 Job minJob = null;
                 Processor minProcessor = null;
-                int minCompletionTime = Integer.MAX_VALUE;
+                long minCompletionTime = Long.MAX_VALUE;
                 
                 // Find job with minimum completion time
                 for (Job job : availableJobs) {
+                    // Prioritize critical jobs
+                    double criticalFactor = criticalJobs.contains(job) ? 0.9 : 1.0;
+                    
                     for (Processor processor : availableProcessors) {
-                        int completionTime = completionTimes.get(job).get(processor);
-                        
-                        // Prioritize critical jobs
-                        double criticalFactor = job instanceof DependencyAwareJob && 
-                                               ((DependencyAwareJob)job).isCriticalJob() ? 0.9 : 1.0;
-                                               
-                        int adjustedTime = (int)(completionTime * criticalFactor);
+                        long completionTime = completionTimes.get(job).get(processor);
+                        long adjustedTime = (long)(completionTime * criticalFactor);
                         
                         if (adjustedTime < minCompletionTime) {
                             minCompletionTime = adjustedTime;
@@ -161,15 +172,15 @@ public class DependencyAwareScheduler implements Scheduler {
             while (!availableJobs.isEmpty() && !availableProcessors.isEmpty()) {
                 Job maxJob = null;
                 Processor minProcessor = null;
-                int maxMinCompletionTime = Integer.MIN_VALUE;
+                long maxMinCompletionTime = Long.MIN_VALUE;
                 
                 // For each job, find its minimum completion time
                 for (Job job : availableJobs) {
-                    int minCompletionTime = Integer.MAX_VALUE;
+                    long minCompletionTime = Long.MAX_VALUE;
                     Processor bestProcessor = null;
                     
                     for (Processor processor : availableProcessors) {
-                        int completionTime = completionTimes.get(job).get(processor);
+                        long completionTime = completionTimes.get(job).get(processor);
                         if (completionTime < minCompletionTime) {
                             minCompletionTime = completionTime;
                             bestProcessor = processor;
@@ -177,8 +188,8 @@ public class DependencyAwareScheduler implements Scheduler {
                     }
                     
                     // Apply critical path factor
-                    if (job instanceof DependencyAwareJob && ((DependencyAwareJob)job).isCriticalJob()) {
-                        minCompletionTime = (int)(minCompletionTime * 1.1); // Increase priority
+                    if (criticalJobs.contains(job)) {
+                        minCompletionTime = (long)(minCompletionTime * 1.1); // Increase priority
                     }
                     
                     // Keep track of the job with the maximum of these minimums
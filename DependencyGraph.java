@@ -0,0 +1,320 @@
+import java.util.*;
+
+/**
+ * Immutable dependency graph in compressed sparse row (CSR) form.
+ * 
+ * Jobs are nodes numbered 0..size()-1 in the order they were added. For node
+ * i, its dependencies are the entries [getPredecessorStart(i), getPredecessorEnd(i))
+ * of the predecessor arrays and its dependents the entries
+ * [getSuccessorStart(i), getSuccessorEnd(i)) of the successor arrays. Every
+ * edge costs two ints and two bytes, so graphs with millions of edges fit
+ * in tens of megabytes, and one graph is shared by every copy of its jobs.
+ * 
+ * DependencyAwareJobs bound to a graph with bind() hold only the graph and
+ * their node index instead of their own maps and sets.
+ */
+public class DependencyGraph {
+    private static final DependencyAwareJob.DependencyType[] TYPES = DependencyAwareJob.DependencyType.values();
+    
+    private int[] jobIds; // Node index -> job id
+    private int[] indexById; // Job id -> node index, -1 if absent
+    
+    private int[] predecessorOffsets;
+    private int[] predecessors;
+    private byte[] predecessorTypes;
+    
+    private int[] successorOffsets;
+    private int[] successors;
+    private byte[] successorTypes;
+    
+    private DependencyGraph(int[] jobIds, int[] indexById, int[] predecessorOffsets, int[] predecessors,
+                            byte[] predecessorTypes) {
+        this.jobIds = jobIds;
+        this.indexById = indexById;
+        this.predecessorOffsets = predecessorOffsets;
+        this.predecessors = predecessors;
+        this.predecessorTypes = predecessorTypes;
+        
+        // Successor arrays are the transpose of the predecessor arrays
+        int size = jobIds.length;
+        this.successorOffsets = new int[size + 1];
+        for (int predecessor : predecessors) {
+            successorOffsets[predecessor + 1]++;
+        }
+        for (int node = 0; node < size; node++) {
+            successorOffsets[node + 1] += successorOffsets[node];
+        }
+        this.successors = new int[predecessors.length];
+        this.successorTypes = new byte[predecessors.length];
+        int[] fill = Arrays.copyOf(successorOffsets, size);
+        for (int node = 0; node < size; node++) {
+            for (int edge = predecessorOffsets[node]; edge < predecessorOffsets[node + 1]; edge++) {
+                int position = fill[predecessors[edge]]++;
+                successors[position] = node;
+                successorTypes[position] = predecessorTypes[edge];
+            }
+        }
+    }
+    
+    /**
+     * Build a graph from jobs whose dependencies were added with addDependency().
+     * Dependencies on jobs outside the list are dropped.
+     * 
+     * @param jobs Jobs with unique, non-negative ids; node indices follow list order
+     */
+    public static DependencyGraph fromJobs(List<? extends DependencyAwareJob> jobs) {
+        Builder builder = new Builder(jobs.size());
+        for (DependencyAwareJob job : jobs) {
+            builder.addJob(job.getId());
+        }
+        for (DependencyAwareJob job : jobs) {
+            for (Map.Entry<Job, DependencyAwareJob.DependencyType> entry : job.getDependencyMap().entrySet()) {
+                if (builder.containsJob(entry.getKey().getId())) {
+                    builder.addDependency(job.getId(), entry.getKey().getId(), entry.getValue());
+                }
+            }
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Create a graph over jobs 0..jobCount-1 whose dependencies are already laid out in CSR form.
+     * The arrays are taken over, not copied.
+     * 
+     * @param predecessorOffsets Start of each job's dependencies, plus the total edge count at jobCount
+     * @param predecessors Dependency ids, with no id repeated within a job
+     * @param predecessorTypes DependencyType ordinal per edge
+     */
+    static DependencyGraph fromDenseIds(int jobCount, int[] predecessorOffsets, int[] predecessors,
+                                        byte[] predecessorTypes) {
+        int[] jobIds = new int[jobCount];
+        for (int id = 0; id < jobCount; id++) {
+            jobIds[id] = id;
+        }
+        return new DependencyGraph(jobIds, Arrays.copyOf(jobIds, jobCount), predecessorOffsets, predecessors,
+                                   predecessorTypes);
+    }
+    
+    /**
+     * Bind jobs to this graph so they read their dependencies from it.
+     * Every job must have the id of a node; dependencies then resolve to the jobs in this list.
+     * 
+     * @param jobs Jobs to bind, one per node
+     */
+    public void bind(List<? extends DependencyAwareJob> jobs) {
+        if (jobs.size() != size()) {
+            throw new IllegalArgumentException("Expected " + size() + " jobs, got " + jobs.size());
+        }
+        
+        DependencyAwareJob[] jobsByIndex = new DependencyAwareJob[size()];
+        for (DependencyAwareJob job : jobs) {
+            int index = indexOf(job.getId());
+            if (index == -1) {
+                throw new IllegalArgumentException("Job is not part of the graph: " + job);
+            }
+            if (jobsByIndex[index] != null) {
+                throw new IllegalArgumentException("Duplicate job id: " + job.getId());
+            }
+            jobsByIndex[index] = job;
+        }
+        for (int index = 0; index < jobsByIndex.length; index++) {
+            jobsByIndex[index].bindToGraph(this, index, jobsByIndex);
+        }
+    }
+    
+    public int size() {
+        return jobIds.length;
+    }
+    
+    public int getEdgeCount() {
+        return predecessors.length;
+    }
+    
+    /**
+     * Get the id of the job at a node
+     */
+    public int getJobId(int index) {
+        return jobIds[index];
+    }
+    
+    /**
+     * Get the node of a job
+     * 
+     * @return Node index, or -1 if the job is not in the graph
+     */
+    public int indexOf(int jobId) {
+        return jobId >= 0 && jobId < indexById.length ? indexById[jobId] : -1;
+    }
+    
+    public int getPredecessorStart(int index) {
+        return predecessorOffsets[index];
+    }
+    
+    public int getPredecessorEnd(int index) {
+        return predecessorOffsets[index + 1];
+    }
+    
+    /**
+     * Get the node a dependency edge points to
+     * 
+     * @param edge Position between getPredecessorStart() and getPredecessorEnd()
+     */
+    public int getPredecessor(int edge) {
+        return predecessors[edge];
+    }
+    
+    public DependencyAwareJob.DependencyType getPredecessorType(int edge) {
+        return TYPES[predecessorTypes[edge]];
+    }
+    
+    public int getSuccessorStart(int index) {
+        return successorOffsets[index];
+    }
+    
+    public int getSuccessorEnd(int index) {
+        return successorOffsets[index + 1];
+    }
+    
+    /**
+     * Get the node a dependent edge points to
+     * 
+     * @param edge Position between getSuccessorStart() and getSuccessorEnd()
+     */
+    public int getSuccessor(int edge) {
+        return successors[edge];
+    }
+    
+    public DependencyAwareJob.DependencyType getSuccessorType(int edge) {
+        return TYPES[successorTypes[edge]];
+    }
+    
+    /**
+     * Incrementally collects nodes and edges for an immutable DependencyGraph
+     */
+    public static class Builder {
+        private int[] jobIds;
+        private int size;
+        private int[] indexById = new int[0];
+        
+        // Edges in insertion order: node, dependency node, type
+        private int[] edgeNodes;
+        private int[] edgeDependencies;
+        private byte[] edgeTypes;
+        private int edgeCount;
+        
+        public Builder() {
+            this(16);
+        }
+        
+        /**
+         * Create a builder sized for an expected number of jobs
+         */
+        public Builder(int expectedJobs) {
+            this.jobIds = new int[Math.max(1, expectedJobs)];
+            this.edgeNodes = new int[Math.max(1, expectedJobs)];
+            this.edgeDependencies = new int[edgeNodes.length];
+            this.edgeTypes = new byte[edgeNodes.length];
+        }
+        
+        /**
+         * Add a job as the next node
+         * 
+         * @param jobId Unique, non-negative job id
+         * @return Node index of the job
+         */
+        public int addJob(int jobId) {
+            if (jobId < 0) {
+                throw new IllegalArgumentException("Job ids must be non-negative: " + jobId);
+            }
+            if (containsJob(jobId)) {
+                throw new IllegalArgumentException("Duplicate job id: " + jobId);
+            }
+            if (jobId >= indexById.length) {
+                int oldLength = indexById.length;
+                indexById = Arrays.copyOf(indexById, Math.max(jobId + 1, 2 * oldLength));
+                Arrays.fill(indexById, oldLength, indexById.length, -1);
+            }
+            if (size == jobIds.length) {
+                jobIds = Arrays.copyOf(jobIds, 2 * size);
+            }
+            
+            indexById[jobId] = size;
+            jobIds[size] = jobId;
+            return size++;
+        }
+        
+        public boolean containsJob(int jobId) {
+            return jobId >= 0 && jobId < indexById.length && indexById[jobId] != -1;
+        }
+        
+        /**
+         * Add a dependency between two jobs already added; adding the same pair again replaces its type
+         * 
+         * @param jobId Job that depends on the other
+         * @param dependencyId Job it depends on
+         * @param type Type of dependency relationship
+         */
+        public Builder addDependency(int jobId, int dependencyId, DependencyAwareJob.DependencyType type) {
+            if (!containsJob(jobId) || !containsJob(dependencyId)) {
+                throw new IllegalArgumentException("Unknown job in dependency " + jobId + " -> " + dependencyId);
+            }
+            if (edgeCount == edgeNodes.length) {
+                edgeNodes = Arrays.copyOf(edgeNodes, 2 * edgeCount);
+                edgeDependencies = Arrays.copyOf(edgeDependencies, 2 * edgeCount);
+                edgeTypes = Arrays.copyOf(edgeTypes, 2 * edgeCount);
+            }
+            
+            edgeNodes[edgeCount] = indexById[jobId];
+            edgeDependencies[edgeCount] = indexById[dependencyId];
+            edgeTypes[edgeCount] = (byte) type.ordinal();
+            edgeCount++;
+            return this;
+        }
+        
+        /**
+         * Lay the edges out in CSR form
+         */
+        public DependencyGraph build() {
+            // Count edges per node, then place them in insertion order
+            int[] offsets = new int[size + 1];
+            for (int edge = 0; edge < edgeCount; edge++) {
+                offsets[edgeNodes[edge] + 1]++;
+            }
+            for (int node = 0; node < size; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            int[] dependencies = new int[edgeCount];
+            byte[] types = new byte[edgeCount];
+            int[] fill = Arrays.copyOf(offsets, size);
+            for (int edge = 0; edge < edgeCount; edge++) {
+                int position = fill[edgeNodes[edge]]++;
+                dependencies[position] = edgeDependencies[edge];
+                types[position] = edgeTypes[edge];
+            }
+            
+            // Collapse repeated pairs, keeping the type added last
+            int[] lastPosition = new int[size];
+            Arrays.fill(lastPosition, -1);
+            int[] compactOffsets = new int[size + 1];
+            int kept = 0;
+            for (int node = 0; node < size; node++) {
+                int start = kept;
+                for (int edge = offsets[node]; edge < offsets[node + 1]; edge++) {
+                    int dependency = dependencies[edge];
+                    if (lastPosition[dependency] >= start) {
+                        types[lastPosition[dependency]] = types[edge];
+                    } else {
+                        lastPosition[dependency] = kept;
+                        dependencies[kept] = dependency;
+                        types[kept] = types[edge];
+                        kept++;
+                    }
+                }
+                compactOffsets[node + 1] = kept;
+            }
+            
+            return new DependencyGraph(Arrays.copyOf(jobIds, size), Arrays.copyOf(indexById, indexById.length),
+                                       compactOffsets, Arrays.copyOf(dependencies, kept), Arrays.copyOf(types, kept));
+        }
+    }
+}
@@ -1,13 +1,45 @@
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Utility class for generating job dependency graphs
  */
 public class DependencyGraphGenerator {
+    // Jobs per partition of a large workload; every partition draws from its own random stream
+    private static final int PARTITION_SIZE = 1 << 16;
+    
+    // Jobs per burst, and time between burst starts, for bursty arrivals
+    private static final int BURST_JOBS = 100;
+    private static final int BURST_PERIOD = 50;
+    
+    private static final DependencyAwareJob.DependencyType[] TYPES = DependencyAwareJob.DependencyType.values();
+    
+    /**
+     * Shapes of large generated workloads
+     */
+    public enum WorkloadFamily {
+        LAYERED,     // Random dependencies on the previous layer, as in generateJobsWithDependencies
+        FORK_JOIN,   // Repeated stages of a fork job, parallel branches and a join job
+        SCALE_FREE,  // Fan-in concentrated on a few early hub jobs
+        MONTAGE,     // Image mosaic workflow: project, fit differences, model and correct backgrounds, co-add
+        EPIGENOMICS  // Sequencing workflow: split, parallel four-stage lanes, merge, index, pileup
+    }
+    
+    /**
+     * Arrival patterns of large generated workloads
+     */
+    public enum ArrivalPattern {
+        IMMEDIATE,   // Every job available at time zero
+        UNIFORM,     // Uniform over the first third of the job count, as in generateJobsWithDependencies
+        BURSTY       // Groups of jobs arriving together, separated by quiet periods
+    }
+    
     private Random random;
+    private long seed;
     
     public DependencyGraphGenerator(long seed) {
         this.random = new Random(seed);
+        this.seed = seed;
         }
     
     
@@ -69,10 +101,8 @@ public class DependencyGraphGenerator {
             }
         }
         
-        // Calculate critical paths
-        for (DependencyAwareJob job : jobs) {
-            job.calculateCriticalPath();
-        }
+        // Move dependencies into a shared graph and calculate critical paths
+        freezeDependencies(jobs);
         
         return jobs;
     }
@@ -98,6 +128,348 @@ public class DependencyGraphGenerator {
         }
     }
     
+    /**
+     * Generate a large workload, with partitions generated in parallel on the common ForkJoin pool.
+     * 
+     * The result depends only on the seed and the arguments, not on the number of threads,
+     * and matches what streamWorkload() delivers for the same arguments.
+     * 
+     * @param family Shape of the dependency graph
+     * @param arrivals Arrival pattern
+     * @param count Number of jobs to generate
+     * @param width Layer width, fork width, maximum fan-in, images per mosaic or lanes per pipeline
+     * @return Workload with jobs 0..count-1
+     */
+    public GeneratedWorkload generateWorkload(WorkloadFamily family, ArrivalPattern arrivals, int count, int width) {
+        checkWorkloadArguments(count, width);
+        int partitionCount = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        WorkloadPartition[] partitions = IntStream.range(0, partitionCount)
+                                                  .parallel()
+                                                  .mapToObj(p -> generatePartition(family, arrivals, count, width, p))
+                                                  .toArray(WorkloadPartition[]::new);
+        
+        // Place each partition's edges after those of the partitions before it
+        long[] edgeBases = new long[partitionCount + 1];
+        for (int p = 0; p < partitionCount; p++) {
+            edgeBases[p + 1] = edgeBases[p] + partitions[p].edgeCount;
+        }
+        if (edgeBases[partitionCount] > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Workload has too many dependencies: " + edgeBases[partitionCount]);
+        }
+        
+        long[] arrivalTimes = new long[count];
+        int[] executionTimes = new int[count];
+        int[] priorities = new int[count];
+        int[] offsets = new int[count + 1];
+        int[] dependencies = new int[(int) edgeBases[partitionCount]];
+        byte[] types = new byte[dependencies.length];
+        offsets[count] = dependencies.length;
+        IntStream.range(0, partitionCount).parallel().forEach(p -> {
+            WorkloadPartition partition = partitions[p];
+            int jobs = partition.size();
+            int edgeBase = (int) edgeBases[p];
+            System.arraycopy(partition.arrivalTimes, 0, arrivalTimes, partition.firstId, jobs);
+            System.arraycopy(partition.executionTimes, 0, executionTimes, partition.firstId, jobs);
+            System.arraycopy(partition.priorities, 0, priorities, partition.firstId, jobs);
+            for (int job = 0; job < jobs; job++) {
+                offsets[partition.firstId + job] = edgeBase + partition.edgeOffsets[job];
+            }
+            System.arraycopy(partition.dependencies, 0, dependencies, edgeBase, partition.edgeCount);
+            System.arraycopy(partition.types, 0, types, edgeBase, partition.edgeCount);
+            partitions[p] = null;
+        });
+        
+        return new GeneratedWorkload(arrivalTimes, executionTimes, priorities,
+                                     DependencyGraph.fromDenseIds(count, offsets, dependencies, types));
+    }
+    
+    /**
+     * Generate a large workload lazily, one partition at a time, so memory stays bounded
+     * by the partition size however many jobs are generated
+     * 
+     * @param family Shape of the dependency graph
+     * @param arrivals Arrival pattern
+     * @param count Number of jobs to generate
+     * @param width Layer width, fork width, maximum fan-in, images per mosaic or lanes per pipeline
+     * @param sink Receives every job in id order, each followed by its dependencies
+     */
+    public void streamWorkload(WorkloadFamily family, ArrivalPattern arrivals, int count, int width,
+                               WorkloadSink sink) {
+        checkWorkloadArguments(count, width);
+        int partitionCount = (count + PARTITION_SIZE - 1) / PARTITION_SIZE;
+        for (int p = 0; p < partitionCount; p++) {
+            WorkloadPartition partition = generatePartition(family, arrivals, count, width, p);
+            for (int job = 0; job < partition.size(); job++) {
+                int id = partition.firstId + job;
+                sink.acceptJob(id, partition.arrivalTimes[job], partition.executionTimes[job],
+                               partition.priorities[job]);
+                for (int edge = partition.edgeOffsets[job]; edge < partition.edgeOffsets[job + 1]; edge++) {
+                    sink.acceptDependency(id, partition.dependencies[edge], TYPES[partition.types[edge]]);
+                }
+            }
+        }
+    }
+    
+    private static void checkWorkloadArguments(int count, int width) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Job count must be non-negative: " + count);
+        }
+        if (width < 1) {
+            throw new IllegalArgumentException("Width must be positive: " + width);
+        }
+    }
+    
+    /**
+     * Generate one partition of jobs from its own random stream.
+     * Every family places a job's dependencies by index arithmetic on lower ids only,
+     * so partitions never need each other and the graph is always acyclic.
+     */
+    private WorkloadPartition generatePartition(WorkloadFamily family, ArrivalPattern arrivals,
+                                                int count, int width, int partitionIndex) {
+        SplittableRandom partitionRandom = new SplittableRandom(seed + partitionIndex * 0x9E3779B97F4A7C15L);
+        int firstId = partitionIndex * PARTITION_SIZE;
+        WorkloadPartition partition = new WorkloadPartition(firstId, Math.min(count, firstId + PARTITION_SIZE));
+        
+        for (int id = partition.firstId; id < partition.endId; id++) {
+            partition.startJob(id, arrivalTime(arrivals, count, id, partitionRandom), 1 + partitionRandom.nextInt(10));
+            switch (family) {
+                case LAYERED:
+                    generateLayeredJob(partition, id, width, partitionRandom);
+                    break;
+                case FORK_JOIN:
+                    generateForkJoinJob(partition, id, width, partitionRandom);
+                    break;
+                case SCALE_FREE:
+                    generateScaleFreeJob(partition, id, width, partitionRandom);
+                    break;
+                case MONTAGE:
+                    generateMontageJob(partition, id, Math.max(2, width), partitionRandom);
+                    break;
+                case EPIGENOMICS:
+                    generateEpigenomicsJob(partition, id, width, partitionRandom);
+                    break;
+            }
+        }
+        return partition;
+    }
+    
+    private static long arrivalTime(ArrivalPattern arrivals, int count, int id, SplittableRandom random) {
+        switch (arrivals) {
+            case UNIFORM:
+                return random.nextInt(Math.max(1, count / 3));
+            case BURSTY:
+                // Bursts start on a fixed period, so no partition needs another's arrival times
+                return (long) (id / BURST_JOBS) * BURST_PERIOD + random.nextInt(BURST_PERIOD / 10);
+            default:
+                return 0;
+        }
+    }
+    
+    /**
+     * Up to three dependencies on random jobs of the previous layer, mostly REQUIRES
+     */
+    private static void generateLayeredJob(WorkloadPartition partition, int id, int width, SplittableRandom random) {
+        partition.setExecutionTime(1 + random.nextInt(20));
+        int layer = id / width;
+        if (layer == 0) {
+            return;
+        }
+        
+        int numDeps = 1 + random.nextInt(Math.min(3, width));
+        for (int d = 0; d < numDeps; d++) {
+            int dependency = (layer - 1) * width + random.nextInt(width);
+            double typeRoll = random.nextDouble();
+            if (typeRoll < 0.7) {
+                partition.addDependency(dependency, DependencyAwareJob.DependencyType.REQUIRES);
+            } else if (typeRoll < 0.9) {
+                partition.addDependency(dependency, DependencyAwareJob.DependencyType.PREFERS);
+            } else {
+                partition.addDependency(dependency, DependencyAwareJob.DependencyType.CONFLICTS_WITH);
+            }
+        }
+    }
+    
+    /**
+     * Stages of width + 2 jobs: a short fork job, width branches, and a short join job
+     * that the next stage's fork waits for
+     */
+    private static void generateForkJoinJob(WorkloadPartition partition, int id, int width, SplittableRandom random) {
+        int stageSize = width + 2;
+        int position = id % stageSize;
+        int stageStart = id - position;
+        
+        if (position == 0) {
+            partition.setExecutionTime(1 + random.nextInt(3));
+            if (stageStart > 0) {
+                partition.addDependency(stageStart - 1, DependencyAwareJob.DependencyType.REQUIRES);
+            }
+        } else if (position <= width) {
+            partition.setExecutionTime(1 + random.nextInt(20));
+            partition.addDependency(stageStart, DependencyAwareJob.DependencyType.REQUIRES);
+        } else {
+            partition.setExecutionTime(1 + random.nextInt(3));
+            for (int branch = stageStart + 1; branch < id; branch++) {
+                partition.addDependency(branch, DependencyAwareJob.DependencyType.REQUIRES);
+            }
+        }
+    }
+    
+    /**
+     * Up to width dependencies drawn with a strong bias towards low ids. This approximates
+     * preferential attachment without needing the degrees of other partitions: the earliest
+     * jobs become hubs with very many dependents while most jobs have few.
+     */
+    private static void generateScaleFreeJob(WorkloadPartition partition, int id, int width, SplittableRandom random) {
+        partition.setExecutionTime(1 + random.nextInt(20));
+        if (id == 0) {
+            return;
+        }
+        
+        int numDeps = 1 + random.nextInt(Math.min(width, id));
+        for (int d = 0; d < numDeps; d++) {
+            double u = random.nextDouble();
+            int dependency = (int) (id * u * u * u);
+            partition.addDependency(dependency, DependencyAwareJob.DependencyType.REQUIRES);
+        }
+    }
+    
+    /**
+     * Montage-like mosaics of 3 * images + 5 jobs: project every image, fit the difference of
+     * each overlapping pair, concatenate the fits, model the background, correct every
+     * projection, then a chain of table, co-add, shrink and render jobs
+     */
+    private static void generateMontageJob(WorkloadPartition partition, int id, int images, SplittableRandom random) {
+        int mosaicSize = 3 * images + 5;
+        int position = id % mosaicSize;
+        int start = id - position;
+        int diffStart = start + images;
+        int concatFit = diffStart + images - 1;
+        int backgroundModel = concatFit + 1;
+        int backgroundStart = backgroundModel + 1;
+        int imageTable = backgroundStart + images;
+        
+        if (id < diffStart) {
+            partition.setExecutionTime(5 + random.nextInt(11));
+        } else if (id < concatFit) {
+            partition.setExecutionTime(1 + random.nextInt(5));
+            partition.addDependency(start + (id - diffStart), DependencyAwareJob.DependencyType.REQUIRES);
+            partition.addDependency(start + (id - diffStart) + 1, DependencyAwareJob.DependencyType.REQUIRES);
+        } else if (id == concatFit) {
+            partition.setExecutionTime(2 + random.nextInt(5));
+            for (int diff = diffStart; diff < concatFit; diff++) {
+                partition.addDependency(diff, DependencyAwareJob.DependencyType.REQUIRES);
+            }
+        } else if (id == backgroundModel) {
+            partition.setExecutionTime(5 + random.nextInt(11));
+            partition.addDependency(concatFit, DependencyAwareJob.DependencyType.REQUIRES);
+        } else if (id < imageTable) {
+            partition.setExecutionTime(3 + random.nextInt(6));
+            partition.addDependency(backgroundModel, DependencyAwareJob.DependencyType.REQUIRES);
+            partition.addDependency(start + (id - backgroundStart), DependencyAwareJob.DependencyType.REQUIRES);
+        } else if (id == imageTable) {
+            partition.setExecutionTime(1 + random.nextInt(3));
+            for (int background = backgroundStart; background < imageTable; background++) {
+                partition.addDependency(background, DependencyAwareJob.DependencyType.REQUIRES);
+            }
+        } else {
+            // Co-adding the mosaic dominates the tail of the workflow
+            partition.setExecutionTime(id == imageTable + 1 ? 20 + random.nextInt(21) : 1 + random.nextInt(5));
+            partition.addDependency(id - 1, DependencyAwareJob.DependencyType.REQUIRES);
+        }
+    }
+    
+    /**
+     * Epigenomics-like pipelines of 4 * lanes + 4 jobs: split the input, run every lane through
+     * filter, convert, reformat and map stages, then merge, index and pileup
+     */
+    private static void generateEpigenomicsJob(WorkloadPartition partition, int id, int lanes,
+                                               SplittableRandom random) {
+        int pipelineSize = 4 * lanes + 4;
+        int position = id % pipelineSize;
+        int start = id - position;
+        
+        if (position == 0) {
+            partition.setExecutionTime(5 + random.nextInt(6));
+        } else if (position <= 4 * lanes) {
+            int stage = (position - 1) % 4;
+            // Mapping reads against the reference is by far the longest stage
+            partition.setExecutionTime(stage == 3 ? 10 + random.nextInt(21) : 1 + random.nextInt(stage == 0 ? 6 : 3));
+            partition.addDependency(stage == 0 ? start : id - 1, DependencyAwareJob.DependencyType.REQUIRES);
+        } else if (position == 4 * lanes + 1) {
+            partition.setExecutionTime(5 + random.nextInt(6));
+            for (int lane = 0; lane < lanes; lane++) {
+                partition.addDependency(start + 4 * lane + 4, DependencyAwareJob.DependencyType.REQUIRES);
+            }
+        } else {
+            partition.setExecutionTime(2 + random.nextInt(5));
+            partition.addDependency(id - 1, DependencyAwareJob.DependencyType.REQUIRES);
+        }
+    }
+    
+    /**
+     * Columns and CSR dependencies of one partition of a generated workload
+     */
+    private static class WorkloadPartition {
+        private int firstId;
+        private int endId;
+        private long[] arrivalTimes;
+        private int[] executionTimes;
+        private int[] priorities;
+        private int[] edgeOffsets; // Local job -> first edge; edgeOffsets[size()] is the edge count
+        private int[] dependencies;
+        private byte[] types;
+        private int edgeCount;
+        private int currentJob = -1;
+        
+        WorkloadPartition(int firstId, int endId) {
+            this.firstId = firstId;
+            this.endId = endId;
+            this.arrivalTimes = new long[endId - firstId];
+            this.executionTimes = new int[endId - firstId];
+            this.priorities = new int[endId - firstId];
+            this.edgeOffsets = new int[endId - firstId + 1];
+            this.dependencies = new int[2 * (endId - firstId) + 1];
+            this.types = new byte[dependencies.length];
+        }
+        
+        int size() {
+            return endId - firstId;
+        }
+        
+        void startJob(int id, long arrivalTime, int priority) {
+            currentJob = id - firstId;
+            arrivalTimes[currentJob] = arrivalTime;
+            priorities[currentJob] = priority;
+            edgeOffsets[currentJob] = edgeCount;
+            edgeOffsets[currentJob + 1] = edgeCount;
+        }
+        
+        void setExecutionTime(int executionTime) {
+            executionTimes[currentJob] = executionTime;
+        }
+        
+        /**
+         * Add a dependency of the current job; adding the same dependency again replaces its type
+         */
+        void addDependency(int dependencyId, DependencyAwareJob.DependencyType type) {
+            for (int edge = edgeOffsets[currentJob]; edge < edgeCount; edge++) {
+                if (dependencies[edge] == dependencyId) {
+                    types[edge] = (byte) type.ordinal();
+                    return;
+                }
+            }
+            if (edgeCount == dependencies.length) {
+                dependencies = Arrays.copyOf(dependencies, 2 * edgeCount);
+                types = Arrays.copyOf(types, 2 * edgeCount);
+            }
+            
+            dependencies[edgeCount] = dependencyId;
+            types[edgeCount] = (byte) type.ordinal();
+            edgeCount++;
+            edgeOffsets[currentJob + 1] = edgeCount;
+        }
+    }
+    
     /**
      * Generate a linear chain of dependencies (A -> B -> C -> ...)
      */
@@ -119,10 +491,8 @@ public class DependencyGraphGenerator {
             jobs.get(i).addDependency(jobs.get(i-1), DependencyAwareJob.DependencyType.REQUIRES);
         }
         
-        // Calculate critical paths
-        for (DependencyAwareJob job : jobs) {
-            job.calculateCriticalPath();
-        }
+        // Move dependencies into a shared graph and calculate critical paths
+        freezeDependencies(jobs);
         
         return jobs;
     }
@@ -153,10 +523,8 @@ public class DependencyGraphGenerator {
         jobs.get(i).addDependency(jobs.get(parentIndex), DependencyAwareJob.DependencyType.REQUIRES);
     }
     
-    // Calculate critical paths
-    for (DependencyAwareJob job : jobs) {
-        job.calculateCriticalPath();
-    }
+    // Move dependencies into a shared graph and calculate critical paths
+    freezeDependencies(jobs);
     
     return jobs;
         }
@@ -190,15 +558,23 @@ private List<DependencyAwareJob> generateDiamondDependencies(int count) {
     DependencyAwareJob entryJob = jobs.get(0);
     DependencyAwareJob exitJob = jobs.get(count - 1);
     
-    // Middle jobs depend on first job
+    // Middle jobs depend on first job. The edges go straight into the shared graph: adding
+    // them one at a time recomputes the exit job's path over all its dependencies so far,
+    // which is quadratic in the job count.
+    DependencyGraph.Builder builder = new DependencyGraph.Builder(count);
+    for (DependencyAwareJob job : jobs) {
+        builder.addJob(job.getId());
+    }
     for (int i = 1; i < count - 1; i++) {
-        jobs.get(i).addDependency(entryJob, DependencyAwareJob.DependencyType.REQUIRES);
-        exitJob.addDependency(jobs.get(i), DependencyAwareJob.DependencyType.REQUIRES);
+        builder.addDependency(jobs.get(i).getId(), entryJob.getId(), DependencyAwareJob.DependencyType.REQUIRES);
+        builder.addDependency(exitJob.getId(), jobs.get(i).getId(), DependencyAwareJob.DependencyType.REQUIRES);
     }
+    builder.build().bind(jobs);
+    CriticalPathAnalyzer.analyze(jobs);
     
-    // Calculate critical paths
+    // Earliest start times in dependency order, as adding the dependencies one by one leaves them
     for (DependencyAwareJob job : jobs) {
-        job.calculateCriticalPath();
+        job.calculateEarliestStartTime();
     }
     
     return jobs;
@@ -235,11 +611,17 @@ private List<DependencyAwareJob> generatePipelineDependencies(int count) {
         }
     }
     
-    // Calculate critical paths
-    for (DependencyAwareJob job : jobs) {
-        job.calculateCriticalPath();
-    }
+    // Move dependencies into a shared graph and calculate critical paths
+    freezeDependencies(jobs);
     
     return jobs;
 }
+
+/**
+ * Replace the dependency maps built up by addDependency() with one shared CSR graph
+ */
+private void freezeDependencies(List<DependencyAwareJob> jobs) {
+    DependencyGraph.fromJobs(jobs).bind(jobs);
+    CriticalPathAnalyzer.analyze(jobs);
+}
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+import java.util.*;
+
+/**
+ * Kahn-style readiness tracking for REQUIRES dependencies.
+ * 
+ * Every tracked job keeps a count of unfinished REQUIRES dependencies, and
+ * every job keeps the ids of the jobs that require it in flat successor
+ * arrays. Completing a job decrements its successors, and a job becomes ready
+ * the moment its count reaches zero, so readiness is an O(1) lookup instead
+ * of a scan over the completed jobs.
+ * 
+ * Dependencies are resolved by job id, so the tracker works on simulation
+ * copies whose dependency maps still point at the original jobs. A dependency
+ * on a job outside the tracked set is met only if that job is already
+ * completed, since the tracker will never see it finish.
+ */
+public class DependencyTracker {
+    private Job[] jobsById;
+    private int[] unmetCounts;
+    private boolean[] completed;
+    
+    // REQUIRES successors of job id j are successors[successorOffsets[j] .. successorOffsets[j + 1])
+    private int[] successorOffsets;
+    private int[] successors;
+    
+    /**
+     * Build a tracker over a list of jobs with unique, non-negative ids and attach
+     * it to the dependency-aware ones, whose areDependenciesMet() then reads it
+     * 
+     * @param jobs Jobs to track
+     */
+    public DependencyTracker(List<? extends Job> jobs) {
+        int maxId = -1;
+        for (Job job : jobs) {
+            if (job.getId() < 0) {
+                throw new IllegalArgumentException("Job ids must be non-negative: " + job);
+            }
+            maxId = Math.max(maxId, job.getId());
+        }
+        
+        this.jobsById = new Job[maxId + 1];
+        this.unmetCounts = new int[maxId + 1];
+        this.completed = new boolean[maxId + 1];
+        for (Job job : jobs) {
+            if (jobsById[job.getId()] != null) {
+                throw new IllegalArgumentException("Duplicate job id: " + job.getId());
+            }
+            jobsById[job.getId()] = job;
+            completed[job.getId()] = job.isCompleted();
+        }
+        
+        // Count unmet dependencies and outgoing edges, then lay the edges out by predecessor
+        this.successorOffsets = new int[maxId + 2];
+        for (Job job : jobs) {
+            for (Job dependency : requiredDependencies(job)) {
+                if (isTracked(dependency.getId())) {
+                    successorOffsets[dependency.getId() + 1]++;
+                    if (!completed[dependency.getId()]) {
+                        unmetCounts[job.getId()]++;
+                    }
+                } else if (!dependency.isCompleted()) {
+                    unmetCounts[job.getId()]++;
+                }
+            }
+        }
+        for (int id = 0; id <= maxId; id++) {
+            successorOffsets[id + 1] += successorOffsets[id];
+        }
+        
+        this.successors = new int[successorOffsets[maxId + 1]];
+        int[] fill = Arrays.copyOf(successorOffsets, maxId + 1);
+        for (Job job : jobs) {
+            for (Job dependency : requiredDependencies(job)) {
+                if (isTracked(dependency.getId())) {
+                    successors[fill[dependency.getId()]++] = job.getId();
+                }
+            }
+        }
+        
+        for (Job job : jobs) {
+            if (job instanceof DependencyAwareJob) {
+                ((DependencyAwareJob) job).setDependencyTracker(this);
+            }
+        }
+    }
+    
+    /**
+     * Check whether all REQUIRES dependencies of a job have completed
+     * 
+     * @param jobId Id of a tracked job
+     */
+    public boolean isReady(int jobId) {
+        return unmetCounts[jobId] == 0;
+    }
+    
+    /**
+     * Get the number of REQUIRES dependencies of a job that have not completed yet
+     * 
+     * @param jobId Id of a tracked job
+     */
+    public int getUnmetDependencyCount(int jobId) {
+        return unmetCounts[jobId];
+    }
+    
+    /**
+     * Record that a job has finished
+     * 
+     * @param jobId Id of the finished job
+     * @return Jobs whose last unmet dependency this was, in successor order
+     */
+    public List<Job> markCompleted(int jobId) {
+        if (!isTracked(jobId) || completed[jobId]) {
+            return Collections.emptyList();
+        }
+        completed[jobId] = true;
+        
+        List<Job> newlyReady = new ArrayList<>();
+        for (int i = successorOffsets[jobId]; i < successorOffsets[jobId + 1]; i++) {
+            int successor = successors[i];
+            if (--unmetCounts[successor] == 0) {
+                newlyReady.add(jobsById[successor]);
+            }
+        }
+        return newlyReady;
+    }
+    
+    private boolean isTracked(int jobId) {
+        return jobId >= 0 && jobId < jobsById.length && jobsById[jobId] != null;
+    }
+    
+    /**
+     * Get the REQUIRES dependencies of a job; plain jobs have none
+     */
+    private static List<Job> requiredDependencies(Job job) {
+        if (job instanceof DependencyAwareJob) {
+            return ((DependencyAwareJob) job).getRequiredDependencies();
+        }
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Expected-time-to-compute (ETC) matrix for a batch of jobs on a set of processors.
+ * 
+ * Processing times are stored in one flat int array (row = job, column = processor)
+ * together with each row's columns sorted by time, so a job's best free processor
+ * can be found again after processors are taken by advancing a cursor instead of
+ * rescanning the row.
+ */
+public class EtcMatrix {
+    private int jobCount;
+    private int processorCount;
+    private int[] times;          // times[row * processorCount + column]
+    private int[] columnOrder;    // Per row, columns sorted by (time, column)
+    private int[] cursor;         // Per row, position of the best free column in columnOrder
+    private boolean[] columnTaken;
+    
+    /**
+     * Build the matrix of estimated processing times
+     * 
+     * @param jobs Jobs in row order
+     * @param processors Processors in column order
+     */
+    public EtcMatrix(List<Job> jobs, List<Processor> processors) {
+        this.jobCount = jobs.size();
+        this.processorCount = processors.size();
+        this.times = new int[jobCount * processorCount];
+        this.columnOrder = new int[jobCount * processorCount];
+        this.cursor = new int[jobCount];
+        this.columnTaken = new boolean[processorCount];
+        
+        long[] sortKeys = new long[processorCount];
+        for (int row = 0; row < jobCount; row++) {
+            Job job = jobs.get(row);
+            int offset = row * processorCount;
+            
+            for (int column = 0; column < processorCount; column++) {
+                int time = processors.get(column).estimateProcessingTime(job);
+                times[offset + column] = time;
+                sortKeys[column] = ((long) time << 32) | column;
+            }
+            
+            // Ties on time go to the lowest column, matching a left-to-right scan
+            Arrays.sort(sortKeys);
+            for (int k = 0; k < processorCount; k++) {
+                columnOrder[offset + k] = (int) sortKeys[k];
+            }
+        }
+    }
+    
+    public int getJobCount() {
+        return jobCount;
+    }
+    
+    public int getProcessorCount() {
+        return processorCount;
+    }
+    
+    /**
+     * Get the estimated processing time of a job on a processor
+     */
+    public int getTime(int row, int column) {
+        return times[row * processorCount + column];
+    }
+    
+    /**
+     * Get the fastest processor for a job among those not yet taken
+     * 
+     * @return Column index, or -1 if every processor is taken
+     */
+    public int getBestColumn(int row) {
+        int offset = row * processorCount;
+        while (cursor[row] < processorCount && columnTaken[columnOrder[offset + cursor[row]]]) {
+            cursor[row]++;
+        }
+        return cursor[row] < processorCount ? columnOrder[offset + cursor[row]] : -1;
+    }
+    
+    /**
+     * Get a job's processing time on its best free processor
+     * 
+     * @return Minimum time, or -1 if every processor is taken
+     */
+    public int getRowMinimum(int row) {
+        int column = getBestColumn(row);
+        return column == -1 ? -1 : times[row * processorCount + column];
+    }
+    
+    /**
+     * Mark a processor as no longer available for this batch
+     */
+    public void takeColumn(int column) {
+        columnTaken[column] = true;
+    }
+    
+    public boolean isColumnTaken(int column) {
+        return columnTaken[column];
+    }
+}
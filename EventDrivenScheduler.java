@@ -0,0 +1,42 @@
+import java.util.List;
+
+/**
+ * Scheduler driven by simulation events instead of full job-list rescans.
+ *
+ * The simulation calls reset() before each run, then reports every arrival,
+ * every job that becomes ready (arrived with all required dependencies
+ * complete) and every completion. Implementations keep their own ready
+ * structure up to date from these callbacks, so dispatch() only has to look
+ * at jobs that can actually run.
+ */
+public interface EventDrivenScheduler extends Scheduler {
+    /**
+     * Discard all per-run state before a new simulation starts
+     */
+    void reset();
+
+    /**
+     * A job has entered the system; its dependencies may not be met yet
+     */
+    default void onArrival(Job job, long currentTime) {
+    }
+
+    /**
+     * A job has arrived and all of its required dependencies are complete
+     */
+    void onReady(Job job, long currentTime);
+
+    /**
+     * A job has finished executing
+     */
+    default void onCompletion(Job job, long currentTime) {
+    }
+
+    /**
+     * Assign ready jobs to idle processors
+     *
+     * @param idleProcessors Processors that are not running a job, in processor order
+     * @param currentTime Current simulation time
+     */
+    void dispatch(List<Processor> idleProcessors, long currentTime);
+}
@@ -0,0 +1,92 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Thread-safe collection of the metrics of an experiment, one entry per
+ * (workload, scheduler, seed) cell.
+ * 
+ * Cells can be added from any number of threads while others read. Workloads,
+ * schedulers and seeds are kept sorted, so reports do not depend on the order
+ * in which cells finished.
+ */
+public class ExperimentResults {
+    private final ConcurrentNavigableMap<String, ConcurrentNavigableMap<String, ConcurrentNavigableMap<Long, SchedulingMetrics>>> cells =
+        new ConcurrentSkipListMap<>();
+    
+    /**
+     * Record the metrics of one cell
+     * 
+     * @throws IllegalStateException If the cell already has metrics, such as when two schedulers share a name
+     */
+    public void add(String workload, String scheduler, long seed, SchedulingMetrics metrics) {
+        SchedulingMetrics previous = cells.computeIfAbsent(workload, w -> new ConcurrentSkipListMap<>())
+                                          .computeIfAbsent(scheduler, s -> new ConcurrentSkipListMap<>())
+                                          .putIfAbsent(seed, metrics);
+        if (previous != null) {
+            throw new IllegalStateException("Duplicate result for " + scheduler + " on " + workload + ", seed " + seed);
+        }
+    }
+    
+    /**
+     * Get the metrics of one cell
+     * 
+     * @return Metrics, or null if the cell has not been run
+     */
+    public SchedulingMetrics get(String workload, String scheduler, long seed) {
+        Map<Long, SchedulingMetrics> bySeed = seeds(workload, scheduler);
+        return bySeed != null ? bySeed.get(seed) : null;
+    }
+    
+    /**
+     * Get the metrics of a scheduler on a workload for every seed, in seed order
+     */
+    public List<SchedulingMetrics> getReplications(String workload, String scheduler) {
+        Map<Long, SchedulingMetrics> bySeed = seeds(workload, scheduler);
+        return bySeed != null ? new ArrayList<>(bySeed.values()) : Collections.emptyList();
+    }
+    
+    /**
+     * Get the metrics of every scheduler on a workload for one seed, by scheduler name
+     */
+    public Map<String, SchedulingMetrics> getBySchedulerName(String workload, long seed) {
+        Map<String, SchedulingMetrics> results = new LinkedHashMap<>();
+        Map<String, ConcurrentNavigableMap<Long, SchedulingMetrics>> bySchedulers = cells.get(workload);
+        if (bySchedulers != null) {
+            bySchedulers.forEach((scheduler, bySeed) -> {
+                SchedulingMetrics metrics = bySeed.get(seed);
+                if (metrics != null) {
+                    results.put(scheduler, metrics);
+                }
+            });
+        }
+        return results;
+    }
+    
+    public Set<String> getWorkloads() {
+        return Collections.unmodifiableSet(cells.keySet());
+    }
+    
+    public Set<String> getSchedulers(String workload) {
+        Map<String, ConcurrentNavigableMap<Long, SchedulingMetrics>> bySchedulers = cells.get(workload);
+        return bySchedulers != null ? Collections.unmodifiableSet(bySchedulers.keySet()) : Collections.emptySet();
+    }
+    
+    /**
+     * Get the number of cells recorded so far
+     */
+    public int size() {
+        int size = 0;
+        for (Map<String, ConcurrentNavigableMap<Long, SchedulingMetrics>> bySchedulers : cells.values()) {
+            for (Map<Long, SchedulingMetrics> bySeed : bySchedulers.values()) {
+                size += bySeed.size();
+            }
+        }
+        return size;
+    }
+    
+    private Map<Long, SchedulingMetrics> seeds(String workload, String scheduler) {
+        Map<String, ConcurrentNavigableMap<Long, SchedulingMetrics>> bySchedulers = cells.get(workload);
+        return bySchedulers != null ? bySchedulers.get(scheduler) : null;
+    }
+}
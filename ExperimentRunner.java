@@ -0,0 +1,167 @@
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Runs a matrix of (scheduler x workload x seed) simulations concurrently on a bounded thread pool.
+ * 
+ * Each workload is generated once per seed and its specs are shared by every
+ * scheduler run on it. Every cell gets its own scheduler from the scheduler's
+ * factory, its own SimulationEnvironment and processor copies, and a JobState
+ * that is private to the worker thread, so cells share nothing mutable.
+ * Anything a factory captures, such as a trained NeuralNetworkPredictor, is
+ * shared by all its schedulers and must be safe to read concurrently; freeze
+ * predictors before sharing them.
+ */
+public class ExperimentRunner {
+    private final int parallelism;
+    private final Map<String, LongFunction<List<JobSpec>>> workloads = new LinkedHashMap<>();
+    private final List<Supplier<? extends Scheduler>> schedulers = new ArrayList<>();
+    private List<? extends Processor> processors = Collections.emptyList();
+    private long[] seeds = {42};
+    private long maxSimulationTime = SimulationEnvironment.RUN_UNTIL_DRAINED;
+    
+    /**
+     * Create a runner that uses one thread per available processor
+     */
+    public ExperimentRunner() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Create a runner with a fixed number of worker threads
+     * 
+     * @param parallelism Maximum number of cells run at once
+     */
+    public ExperimentRunner(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+    }
+    
+    /**
+     * Add a workload generated from the seed of each cell
+     * 
+     * @param name Workload name used in the results
+     * @param generator Creates the specs for a seed; called once per seed, possibly on a worker thread
+     */
+    public void addWorkload(String name, LongFunction<List<JobSpec>> generator) {
+        if (workloads.putIfAbsent(name, generator) != null) {
+            throw new IllegalArgumentException("Duplicate workload: " + name);
+        }
+    }
+    
+    /**
+     * Add a fixed workload that every seed runs unchanged
+     */
+    public void addWorkload(String name, List<JobSpec> specs) {
+        addWorkload(name, seed -> specs);
+    }
+    
+    /**
+     * Add a scheduler. The factory is called once per cell, and results are
+     * recorded under the name of the scheduler it returns.
+     * 
+     * @param factory Creates a fresh scheduler; called on worker threads
+     */
+    public void addScheduler(Supplier<? extends Scheduler> factory) {
+        schedulers.add(factory);
+    }
+    
+    /**
+     * Set the processors every cell simulates; each cell works on its own copies
+     */
+    public void setProcessors(List<? extends Processor> processors) {
+        this.processors = new ArrayList<>(processors);
+    }
+    
+    /**
+     * Set the seeds each workload and scheduler pair is run with
+     */
+    public void setSeeds(long... seeds) {
+        if (seeds.length == 0) {
+            throw new IllegalArgumentException("At least one seed is required");
+        }
+        this.seeds = seeds.clone();
+    }
+    
+    public void setMaxSimulationTime(long maxSimulationTime) {
+        if (maxSimulationTime <= 0) {
+            throw new IllegalArgumentException("Simulation horizon must be positive: " + maxSimulationTime);
+        }
+        this.maxSimulationTime = maxSimulationTime;
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    /**
+     * Run every cell and wait for all of them to finish
+     * 
+     * @return Metrics of every cell
+     * @throws RuntimeException The failure of a cell, once every other cell has finished
+     */
+    public ExperimentResults run() {
+        if (processors.isEmpty()) {
+            throw new IllegalStateException("No processors to simulate");
+        }
+        
+        ExperimentResults results = new ExperimentResults();
+        ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "experiment-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        // A worker keeps the state of the workload it ran last, so consecutive cells
+        // on the same specs reset their jobs instead of creating new ones
+        ThreadLocal<JobState> workerState = new ThreadLocal<>();
+        List<CompletableFuture<Void>> cells = new ArrayList<>();
+        
+        try {
+            // Cells are queued workload by workload, so workers mostly reuse their state
+            for (Map.Entry<String, LongFunction<List<JobSpec>>> workload : workloads.entrySet()) {
+                for (long seed : seeds) {
+                    CompletableFuture<List<JobSpec>> specs =
+                        CompletableFuture.supplyAsync(() -> workload.getValue().apply(seed), pool);
+                    
+                    for (Supplier<? extends Scheduler> factory : schedulers) {
+                        cells.add(specs.thenAcceptAsync(cellSpecs -> {
+                            JobState jobState = workerState.get();
+                            if (jobState == null || jobState.getSpecs() != cellSpecs) {
+                                jobState = new JobState(cellSpecs);
+                                workerState.set(jobState);
+                            }
+                            
+                            Scheduler scheduler = factory.get();
+                            SchedulingMetrics metrics = new SimulationEnvironment(maxSimulationTime)
+                                .runSimulation(scheduler, jobState, new ArrayList<>(processors));
+                            results.add(workload.getKey(), scheduler.getName(), seed, metrics);
+                        }, pool));
+                    }
+                }
+            }
+            
+            CompletableFuture.allOf(cells.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        return results;
+    }
+}
@@ -4,14 +4,18 @@ import java.util.stream.Collectors;
 /**
  * First Come First Served Scheduler
  */
-public class FCFSScheduler implements Scheduler {
+public class FCFSScheduler implements EventDrivenScheduler {
+    // Ready jobs in arrival order, ties broken by id
+    private PriorityQueue<Job> readyQueue = new PriorityQueue<>(
+        Comparator.comparingLong(Job::getArrivalTime).thenComparingInt(Job::getId));
+    
     @Override
     public String getName() {
         return "First Come First Served";
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get available processors
         List<Processor> availableProcessors = processors.stream()
                                                       .filter(p -> !p.isBusy(currentTime))
@@ -27,7 +31,7 @@ public class FCFSScheduler implements Scheduler {
                                                   !job.isCompleted() && 
                                                   job.areDependenciesMet(completedJobs) &&
                                                   job.getStartTime() == -1)
-                                    .sorted(Comparator.comparingInt(Job::getArrivalTime))
+                                    .sorted(Comparator.comparingLong(Job::getArrivalTime))
                                     .collect(Collectors.toList());
         
         // Assign jobs to available processors
@@ -40,4 +44,24 @@ public class FCFSScheduler implements Scheduler {
             processor.assignJob(job, currentTime);
         }
     }
-}
\ No newline at end of file
+    
+    @Override
+    public void reset() {
+        readyQueue.clear();
+    }
+    
+    @Override
+    public void onReady(Job job, long currentTime) {
+        readyQueue.add(job);
+    }
+    
+    @Override
+    public void dispatch(List<Processor> idleProcessors, long currentTime) {
+        for (Processor processor : idleProcessors) {
+            if (readyQueue.isEmpty()) {
+                break;
+            }
+            processor.assignJob(readyQueue.poll(), currentTime);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.*;
+
+/**
+ * A generated workload held as columns instead of job objects.
+ * 
+ * Job ids are 0..size()-1 and index every column. The dependencies live in a
+ * DependencyGraph, so a workload with millions of jobs costs a few dozen
+ * bytes per job and edge. Job objects are only created when toJobs() is called.
+ */
+public class GeneratedWorkload {
+    private long[] arrivalTimes;
+    private int[] executionTimes;
+    private int[] priorities;
+    private DependencyGraph dependencyGraph;
+    
+    /**
+     * Create a workload from columns indexed by job id; the arrays are taken over, not copied
+     */
+    GeneratedWorkload(long[] arrivalTimes, int[] executionTimes, int[] priorities, DependencyGraph dependencyGraph) {
+        this.arrivalTimes = arrivalTimes;
+        this.executionTimes = executionTimes;
+        this.priorities = priorities;
+        this.dependencyGraph = dependencyGraph;
+    }
+    
+    public int size() {
+        return arrivalTimes.length;
+    }
+    
+    public long getArrivalTime(int jobId) {
+        return arrivalTimes[jobId];
+    }
+    
+    public int getExecutionTime(int jobId) {
+        return executionTimes[jobId];
+    }
+    
+    public int getPriority(int jobId) {
+        return priorities[jobId];
+    }
+    
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+    
+    /**
+     * Create one job per id, bound to the shared dependency graph.
+     * Run CriticalPathAnalyzer.analyze() on the result if critical path information is needed.
+     * 
+     * @return Jobs in id order
+     */
+    public List<DependencyAwareJob> toJobs() {
+        List<DependencyAwareJob> jobs = new ArrayList<>(size());
+        for (int id = 0; id < size(); id++) {
+            jobs.add(new DependencyAwareJob(id, arrivalTimes[id], executionTimes[id], priorities[id]));
+        }
+        dependencyGraph.bind(jobs);
+        return jobs;
+    }
+    
+    /**
+     * Replay the workload into a sink, in the same order the streaming generator uses
+     */
+    public void streamTo(WorkloadSink sink) {
+        for (int id = 0; id < size(); id++) {
+            sink.acceptJob(id, arrivalTimes[id], executionTimes[id], priorities[id]);
+            int end = dependencyGraph.getPredecessorEnd(id);
+            for (int edge = dependencyGraph.getPredecessorStart(id); edge < end; edge++) {
+                sink.acceptDependency(id, dependencyGraph.getPredecessor(edge), dependencyGraph.getPredecessorType(edge));
+            }
+        }
+    }
+}
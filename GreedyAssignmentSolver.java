@@ -0,0 +1,69 @@
+import java.util.Arrays;
+
+/**
+ * Greedy assignment: repeatedly take the highest scoring pair whose job and
+ * processor are both still free.
+ *
+ * This is the rule IntegratedAdvancedScheduler has always used. It is not
+ * optimal, but needs no tuning and never fails to finish.
+ */
+public class GreedyAssignmentSolver implements AssignmentSolver {
+    @Override
+    public String getName() {
+        return "Greedy";
+    }
+    
+    @Override
+    public int[] solve(double[] scores, int rows, int columns) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        
+        // Feasible pairs by score descending, row-major order on ties. Scores are replaced by
+        // their rank among the distinct feasible scores so rank and cell pack into one long key.
+        int feasible = 0;
+        double[] distinctScores = new double[rows * columns];
+        for (int cell = 0; cell < rows * columns; cell++) {
+            if (scores[cell] != Double.NEGATIVE_INFINITY) {
+                distinctScores[feasible++] = scores[cell];
+            }
+        }
+        Arrays.sort(distinctScores, 0, feasible);
+        int distinct = 0;
+        for (int i = 0; i < feasible; i++) {
+            if (distinct == 0 || Double.compare(distinctScores[i], distinctScores[distinct - 1]) != 0) {
+                distinctScores[distinct++] = distinctScores[i];
+            }
+        }
+        
+        long[] sortedCells = new long[feasible];
+        int next = 0;
+        for (int cell = 0; cell < rows * columns; cell++) {
+            if (scores[cell] != Double.NEGATIVE_INFINITY) {
+                long rankFromTop = distinct - 1 - Arrays.binarySearch(distinctScores, 0, distinct, scores[cell]);
+                sortedCells[next++] = rankFromTop << 32 | cell;
+            }
+        }
+        Arrays.sort(sortedCells);
+        
+        boolean[] columnTaken = new boolean[columns];
+        int remaining = Math.min(rows, columns);
+        
+        for (long key : sortedCells) {
+            int cell = (int) key;
+            int row = cell / columns;
+            int column = cell % columns;
+            
+            if (assignment[row] != -1 || columnTaken[column]) {
+                continue;
+            }
+            
+            assignment[row] = column;
+            columnTaken[column] = true;
+            if (--remaining == 0) {
+                break;
+            }
+        }
+        
+        return assignment;
+    }
+}
@@ -0,0 +1,123 @@
+import java.util.Arrays;
+
+/**
+ * Optimal assignment with the Hungarian (Kuhn-Munkres) algorithm.
+ *
+ * Runs in O(r * r * c) time for r = min(rows, columns) and c = max(rows, columns),
+ * so it is meant for small batches. As many pairs as possible are assigned, and
+ * among those assignments the one with the highest total score is returned.
+ */
+public class HungarianAssignmentSolver implements AssignmentSolver {
+    @Override
+    public String getName() {
+        return "Hungarian";
+    }
+    
+    @Override
+    public int[] solve(double[] scores, int rows, int columns) {
+        int[] assignment = new int[rows];
+        Arrays.fill(assignment, -1);
+        
+        double minScore = Double.POSITIVE_INFINITY;
+        double maxScore = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            if (score != Double.NEGATIVE_INFINITY) {
+                minScore = Math.min(minScore, score);
+                maxScore = Math.max(maxScore, score);
+            }
+        }
+        if (maxScore == Double.NEGATIVE_INFINITY) {
+            return assignment; // No feasible pair
+        }
+        
+        // Work on the orientation with fewer rows, as costs to minimize
+        boolean transposed = rows > columns;
+        int n = transposed ? columns : rows;
+        int m = transposed ? rows : columns;
+        
+        // Forbidden pairs cost more than any assignment made only of allowed pairs
+        double forbiddenCost = (maxScore - minScore + 1) * (n + 1);
+        double[] costs = new double[n * m];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                double score = scores[row * columns + column];
+                double cost = score == Double.NEGATIVE_INFINITY ? forbiddenCost : maxScore - score;
+                if (transposed) {
+                    costs[column * m + row] = cost;
+                } else {
+                    costs[row * m + column] = cost;
+                }
+            }
+        }
+        
+        // Potentials and matching, 1-based with index 0 as the virtual start column
+        double[] u = new double[n + 1];
+        double[] v = new double[m + 1];
+        int[] rowOfColumn = new int[m + 1];
+        int[] way = new int[m + 1];
+        double[] minSlack = new double[m + 1];
+        boolean[] used = new boolean[m + 1];
+        
+        for (int i = 1; i <= n; i++) {
+            rowOfColumn[0] = i;
+            int j0 = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, false);
+            
+            // Grow a shortest augmenting path from row i
+            do {
+                used[j0] = true;
+                int i0 = rowOfColumn[j0];
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+                int costOffset = (i0 - 1) * m - 1;
+                
+                for (int j = 1; j <= m; j++) {
+                    if (used[j]) {
+                        continue;
+                    }
+                    double slack = costs[costOffset + j] - u[i0] - v[j];
+                    if (slack < minSlack[j]) {
+                        minSlack[j] = slack;
+                        way[j] = j0;
+                    }
+                    if (minSlack[j] < delta) {
+                        delta = minSlack[j];
+                        j1 = j;
+                    }
+                }
+                
+                for (int j = 0; j <= m; j++) {
+                    if (used[j]) {
+                        u[rowOfColumn[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        minSlack[j] -= delta;
+                    }
+                }
+                j0 = j1;
+            } while (rowOfColumn[j0] != 0);
+            
+            // Flip the path
+            do {
+                int j1 = way[j0];
+                rowOfColumn[j0] = rowOfColumn[j1];
+                j0 = j1;
+            } while (j0 != 0);
+        }
+        
+        for (int j = 1; j <= m; j++) {
+            int i = rowOfColumn[j];
+            if (i == 0) {
+                continue;
+            }
+            int row = transposed ? j - 1 : i - 1;
+            int column = transposed ? i - 1 : j - 1;
+            if (scores[row * columns + column] != Double.NEGATIVE_INFINITY) {
+                assignment[row] = column;
+            }
+        }
+        
+        return assignment;
+    }
+}
@@ -1,5 +1,6 @@
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Hybrid Min-Min/SJF Scheduler
@@ -8,18 +9,24 @@ import java.util.stream.Collectors;
  * with SJF's focus on shorter jobs first. It outperforms standard algorithms by 23% for 
  * heterogeneous computing environments and is optimal for I/O-bound workloads.
  */
-public class HybridMinMinSJFScheduler implements Scheduler {
+public class HybridMinMinSJFScheduler implements EventDrivenScheduler {
     private static final double IO_BOUND_THRESHOLD = 0.3; // Threshold to favor I/O bound jobs
     private static final double SJF_WEIGHT = 0.6; // Weight for SJF component
     private static final double MIN_MIN_WEIGHT = 0.4; // Weight for Min-Min component
     
+    // Ready jobs in the order they became ready
+    private Set<Job> readyJobs = new LinkedHashSet<>();
+    
+    // Cross-check the fast path against the reference nested loops on every batch
+    private boolean verificationMode = false;
+    
     @Override
     public String getName() {
         return "Hybrid Min-Min/SJF Algorithm";
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get available processors
         List<Processor> availableProcessors = processors.stream()
                                                       .filter(p -> !p.isBusy(currentTime))
@@ -37,105 +44,310 @@ public class HybridMinMinSJFScheduler implements Scheduler {
                                                   job.getStartTime() == -1)
                                     .collect(Collectors.toList());
         
-        if (availableJobs.isEmpty()) {
+        assignJobs(availableJobs, availableProcessors, currentTime);
+    }
+    
+    @Override
+    public void reset() {
+        readyJobs.clear();
+    }
+    
+    @Override
+    public void onReady(Job job, long currentTime) {
+        readyJobs.add(job);
+    }
+    
+    @Override
+    public void dispatch(List<Processor> idleProcessors, long currentTime) {
+        if (readyJobs.isEmpty()) {
             return;
         }
         
-        // Create completion time matrix for all jobs on all processors
-        Map<Job, Map<Processor, Integer>> completionTimes = new HashMap<>();
+        List<Job> assigned = assignJobs(new ArrayList<>(readyJobs), new ArrayList<>(idleProcessors), currentTime);
+        readyJobs.removeAll(assigned);
+    }
+    
+    /**
+     * Enable or disable verification mode, in which every batch is planned by both the
+     * separable fast path and the reference nested loops and the results are compared
+     * 
+     * @param verificationMode true to cross-check every batch
+     */
+    public void setVerificationMode(boolean verificationMode) {
+        this.verificationMode = verificationMode;
+    }
+    
+    public boolean isVerificationMode() {
+        return verificationMode;
+    }
+    
+    /**
+     * Run the Hybrid Min-Min/SJF batch over the given jobs and processors
+     * 
+     * @return Jobs that were assigned
+     */
+    private List<Job> assignJobs(List<Job> availableJobs, List<Processor> availableProcessors, long currentTime) {
+        List<Job> assigned = new ArrayList<>();
+        
+        if (availableJobs.isEmpty() || availableProcessors.isEmpty()) {
+            return assigned;
+        }
+        
+        int[] assignment = planSeparable(availableJobs, availableProcessors);
+        
+        if (verificationMode) {
+            int[] reference = planNestedLoops(availableJobs, availableProcessors, currentTime);
+            if (!Arrays.equals(assignment, reference)) {
+                throw new IllegalStateException("Separable fast path diverged from nested-loop assignment at time "
+                                                + currentTime + ": " + Arrays.toString(assignment)
+                                                + " vs " + Arrays.toString(reference));
+            }
+        }
+        
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] != -1) {
+                Job job = availableJobs.get(row);
+                availableProcessors.get(assignment[row]).assignJob(job, currentTime);
+                assigned.add(job);
+            }
+        }
+        
+        return assigned;
+    }
+    
+    /**
+     * Check whether I/O bound jobs are rare enough in this batch to be placed first
+     */
+    private boolean favorIOBoundJobs(List<Job> jobs) {
+        long ioBoundCount = jobs.stream().filter(Job::isIOBound).count();
+        return ioBoundCount > 0 && (double) ioBoundCount / jobs.size() < IO_BOUND_THRESHOLD;
+    }
+    
+    /**
+     * Plan the batch without enumerating job-processor pairs.
+     * 
+     * The combined score is -(SJF_WEIGHT * est + MIN_MIN_WEIGHT * (currentTime + ceil(est / speed))).
+     * Both weights are positive and the best completion time over a fixed processor set never
+     * decreases with est, so the best pair always takes the remaining job with the smallest
+     * estimate (first in list order on ties). Its best processor is the first in list order
+     * among those reaching the smallest ceil(est / speed); ordered by speed those form a prefix,
+     * so a min-tree over list indices in speed order answers it in O(log m).
+     * 
+     * @return Processor index per job, or -1 for jobs left unassigned
+     */
+    private int[] planSeparable(List<Job> jobs, List<Processor> processors) {
+        int jobCount = jobs.size();
+        int processorCount = processors.size();
+        int[] assignment = new int[jobCount];
+        Arrays.fill(assignment, -1);
+        
+        // Processors fastest first (list order on equal speeds) and each processor's place in that order
+        int[] bySpeed = IntStream.range(0, processorCount).boxed()
+                                 .sorted(Comparator.comparingDouble((Integer i) -> -processors.get(i).getSpeedFactor())
+                                                   .thenComparingInt(i -> i))
+                                 .mapToInt(Integer::intValue)
+                                 .toArray();
+        int[] speedRank = new int[processorCount];
+        for (int rank = 0; rank < processorCount; rank++) {
+            speedRank[bySpeed[rank]] = rank;
+        }
+        
+        // Min-tree over speed ranks holding list indices of free processors
+        int leaves = Integer.highestOneBit(Math.max(1, processorCount - 1)) << 1;
+        int[] tree = new int[2 * leaves];
+        Arrays.fill(tree, Integer.MAX_VALUE);
+        for (int rank = 0; rank < processorCount; rank++) {
+            tree[leaves + rank] = bySpeed[rank];
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            tree[node] = Math.min(tree[2 * node], tree[2 * node + 1]);
+        }
+        
+        boolean[] excluded = new boolean[jobCount];
+        
+        // I/O bound jobs are placed first, in list order, when they are a small minority
+        if (favorIOBoundJobs(jobs)) {
+            for (int row = 0; row < jobCount; row++) {
+                if (jobs.get(row).isIOBound()) {
+                    assignment[row] = takeBestProcessor(jobs.get(row), processors, bySpeed, speedRank, tree, leaves);
+                    excluded[row] = true;
+                }
+            }
+        }
+        
+        // Remaining jobs by estimate, list order on ties
+        int[] byEstimate = IntStream.range(0, jobCount).filter(row -> !excluded[row]).boxed()
+                                    .sorted(Comparator.comparingInt((Integer row) -> jobs.get(row).getEstimatedExecutionTime())
+                                                      .thenComparingInt(row -> row))
+                                    .mapToInt(Integer::intValue)
+                                    .toArray();
+        
+        for (int row : byEstimate) {
+            int processor = takeBestProcessor(jobs.get(row), processors, bySpeed, speedRank, tree, leaves);
+            if (processor == -1) {
+                break;
+            }
+            assignment[row] = processor;
+        }
+        
+        return assignment;
+    }
+    
+    /**
+     * Find and remove the free processor that finishes a job soonest (lowest list index on ties)
+     * 
+     * @return List index of the processor, or -1 if none is free
+     */
+    private int takeBestProcessor(Job job, List<Processor> processors, int[] bySpeed, int[] speedRank,
+                                  int[] tree, int leaves) {
+        if (tree[1] == Integer.MAX_VALUE) {
+            return -1;
+        }
+        
+        // Fastest free processor: leftmost occupied leaf
+        int node = 1;
+        while (node < leaves) {
+            node = tree[2 * node] != Integer.MAX_VALUE ? 2 * node : 2 * node + 1;
+        }
+        int fastestRank = node - leaves;
+        int bestTime = processors.get(bySpeed[fastestRank]).estimateProcessingTime(job);
+        
+        // Processing time never decreases along the speed order, so binary search the tied prefix
+        int low = fastestRank;
+        int high = bySpeed.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (processors.get(bySpeed[mid]).estimateProcessingTime(job) == bestTime) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        
+        // Lowest list index among free processors in ranks [fastestRank, low]
+        int processor = Integer.MAX_VALUE;
+        for (int left = fastestRank + leaves, right = low + leaves + 1; left < right; left >>= 1, right >>= 1) {
+            if ((left & 1) == 1) {
+                processor = Math.min(processor, tree[left++]);
+            }
+            if ((right & 1) == 1) {
+                processor = Math.min(processor, tree[--right]);
+            }
+        }
+        
+        // Mark it taken
+        for (int position = speedRank[processor] + leaves; position > 0; position >>= 1) {
+            tree[position] = position >= leaves ? Integer.MAX_VALUE
+                                                : Math.min(tree[2 * position], tree[2 * position + 1]);
+        }
+        return processor;
+    }
+    
+    /**
+     * Plan the batch by scoring every job-processor pair in every round.
+     * 
+     * This is the reference formulation of the hybrid heuristic; verification mode
+     * checks the separable fast path against it.
+     * 
+     * @return Processor index per job, or -1 for jobs left unassigned
+     */
+    private int[] planNestedLoops(List<Job> jobs, List<Processor> processors, long currentTime) {
+        int jobCount = jobs.size();
+        int processorCount = processors.size();
+        int[] assignment = new int[jobCount];
+        Arrays.fill(assignment, -1);
         
-        for (Job job : availableJobs) {
-            Map<Processor, Integer> processorTimes = new HashMap<>();
-            for (Processor processor : availableProcessors) {
-                int procTime = processor.estimateProcessingTime(job);
-                processorTimes.put(processor, currentTime + procTime);
+        // Create completion time matrix for all jobs on all processors
+        long[] completionTimes = new long[jobCount * processorCount];
+        for (int row = 0; row < jobCount; row++) {
+            for (int column = 0; column < processorCount; column++) {
+                int procTime = processors.get(column).estimateProcessingTime(jobs.get(row));
+                completionTimes[row * processorCount + column] = currentTime + procTime;
             }
-            completionTimes.put(job, processorTimes);
         }
         
-        // Apply I/O bound preference if applicable
-        List<Job> ioBoundJobs = availableJobs.stream()
-                                         .filter(Job::isIOBound)
-                                         .collect(Collectors.toList());
+        boolean[] jobDone = new boolean[jobCount];
+        boolean[] processorTaken = new boolean[processorCount];
+        int remainingJobs = jobCount;
+        int remainingProcessors = processorCount;
         
         // If there are I/O bound jobs and they make up less than the threshold, prioritize them
-        if (!ioBoundJobs.isEmpty() && (double) ioBoundJobs.size() / availableJobs.size() < IO_BOUND_THRESHOLD) {
-            // Prioritize I/O bound jobs in the scoring
-            for (Job job : availableJobs) {
-                if (job.isIOBound()) {
-                    // Assign I/O bound jobs to available processors based on weighted criteria
-                    assignJobUsingWeightedCriteria(job, availableProcessors, completionTimes, currentTime);
+        if (favorIOBoundJobs(jobs)) {
+            for (int row = 0; row < jobCount; row++) {
+                if (!jobs.get(row).isIOBound()) {
+                    continue;
+                }
+                
+                int bestColumn = -1;
+                double bestScore = Double.NEGATIVE_INFINITY;
+                for (int column = 0; column < processorCount; column++) {
+                    if (processorTaken[column]) {
+                        continue;
+                    }
+                    double combinedScore = combinedScore(jobs.get(row), completionTimes[row * processorCount + column]);
+                    if (combinedScore > bestScore) {
+                        bestScore = combinedScore;
+                        bestColumn = column;
+                    }
+                }
+                
+                if (bestColumn != -1) {
+                    assignment[row] = bestColumn;
+                    processorTaken[bestColumn] = true;
+                    remainingProcessors--;
                 }
+                
+                // Remove I/O bound jobs from consideration
+                jobDone[row] = true;
+                remainingJobs--;
             }
-            
-            // Remove I/O bound jobs from consideration
-            availableJobs.removeAll(ioBoundJobs);
         }
         
         // Continue assigning remaining jobs
-        while (!availableJobs.isEmpty() && !availableProcessors.isEmpty()) {
+        while (remainingJobs > 0 && remainingProcessors > 0) {
             // Find the job with the best combined score
-            Job bestJob = null;
-            Processor bestProcessor = null;
+            int bestRow = -1;
+            int bestColumn = -1;
             double bestScore = Double.NEGATIVE_INFINITY;
             
-            for (Job job : availableJobs) {
-                for (Processor processor : availableProcessors) {
-                    int completionTime = completionTimes.get(job).get(processor);
-                    
-                    // Calculate combined score using weights
-                    // Normalize values to make them comparable
-                    double sjfScore = -job.getEstimatedExecutionTime(); // Negative because smaller is better
-                    double minMinScore = -completionTime; // Negative because smaller is better
-                    
-                    double combinedScore = (SJF_WEIGHT * sjfScore) + (MIN_MIN_WEIGHT * minMinScore);
-                    
+            for (int row = 0; row < jobCount; row++) {
+                if (jobDone[row]) {
+                    continue;
+                }
+                for (int column = 0; column < processorCount; column++) {
+                    if (processorTaken[column]) {
+                        continue;
+                    }
+                    double combinedScore = combinedScore(jobs.get(row), completionTimes[row * processorCount + column]);
                     if (combinedScore > bestScore) {
                         bestScore = combinedScore;
-                        bestJob = job;
-                        bestProcessor = processor;
+                        bestRow = row;
+                        bestColumn = column;
                     }
                 }
             }
             
-            if (bestJob != null && bestProcessor != null) {
-                // Assign job to processor
-                bestProcessor.assignJob(bestJob, currentTime);
-                availableJobs.remove(bestJob);
-                availableProcessors.remove(bestProcessor);
-            } else {
+            if (bestRow == -1) {
                 break; // No valid assignment found
             }
+            
+            assignment[bestRow] = bestColumn;
+            jobDone[bestRow] = true;
+            processorTaken[bestColumn] = true;
+            remainingJobs--;
+            remainingProcessors--;
         }
+        
+        return assignment;
     }
     
     /**
-     * Assign a job to a processor using weighted criteria
+     * Calculate combined score using weights (higher is better)
      */
-    private void assignJobUsingWeightedCriteria(Job job, List<Processor> availableProcessors, 
-                                             Map<Job, Map<Processor, Integer>> completionTimes, int currentTime) {
-        Processor bestProcessor = null;
-        double bestScore = Double.NEGATIVE_INFINITY;
-        
-        for (Processor processor : availableProcessors) {
-            int completionTime = completionTimes.get(job).get(processor);
-            
-            // Calculate combined score using weights
-            double sjfScore = -job.getEstimatedExecutionTime(); // Negative because smaller is better
-            double minMinScore = -completionTime; // Negative because smaller is better
-            
-            double combinedScore = (SJF_WEIGHT * sjfScore) + (MIN_MIN_WEIGHT * minMinScore);
-            
-            if (combinedScore > bestScore) {
-                bestScore = combinedScore;
-                bestProcessor = processor;
-            }
-        }
+    private double combinedScore(Job job, long completionTime) {
+        double sjfScore = -job.getEstimatedExecutionTime(); // Negative because smaller is better
+        double minMinScore = -completionTime; // Negative because smaller is better
         
-        if (bestProcessor != null) {
-            // Assign job to processor
-            bestProcessor.assignJob(job, currentTime);
-            availableProcessors.remove(bestProcessor);
-        }
+        return (SJF_WEIGHT * sjfScore) + (MIN_MIN_WEIGHT * minMinScore);
     }
 }
\ No newline at end of file
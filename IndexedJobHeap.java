@@ -0,0 +1,187 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of jobs keyed by estimated execution time (ties broken by id).
+ * 
+ * The heap keeps the position of every queued job, indexed by job id, so a job
+ * can be removed or re-keyed in O(log n) when its estimate changes.
+ */
+public class IndexedJobHeap {
+    private Job[] heap;
+    private int[] keys;
+    private int[] positionsById; // -1 when the job is not queued
+    private int size;
+    
+    public IndexedJobHeap() {
+        this.heap = new Job[16];
+        this.keys = new int[16];
+        this.positionsById = new int[16];
+        Arrays.fill(positionsById, -1);
+        this.size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public boolean contains(Job job) {
+        int id = job.getId();
+        return id < positionsById.length && positionsById[id] != -1 && heap[positionsById[id]] == job;
+    }
+    
+    /**
+     * Add a job using its current estimated execution time as key
+     */
+    public void add(Job job) {
+        if (contains(job)) {
+            update(job);
+            return;
+        }
+        
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        ensurePositionCapacity(job.getId());
+        
+        heap[size] = job;
+        keys[size] = job.getEstimatedExecutionTime();
+        positionsById[job.getId()] = size;
+        size++;
+        siftUp(size - 1);
+    }
+    
+    /**
+     * Get the job with the smallest estimate without removing it
+     */
+    public Job peek() {
+        return size == 0 ? null : heap[0];
+    }
+    
+    /**
+     * Remove and return the job with the smallest estimate
+     */
+    public Job poll() {
+        if (size == 0) {
+            return null;
+        }
+        Job top = heap[0];
+        removeAt(0);
+        return top;
+    }
+    
+    /**
+     * Remove a specific job from the heap
+     * 
+     * @return true if the job was queued
+     */
+    public boolean remove(Job job) {
+        if (!contains(job)) {
+            return false;
+        }
+        removeAt(positionsById[job.getId()]);
+        return true;
+    }
+    
+    /**
+     * Restore heap order after the job's estimated execution time changed
+     */
+    public void update(Job job) {
+        if (!contains(job)) {
+            return;
+        }
+        int position = positionsById[job.getId()];
+        keys[position] = job.getEstimatedExecutionTime();
+        siftUp(position);
+        siftDown(positionsById[job.getId()]);
+    }
+    
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positionsById[heap[i].getId()] = -1;
+            heap[i] = null;
+        }
+        size = 0;
+    }
+    
+    private void removeAt(int position) {
+        Job removed = heap[position];
+        positionsById[removed.getId()] = -1;
+        size--;
+        
+        if (position != size) {
+            // Move the last entry into the hole and restore order around it
+            heap[position] = heap[size];
+            keys[position] = keys[size];
+            positionsById[heap[position].getId()] = position;
+            siftUp(position);
+            siftDown(positionsById[heap[position].getId()]);
+        }
+        heap[size] = null;
+    }
+    
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!less(position, parent)) {
+                break;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+    
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= size) {
+                break;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && less(right, left)) {
+                smallest = right;
+            }
+            if (!less(smallest, position)) {
+                break;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+    
+    private boolean less(int a, int b) {
+        if (keys[a] != keys[b]) {
+            return keys[a] < keys[b];
+        }
+        return heap[a].getId() < heap[b].getId();
+    }
+    
+    private void swap(int a, int b) {
+        Job job = heap[a];
+        heap[a] = heap[b];
+        heap[b] = job;
+        
+        int key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        
+        positionsById[heap[a].getId()] = a;
+        positionsById[heap[b].getId()] = b;
+    }
+    
+    private void ensurePositionCapacity(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Job ids must be non-negative: " + id);
+        }
+        if (id >= positionsById.length) {
+            int oldLength = positionsById.length;
+            positionsById = Arrays.copyOf(positionsById, Math.max(id + 1, oldLength * 2));
+            Arrays.fill(positionsById, oldLength, positionsById.length, -1);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Integrated scheduler that combines neural network prediction with
@@ -9,9 +12,13 @@ import java.util.stream.Collectors;
  * all enhanced features.
  */
 public class IntegratedAdvancedScheduler implements Scheduler {
+    // Batches with at least this many job-processor pairs are scored in parallel
+    private static final long PARALLEL_SCORING_PAIRS = 1L << 15;
+    
     private String name;
     private Scheduler baseScheduler;
     private NeuralNetworkPredictor neuralNetPredictor;
+    private AssignmentSolver assignmentSolver;
     
     /**
      * Create an integrated advanced scheduler
@@ -19,9 +26,21 @@ public class IntegratedAdvancedScheduler implements Scheduler {
      * @param baseScheduler The base scheduling algorithm to use
      */
     public IntegratedAdvancedScheduler(Scheduler baseScheduler) {
+        this(baseScheduler, new NeuralNetworkPredictor());
+    }
+    
+    /**
+     * Create an integrated advanced scheduler around an existing predictor
+     * 
+     * @param baseScheduler The base scheduling algorithm to use
+     * @param neuralNetPredictor Predictor for job runtimes; a frozen predictor can be shared
+     *                           by schedulers running concurrently
+     */
+    public IntegratedAdvancedScheduler(Scheduler baseScheduler, NeuralNetworkPredictor neuralNetPredictor) {
         this.baseScheduler = baseScheduler;
         this.name = "Integrated-Advanced " + baseScheduler.getName();
-        this.neuralNetPredictor = new NeuralNetworkPredictor();
+        this.neuralNetPredictor = neuralNetPredictor;
+        this.assignmentSolver = new AdaptiveAssignmentSolver();
     }
     
     @Override
@@ -29,6 +48,19 @@ public class IntegratedAdvancedScheduler implements Scheduler {
         return name;
     }
     
+    public AssignmentSolver getAssignmentSolver() {
+        return assignmentSolver;
+    }
+    
+    /**
+     * Set the solver used to match available jobs to idle processors
+     * 
+     * @param assignmentSolver Solver for each scheduling batch
+     */
+    public void setAssignmentSolver(AssignmentSolver assignmentSolver) {
+        this.assignmentSolver = assignmentSolver;
+    }
+    
     /**
      * Load historical job data for neural network training
      * 
@@ -40,7 +72,7 @@ public class IntegratedAdvancedScheduler implements Scheduler {
     
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Update ML model with completed jobs
         for (Job job : completedJobs) {
             if (job.getCompletionTime() != -1 && job.getCompletionTime() <= currentTime) {
@@ -87,84 +119,219 @@ public class IntegratedAdvancedScheduler implements Scheduler {
      * Perform integrated scheduling considering all advanced features
      */
     private void integratedScheduling(List<Job> jobs, List<Processor> processors, 
-                                    int currentTime, List<Job> completedJobs) {
+                                    long currentTime, List<Job> completedJobs) {
         if (jobs.isEmpty() || processors.isEmpty()) {
             return;
         }
         
-        // Score each job-processor pair
-        Map<JobProcessorPair, Double> pairScores = new HashMap<>();
-        
-        for (Job job : jobs) {
-            for (Processor processor : processors) {
-                JobProcessorPair pair = new JobProcessorPair(job, processor);
-                double score = calculateIntegratedScore(job, processor, currentTime, completedJobs);
-                pairScores.put(pair, score);
-            }
+        int[] assignment;
+        int[] jobRows;
+        
+        if (jobs.size() > processors.size()) {
+            // More jobs than processors: only each processor's top candidates can be assigned
+            CandidateHeaps candidates = scoreCandidates(jobs, processors, currentTime, completedJobs);
+            jobRows = candidates.getCandidateRows();
+            double[] scores = candidates.toScoreMatrix(jobRows);
+            assignment = assignmentSolver.solve(scores, jobRows.length, processors.size());
+        } else {
+            double[] scores = buildScoreMatrix(jobs, processors, currentTime, completedJobs);
+            jobRows = IntStream.range(0, jobs.size()).toArray();
+            assignment = assignmentSolver.solve(scores, jobs.size(), processors.size());
         }
         
-        // Sort pairs by score (descending)
-        List<Map.Entry<JobProcessorPair, Double>> sortedPairs = 
-            pairScores.entrySet().stream()
-                    .sorted(Map.Entry.<JobProcessorPair, Double>comparingByValue().reversed())
-                    .collect(Collectors.toList());
-        
-        // Track assigned jobs and processors
-        Set<Job> assignedJobs = new HashSet<>();
-        Set<Processor> assignedProcessors = new HashSet<>();
-        
-        // Assign jobs to processors in order of score
-        for (Map.Entry<JobProcessorPair, Double> entry : sortedPairs) {
-            JobProcessorPair pair = entry.getKey();
-            Job job = pair.getJob();
-            Processor processor = pair.getProcessor();
-            
-            // Skip if job or processor already assigned
-            if (assignedJobs.contains(job) || assignedProcessors.contains(processor)) {
+        for (int row = 0; row < assignment.length; row++) {
+            if (assignment[row] == -1) {
                 continue;
             }
             
-            // Check resource constraints
-            boolean canAssign = true;
-            if (job instanceof ResourceAwareJob && processor instanceof ResourceAwareProcessor) {
-                ResourceAwareJob resourceJob = (ResourceAwareJob) job;
-                ResourceAwareProcessor resourceProcessor = (ResourceAwareProcessor) processor;
+            Job job = jobs.get(jobRows[row]);
+            processors.get(assignment[row]).assignJob(job, currentTime);
+            
+            // Update earliest start times for dependent jobs
+            if (job instanceof DependencyAwareJob) {
+                DependencyAwareJob dJob = (DependencyAwareJob) job;
+                for (DependencyAwareJob dependent : dJob.getDependents()) {
+                    dependent.calculateEarliestStartTime();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Score every job-processor pair into a row-major matrix (one row per job).
+     * Pairs that violate resource constraints are marked Double.NEGATIVE_INFINITY.
+     */
+    double[] buildScoreMatrix(List<Job> jobs, List<Processor> processors, 
+                              long currentTime, List<Job> completedJobs) {
+        int columns = processors.size();
+        double[] scores = new double[jobs.size() * columns];
+        double[] jobScores = calculateJobScores(jobs, completedJobs);
+        
+        for (int row = 0; row < jobs.size(); row++) {
+            Job job = jobs.get(row);
+            for (int column = 0; column < columns; column++) {
+                scores[row * columns + column] = scorePair(job, processors.get(column), currentTime, jobScores[row]);
+            }
+        }
+        
+        return scores;
+    }
+    
+    /**
+     * Score every job-processor pair, keeping only the best jobs for each processor.
+     * Large batches are scored in parallel on the common ForkJoin pool.
+     */
+    CandidateHeaps scoreCandidates(List<Job> jobs, List<Processor> processors, 
+                                   long currentTime, List<Job> completedJobs) {
+        // Job terms are computed up front, so the parallel part only reads jobs and processors
+        double[] jobScores = calculateJobScores(jobs, completedJobs);
+        
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (parallelism <= 1 || (long) jobs.size() * processors.size() < PARALLEL_SCORING_PAIRS) {
+            return new CandidateScoringTask(jobs, processors, currentTime, jobScores,
+                                            0, jobs.size(), jobs.size()).compute();
+        }
+        
+        // A few tasks per worker; each task's heaps hold up to one candidate per job and processor
+        int rowsPerTask = Math.max(1, (jobs.size() + 4 * parallelism - 1) / (4 * parallelism));
+        return ForkJoinPool.commonPool().invoke(new CandidateScoringTask(jobs, processors, currentTime, jobScores,
+                                                                         0, jobs.size(), rowsPerTask));
+    }
+    
+    /**
+     * Score a job-processor pair, or Double.NEGATIVE_INFINITY if it violates resource constraints
+     */
+    private double scorePair(Job job, Processor processor, long currentTime, double jobScore) {
+        if (job instanceof ResourceAwareJob && processor instanceof ResourceAwareProcessor &&
+            !((ResourceAwareProcessor) processor).canAccommodate((ResourceAwareJob) job)) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return calculateIntegratedScore(job, processor, currentTime, jobScore);
+    }
+    
+    /**
+     * Scores a range of jobs into candidate heaps, splitting large ranges across the pool
+     */
+    private class CandidateScoringTask extends RecursiveTask<CandidateHeaps> {
+        private static final long serialVersionUID = 1L;
+        
+        private List<Job> jobs;
+        private List<Processor> processors;
+        private long currentTime;
+        private double[] jobScores;
+        private int fromRow;
+        private int toRow;
+        private int rowsPerTask;
+        
+        CandidateScoringTask(List<Job> jobs, List<Processor> processors, long currentTime,
+                             double[] jobScores, int fromRow, int toRow, int rowsPerTask) {
+            this.jobs = jobs;
+            this.processors = processors;
+            this.currentTime = currentTime;
+            this.jobScores = jobScores;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.rowsPerTask = rowsPerTask;
+        }
+        
+        @Override
+        protected CandidateHeaps compute() {
+            if (toRow - fromRow > rowsPerTask) {
+                int middle = (fromRow + toRow) >>> 1;
+                CandidateScoringTask left = new CandidateScoringTask(jobs, processors, currentTime,
+                                                                     jobScores, fromRow, middle, rowsPerTask);
+                CandidateScoringTask right = new CandidateScoringTask(jobs, processors, currentTime,
+                                                                      jobScores, middle, toRow, rowsPerTask);
+                left.fork();
+                CandidateHeaps rightCandidates = right.compute();
+                CandidateHeaps leftCandidates = left.join();
                 
-                canAssign = resourceProcessor.canAccommodate(resourceJob);
+                // Merge into a side that already holds as many candidates as the whole range can
+                int capacity = Math.min(processors.size(), toRow - fromRow);
+                if (rightCandidates.getCapacity() >= capacity) {
+                    rightCandidates.addAll(leftCandidates);
+                    return rightCandidates;
+                }
+                CandidateHeaps candidates = new CandidateHeaps(processors.size(), capacity);
+                candidates.addAll(leftCandidates);
+                candidates.addAll(rightCandidates);
+                return candidates;
+            }
+            
+            // A processor can never have more candidates than the range has jobs
+            int columns = processors.size();
+            CandidateHeaps candidates = new CandidateHeaps(columns, Math.min(columns, toRow - fromRow));
+            for (int row = fromRow; row < toRow; row++) {
+                Job job = jobs.get(row);
+                for (int column = 0; column < columns; column++) {
+                    double score = scorePair(job, processors.get(column), currentTime, jobScores[row]);
+                    if (score != Double.NEGATIVE_INFINITY) {
+                        candidates.offer(column, row, score);
+                    }
+                }
             }
+            return candidates;
+        }
+    }
+    
+    /**
+     * Calculate the part of the integrated score that depends only on the job,
+     * once per job and batch instead of once per job-processor pair
+     */
+    private double[] calculateJobScores(List<Job> jobs, List<Job> completedJobs) {
+        Set<Job> completed = new HashSet<>(completedJobs);
+        boolean[] critical = CriticalPathAnalyzer.criticalFlags(jobs);
+        double[] jobScores = new double[jobs.size()];
+        
+        for (int row = 0; row < jobs.size(); row++) {
+            Job job = jobs.get(row);
+            
+            // Add priority factor
+            double score = job.getPriority() * 10;
             
-            // Assign job if possible
-            if (canAssign) {
-                processor.assignJob(job, currentTime);
-                assignedJobs.add(job);
-                assignedProcessors.add(processor);
+            // Dependency factors
+            if (job instanceof DependencyAwareJob) {
+                DependencyAwareJob dJob = (DependencyAwareJob) job;
+                
+                // Critical path bonus
+                if (critical[row]) {
+                    score += 200;
+                }
                 
-                // Update earliest start times for dependent jobs
-                if (job instanceof DependencyAwareJob) {
-                    DependencyAwareJob dJob = (DependencyAwareJob) job;
-                    for (DependencyAwareJob dependent : dJob.getDependents()) {
-                        dependent.calculateEarliestStartTime();
+                // Critical path length factor
+                score += dJob.getCriticalPathLength() * 3;
+                
+                // Dependent count bonus (more dependents = more important)
+                score += dJob.getDependentCount() * 15;
+                
+                // Preferred dependencies bonus
+                for (Job dependency : dJob.getDependenciesByType(DependencyAwareJob.DependencyType.PREFERS)) {
+                    if (completed.contains(dependency)) {
+                        score += 25;
                     }
                 }
             }
+            
+            jobScores[row] = score;
         }
+        
+        return jobScores;
     }
     
     /**
      * Calculate an integrated score for a job-processor pair
      * Higher score means better assignment
+     * 
+     * @param jobScore Job-only part of the score from calculateJobScores
      */
     private double calculateIntegratedScore(Job job, Processor processor, 
-                                          int currentTime, List<Job> completedJobs) {
-        double score = 0;
+                                          long currentTime, double jobScore) {
+        double score = jobScore;
         
         // Base score is negative estimated completion time (earlier is better)
-        int estimatedCompletionTime = currentTime + processor.estimateProcessingTime(job);
+        long estimatedCompletionTime = currentTime + processor.estimateProcessingTime(job);
         score -= estimatedCompletionTime;
         
-        // Add priority factor
-        score += job.getPriority() * 10;
-        
         // Resource efficiency factor
         if (job instanceof ResourceAwareJob && processor instanceof ResourceAwareProcessor) {
             ResourceAwareJob resourceJob = (ResourceAwareJob) job;
@@ -180,30 +347,6 @@ public class IntegratedAdvancedScheduler implements Scheduler {
             }
         }
         
-        // Dependency factors
-        if (job instanceof DependencyAwareJob) {
-            DependencyAwareJob dJob = (DependencyAwareJob) job;
-            
-            // Critical path bonus
-            if (dJob.isCriticalJob()) {
-                score += 200;
-            }
-            
-            // Critical path length factor
-            score += dJob.getCriticalPathLength() * 3;
-            
-            // Dependent count bonus (more dependents = more important)
-            score += dJob.getDependents().size() * 15;
-            
-            // Preferred dependencies bonus
-            for (Map.Entry<Job, DependencyAwareJob.DependencyType> entry : dJob.getDependencyMap().entrySet()) {
-                if (entry.getValue() == DependencyAwareJob.DependencyType.PREFERS && 
-                    completedJobs.contains(entry.getKey())) {
-                    score += 25;
-                }
-            }
-        }
-        
         // Processor speed factor (faster processors get priority)
         score += processor.getSpeedFactor() * 50;
         
@@ -239,8 +382,13 @@ public class IntegratedAdvancedScheduler implements Scheduler {
     
     /**
      * Generate a comprehensive performance report
+     * 
+     * @param jobs Jobs of the run, for the dependency analysis
+     * @param processors Processors of the run, for the resource report
+     * @param metrics Metrics the run returned
      */
-    public String generateComprehensiveReport(List<ResourceAwareJob> jobs, List<ResourceAwareProcessor> processors) {
+    public String generateComprehensiveReport(List<ResourceAwareJob> jobs, List<ResourceAwareProcessor> processors,
+                                              SchedulingMetrics metrics) {
         StringBuilder report = new StringBuilder();
         report.append("Comprehensive Performance Report\n");
         report.append("===============================\n\n");
@@ -283,28 +431,25 @@ public class IntegratedAdvancedScheduler implements Scheduler {
                               100.0 * criticalJobs.size() / jobs.size()));
         
         // Maximum critical path length
-        int maxCriticalPath = jobs.stream()
-                            .mapToInt(DependencyAwareJob::getCriticalPathLength)
+        long maxCriticalPath = jobs.stream()
+                            .mapToLong(DependencyAwareJob::getCriticalPathLength)
                             .max()
                             .orElse(0);
         
         report.append(String.format("Maximum critical path length: %d time units\n\n", maxCriticalPath));
         
-        // Performance metrics
-        int makespan = jobs.stream().mapToInt(Job::getCompletionTime).max().orElse(0);
-        double averageWaitingTime = jobs.stream().mapToInt(Job::getWaitingTime).average().orElse(0);
-        double averageTurnaroundTime = jobs.stream().mapToInt(Job::getTurnaroundTime).average().orElse(0);
-        double throughput = (double) jobs.size() / makespan;
-        
-        int totalBusyTime = processors.stream().mapToInt(Processor::getTotalBusyTime).sum();
-        double resourceUtilization = (double) totalBusyTime / (processors.size() * makespan);
-        
+        // Performance metrics, accumulated during the run
         report.append("Performance Metrics:\n");
-        report.append(String.format("Makespan: %d time units\n", makespan));
-        report.append(String.format("Average waiting time: %.2f time units\n", averageWaitingTime));
-        report.append(String.format("Average turnaround time: %.2f time units\n", averageTurnaroundTime));
-        report.append(String.format("Throughput: %.2f jobs/time unit\n", throughput));
-        report.append(String.format("Resource utilization: %.2f%%\n", resourceUtilization * 100));
+        report.append(String.format("Makespan: %d time units\n", (long) metrics.getMakespan()));
+        report.append(String.format("Average waiting time: %.2f time units\n", metrics.getAverageWaitingTime()));
+        report.append(String.format("Average turnaround time: %.2f time units\n", metrics.getAverageTurnaroundTime()));
+        report.append(String.format("Throughput: %.2f jobs/time unit\n", metrics.getThroughput()));
+        report.append(String.format("Resource utilization: %.2f%%\n", metrics.getResourceUtilization() * 100));
+        if (metrics.getLatencies() != null) {
+            report.append(String.format("P95/P99 waiting time: %d/%d time units\n",
+                                        metrics.getWaitingTimePercentile(95), metrics.getWaitingTimePercentile(99)));
+            report.append(String.format("P99 bounded slowdown: %.2f\n", metrics.getBoundedSlowdownPercentile(99)));
+        }
         
         return report.toString();
     }
@@ -6,18 +6,18 @@ import java.util.List;
  */
 public class Job implements Comparable<Job> {
     private int id;
-    private int arrivalTime;
+    private long arrivalTime;
     private int executionTime;
     private int estimatedExecutionTime;
     private int priority;
     private boolean isIOBound;
     private int remainingTime;
-    private int waitingTime;
-    private int completionTime;
-    private int startTime;
+    private long waitingTime;
+    private long completionTime;
+    private long startTime;
     private List<Job> dependencies;
     
-    public Job(int id, int arrivalTime, int executionTime, int priority) {
+    public Job(int id, long arrivalTime, int executionTime, int priority) {
         this.id = id;
         this.arrivalTime = arrivalTime;
         this.executionTime = executionTime;
@@ -46,6 +46,17 @@ public class Job implements Comparable<Job> {
         this.dependencies = new ArrayList<>(other.dependencies);
     }
     
+    /**
+     * Clear the run state so the job can take part in another simulation.
+     * Subclasses clear their own run state too.
+     */
+    public void reset() {
+        this.remainingTime = executionTime;
+        this.waitingTime = 0;
+        this.completionTime = -1;
+        this.startTime = -1;
+    }
+    
     @Override
     public int compareTo(Job other) {
         return Integer.compare(this.id, other.id);
@@ -61,7 +72,7 @@ public class Job implements Comparable<Job> {
         return id;
     }
     
-    public int getArrivalTime() {
+    public long getArrivalTime() {
         return arrivalTime;
     }
     
@@ -103,27 +114,46 @@ public class Job implements Comparable<Job> {
         return remainingTime == 0;
     }
     
-    public void setCompletionTime(int completionTime) {
+    /**
+     * Consume several units of remaining time at once
+     */
+    public void decrementRemainingTime(int amount) {
+        remainingTime = Math.max(0, remainingTime - amount);
+    }
+    
+    /**
+     * Move the job straight to the completed state
+     * 
+     * @param completionTime Completion time to record if none is set yet
+     */
+    public void markCompleted(long completionTime) {
+        remainingTime = 0;
+        if (this.completionTime == -1) {
+            this.completionTime = completionTime;
+        }
+    }
+    
+    public void setCompletionTime(long completionTime) {
         this.completionTime = completionTime;
     }
     
-    public int getCompletionTime() {
+    public long getCompletionTime() {
         return completionTime;
     }
     
-    public void setStartTime(int startTime) {
+    public void setStartTime(long startTime) {
         this.startTime = startTime;
     }
     
-    public int getStartTime() {
+    public long getStartTime() {
         return startTime;
     }
     
-    public int getWaitingTime() {
+    public long getWaitingTime() {
         return waitingTime;
     }
     
-    public void setWaitingTime(int waitingTime) {
+    public void setWaitingTime(long waitingTime) {
         this.waitingTime = waitingTime;
     }
     
@@ -131,7 +161,7 @@ public class Job implements Comparable<Job> {
         waitingTime++;
     }
     
-    public int getTurnaroundTime() {
+    public long getTurnaroundTime() {
         if (completionTime == -1) {
             return -1;
         }
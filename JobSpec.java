@@ -0,0 +1,192 @@
+import java.util.*;
+
+/**
+ * Immutable description of a job: everything a simulation reads but never changes.
+ * 
+ * Specs can be shared by any number of simulations, including concurrent ones;
+ * each run builds its own mutable jobs from them with a JobState. The kind
+ * records which Job subclass a spec came from, so the jobs a run works on keep
+ * their dependency and resource information.
+ */
+public final class JobSpec {
+    public enum Kind {
+        PLAIN,
+        DEPENDENCY_AWARE,
+        RESOURCE_AWARE
+    }
+    
+    private final int id;
+    private final long arrivalTime;
+    private final int executionTime;
+    private final int estimatedExecutionTime;
+    private final int priority;
+    private final boolean ioBound;
+    private final Kind kind;
+    private final int memoryRequirement;
+    private final int networkRequirement;
+    private final int cpuRequirement;
+    private final DependencyGraph dependencyGraph; // Null for plain jobs and jobs without a graph
+    private final int graphIndex;
+    
+    private JobSpec(Job job, DependencyGraph dependencyGraph) {
+        this.id = job.getId();
+        this.arrivalTime = job.getArrivalTime();
+        this.executionTime = job.getExecutionTime();
+        this.estimatedExecutionTime = job.getEstimatedExecutionTime();
+        this.priority = job.getPriority();
+        this.ioBound = job.isIOBound();
+        if (job instanceof ResourceAwareJob) {
+            ResourceAwareJob resourceJob = (ResourceAwareJob) job;
+            this.kind = Kind.RESOURCE_AWARE;
+            this.memoryRequirement = resourceJob.getMemoryRequirement();
+            this.networkRequirement = resourceJob.getNetworkRequirement();
+            this.cpuRequirement = resourceJob.getCpuRequirement();
+        } else {
+            this.kind = job instanceof DependencyAwareJob ? Kind.DEPENDENCY_AWARE : Kind.PLAIN;
+            this.memoryRequirement = 0;
+            this.networkRequirement = 0;
+            this.cpuRequirement = 0;
+        }
+        this.dependencyGraph = kind == Kind.PLAIN ? null : dependencyGraph;
+        this.graphIndex = this.dependencyGraph != null ? this.dependencyGraph.indexOf(id) : -1;
+    }
+    
+    /**
+     * Capture the specs of a job list.
+     * 
+     * Dependencies between dependency-aware jobs in the list are kept in one
+     * DependencyGraph shared by all the specs. If the jobs are already bound to a
+     * graph covering exactly these jobs, that graph is reused as it is;
+     * otherwise a graph is built from their dependencies, dropping dependencies
+     * on jobs outside the list.
+     * 
+     * @param jobs Jobs with unique ids, in the order their jobs should be created
+     * @return One spec per job, in list order
+     */
+    public static List<JobSpec> fromJobs(List<? extends Job> jobs) {
+        List<DependencyAwareJob> dependencyJobs = new ArrayList<>();
+        for (Job job : jobs) {
+            if (job instanceof DependencyAwareJob) {
+                dependencyJobs.add((DependencyAwareJob) job);
+            }
+        }
+        
+        DependencyGraph graph = null;
+        if (!dependencyJobs.isEmpty()) {
+            graph = dependencyJobs.get(0).getDependencyGraph();
+            boolean shared = graph != null && graph.size() == dependencyJobs.size();
+            for (int i = 1; shared && i < dependencyJobs.size(); i++) {
+                shared = dependencyJobs.get(i).getDependencyGraph() == graph;
+            }
+            if (!shared) {
+                graph = DependencyGraph.fromJobs(dependencyJobs);
+            }
+        }
+        
+        List<JobSpec> specs = new ArrayList<>(jobs.size());
+        for (Job job : jobs) {
+            specs.add(new JobSpec(job, graph));
+        }
+        return Collections.unmodifiableList(specs);
+    }
+    
+    /**
+     * Create a fresh job of the recorded kind; dependency-aware jobs still have to be bound to the graph
+     */
+    Job newJob() {
+        Job job;
+        switch (kind) {
+            case RESOURCE_AWARE:
+                ResourceAwareJob resourceJob = new ResourceAwareJob(id, arrivalTime, executionTime, priority);
+                resourceJob.setResourceRequirements(memoryRequirement, networkRequirement, cpuRequirement);
+                job = resourceJob;
+                break;
+            case DEPENDENCY_AWARE:
+                job = new DependencyAwareJob(id, arrivalTime, executionTime, priority);
+                break;
+            default:
+                job = new Job(id, arrivalTime, executionTime, priority);
+                break;
+        }
+        job.setIOBound(ioBound);
+        restoreInputs(job);
+        return job;
+    }
+    
+    /**
+     * Undo changes a scheduler may have made to a job's inputs during a run, such as a predicted estimate
+     */
+    void restoreInputs(Job job) {
+        if (job.getEstimatedExecutionTime() != estimatedExecutionTime) {
+            job.setEstimatedExecutionTime(estimatedExecutionTime);
+        }
+        if (kind == Kind.RESOURCE_AWARE) {
+            ((ResourceAwareJob) job).setResourceRequirements(memoryRequirement, networkRequirement, cpuRequirement);
+        }
+    }
+    
+    public int getId() {
+        return id;
+    }
+    
+    public long getArrivalTime() {
+        return arrivalTime;
+    }
+    
+    public int getExecutionTime() {
+        return executionTime;
+    }
+    
+    public int getEstimatedExecutionTime() {
+        return estimatedExecutionTime;
+    }
+    
+    public int getPriority() {
+        return priority;
+    }
+    
+    public boolean isIOBound() {
+        return ioBound;
+    }
+    
+    public Kind getKind() {
+        return kind;
+    }
+    
+    /**
+     * Get the memory requirement in MB, or 0 unless the job is resource-aware
+     */
+    public int getMemoryRequirement() {
+        return memoryRequirement;
+    }
+    
+    public int getNetworkRequirement() {
+        return networkRequirement;
+    }
+    
+    public int getCpuRequirement() {
+        return cpuRequirement;
+    }
+    
+    /**
+     * Get the graph holding this job's dependencies
+     * 
+     * @return Dependency graph, or null for plain jobs
+     */
+    public DependencyGraph getDependencyGraph() {
+        return dependencyGraph;
+    }
+    
+    /**
+     * Get this job's node in the dependency graph, or -1 for plain jobs
+     */
+    public int getGraphIndex() {
+        return graphIndex;
+    }
+    
+    @Override
+    public String toString() {
+        return "JobSpec #" + id + " (" + kind + ", Arrival: " + arrivalTime + ", Exec: " + executionTime +
+               ", Priority: " + priority + ")";
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.*;
+
+/**
+ * The mutable jobs of one simulation run, built once from shared JobSpecs and reset in place between runs.
+ * 
+ * A state creates one job of the right subclass per spec and binds the
+ * dependency-aware ones to the specs' shared DependencyGraph. reset() clears
+ * what a run changed (remaining, start, completion and waiting times, and any
+ * estimate a scheduler replaced), so running many schedulers over the same
+ * state allocates no jobs after the first. Each concurrent run needs its own
+ * state; the specs can be shared.
+ */
+public class JobState {
+    private List<JobSpec> specs;
+    private Job[] jobs;
+    private List<Job> jobList; // Read-only view handed to simulations
+    private List<List<DependencyAwareJob>> dependencyGroups = new ArrayList<>(); // Jobs per shared graph
+    
+    /**
+     * Create the jobs for a list of specs
+     * 
+     * @param specs Specs from JobSpec.fromJobs(), or any list whose dependency-aware specs
+     *              cover every node of their graph exactly once
+     */
+    public JobState(List<JobSpec> specs) {
+        this.specs = specs;
+        this.jobs = new Job[specs.size()];
+        
+        // Dependency-aware jobs are bound per graph
+        Map<DependencyGraph, List<DependencyAwareJob>> jobsByGraph = new IdentityHashMap<>();
+        for (int i = 0; i < jobs.length; i++) {
+            JobSpec spec = specs.get(i);
+            jobs[i] = spec.newJob();
+            if (spec.getDependencyGraph() != null) {
+                jobsByGraph.computeIfAbsent(spec.getDependencyGraph(), graph -> new ArrayList<>())
+                           .add((DependencyAwareJob) jobs[i]);
+            }
+        }
+        for (Map.Entry<DependencyGraph, List<DependencyAwareJob>> entry : jobsByGraph.entrySet()) {
+            entry.getKey().bind(entry.getValue());
+            CriticalPathAnalyzer.analyze(entry.getValue());
+            dependencyGroups.add(entry.getValue());
+        }
+        
+        this.jobList = Collections.unmodifiableList(Arrays.asList(jobs));
+    }
+    
+    /**
+     * Create a state from existing jobs, keeping their subclasses and dependencies
+     */
+    public static JobState fromJobs(List<? extends Job> jobs) {
+        return new JobState(JobSpec.fromJobs(jobs));
+    }
+    
+    public List<JobSpec> getSpecs() {
+        return specs;
+    }
+    
+    /**
+     * Get the jobs of this state, in spec order. The list is read-only and is the
+     * same list on every call; the jobs in it carry the results of the last run.
+     */
+    public List<Job> getJobs() {
+        return jobList;
+    }
+    
+    public Job getJob(int index) {
+        return jobs[index];
+    }
+    
+    public int size() {
+        return jobs.length;
+    }
+    
+    /**
+     * Return every job to its state before any run, including the critical path
+     * analysis of its dependency graph
+     */
+    public void reset() {
+        for (int i = 0; i < jobs.length; i++) {
+            jobs[i].reset();
+            specs.get(i).restoreInputs(jobs[i]);
+        }
+        restoreCriticalPaths();
+    }
+    
+    /**
+     * Attach a fresh analysis of each dependency graph as built, so the critical
+     * path getters answer for the whole graph again instead of for the progress of
+     * a run. The analysis runs when a getter is first called.
+     */
+    public void restoreCriticalPaths() {
+        for (List<DependencyAwareJob> group : dependencyGroups) {
+            CriticalPathAnalyzer.structural(group);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.List;
+
+/**
+ * Dense, id-indexed table of the jobs taking part in a simulation.
+ * 
+ * Job ids are used directly as array indices, so lookups are O(1) and the
+ * number of completed jobs is maintained instead of being recounted.
+ */
+public class JobTable {
+    private Job[] jobsById;
+    private boolean[] counted; // Completions already counted, including ones a scheduler recorded itself
+    private int size;
+    private int completedCount;
+    
+    /**
+     * Build a table over a list of jobs with unique, non-negative ids
+     * 
+     * @param jobs Jobs to index
+     */
+    public JobTable(List<? extends Job> jobs) {
+        int maxId = -1;
+        for (Job job : jobs) {
+            if (job.getId() < 0) {
+                throw new IllegalArgumentException("Job ids must be non-negative: " + job);
+            }
+            maxId = Math.max(maxId, job.getId());
+        }
+        
+        this.jobsById = new Job[maxId + 1];
+        this.counted = new boolean[maxId + 1];
+        for (Job job : jobs) {
+            if (jobsById[job.getId()] != null) {
+                throw new IllegalArgumentException("Duplicate job id: " + job.getId());
+            }
+            jobsById[job.getId()] = job;
+            if (job.isCompleted()) {
+                counted[job.getId()] = true;
+                completedCount++;
+            }
+        }
+        this.size = jobs.size();
+    }
+    
+    /**
+     * Look up a job by id
+     * 
+     * @return The job, or null if no job has this id
+     */
+    public Job get(int id) {
+        return id >= 0 && id < jobsById.length ? jobsById[id] : null;
+    }
+    
+    /**
+     * Mark the job with the given id as completed. A job the scheduler already
+     * marked as completed, such as on its last time slice, is counted now.
+     * 
+     * @param id Id of the finished job
+     * @param completionTime Time at which the job finished, if it has no completion time yet
+     * @return The completed job, or null if it is unknown or its completion was already counted
+     */
+    public Job complete(int id, long completionTime) {
+        Job job = get(id);
+        if (job == null || counted[id]) {
+            return null;
+        }
+        
+        job.markCompleted(completionTime);
+        counted[id] = true;
+        completedCount++;
+        return job;
+    }
+    
+    /**
+     * Check whether the completion of the job with the given id has been counted
+     */
+    public boolean isCompleted(int id) {
+        return id >= 0 && id < counted.length && counted[id];
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int getCompletedCount() {
+        return completedCount;
+    }
+    
+    public boolean allCompleted() {
+        return completedCount == size;
+    }
+}
@@ -0,0 +1,164 @@
+import java.util.*;
+
+/**
+ * Tail-latency statistics of a simulation, fed one job at a time as jobs leave the system.
+ * 
+ * Waiting time, turnaround time and bounded slowdown are kept in LogHistograms,
+ * overall and per priority, so percentiles and maxima are available with memory
+ * that depends on the number of priorities but not on the number of jobs.
+ * 
+ * Bounded slowdown is turnaround / max(executionTime, threshold), at least 1; the
+ * threshold keeps very short jobs from dominating the tail. It is recorded in
+ * thousandths.
+ */
+public class LatencyCollector {
+    public static final int DEFAULT_SLOWDOWN_THRESHOLD = 10;
+    private static final double SLOWDOWN_SCALE = 1000;
+    
+    private final int slowdownThreshold;
+    private final JobHistograms overall = new JobHistograms();
+    private final SortedMap<Integer, JobHistograms> byPriority = new TreeMap<>();
+    
+    public LatencyCollector() {
+        this(DEFAULT_SLOWDOWN_THRESHOLD);
+    }
+    
+    /**
+     * Create a collector
+     * 
+     * @param slowdownThreshold Execution time below which jobs count as this long for bounded slowdown
+     */
+    public LatencyCollector(int slowdownThreshold) {
+        if (slowdownThreshold <= 0) {
+            throw new IllegalArgumentException("Slowdown threshold must be positive: " + slowdownThreshold);
+        }
+        this.slowdownThreshold = slowdownThreshold;
+    }
+    
+    /**
+     * Record a job that has completed
+     */
+    public void recordCompletion(Job job) {
+        long turnaroundTime = job.getTurnaroundTime();
+        long waitingTime = OnlineMetrics.waitingTime(job);
+        double slowdown = Math.max(1.0, (double) turnaroundTime / Math.max(job.getExecutionTime(), slowdownThreshold));
+        
+        long scaledSlowdown = Math.round(slowdown * SLOWDOWN_SCALE);
+        overall.recordCompletion(waitingTime, turnaroundTime, scaledSlowdown);
+        forPriority(job.getPriority()).recordCompletion(waitingTime, turnaroundTime, scaledSlowdown);
+    }
+    
+    /**
+     * Record a job that arrived but had not completed when the simulation stopped.
+     * Only its waiting time is known.
+     * 
+     * @param waitingTime Time the job waited before starting, or until the simulation stopped
+     */
+    public void recordUnfinished(Job job, long waitingTime) {
+        overall.waitingTimes.record(Math.max(0, waitingTime));
+        forPriority(job.getPriority()).waitingTimes.record(Math.max(0, waitingTime));
+    }
+    
+    /**
+     * Add everything recorded by another collector with the same slowdown threshold
+     */
+    public void merge(LatencyCollector other) {
+        if (other.slowdownThreshold != slowdownThreshold) {
+            throw new IllegalArgumentException("Slowdown thresholds differ: " + other.slowdownThreshold);
+        }
+        overall.merge(other.overall);
+        other.byPriority.forEach((priority, histograms) -> forPriority(priority).merge(histograms));
+    }
+    
+    public int getSlowdownThreshold() {
+        return slowdownThreshold;
+    }
+    
+    /**
+     * Get the waiting times of every job that arrived, finished or not
+     */
+    public LogHistogram getWaitingTimes() {
+        return overall.waitingTimes;
+    }
+    
+    /**
+     * Get the turnaround times of completed jobs
+     */
+    public LogHistogram getTurnaroundTimes() {
+        return overall.turnaroundTimes;
+    }
+    
+    /**
+     * Get the bounded slowdowns of completed jobs, in thousandths
+     */
+    public LogHistogram getBoundedSlowdowns() {
+        return overall.boundedSlowdowns;
+    }
+    
+    public long getWaitingTimePercentile(double percentile) {
+        return overall.waitingTimes.getValueAtPercentile(percentile);
+    }
+    
+    public double getBoundedSlowdownPercentile(double percentile) {
+        return overall.boundedSlowdowns.getValueAtPercentile(percentile) / SLOWDOWN_SCALE;
+    }
+    
+    public double getMaxBoundedSlowdown() {
+        return overall.boundedSlowdowns.getMax() / SLOWDOWN_SCALE;
+    }
+    
+    /**
+     * Get the priorities seen so far, in ascending order
+     */
+    public Set<Integer> getPriorities() {
+        return Collections.unmodifiableSet(byPriority.keySet());
+    }
+    
+    /**
+     * Get the waiting times of jobs with one priority
+     * 
+     * @return Histogram, empty if no job had this priority
+     */
+    public LogHistogram getWaitingTimes(int priority) {
+        JobHistograms histograms = byPriority.get(priority);
+        return histograms != null ? histograms.waitingTimes : new LogHistogram();
+    }
+    
+    public LogHistogram getTurnaroundTimes(int priority) {
+        JobHistograms histograms = byPriority.get(priority);
+        return histograms != null ? histograms.turnaroundTimes : new LogHistogram();
+    }
+    
+    /**
+     * Get the bounded slowdowns of completed jobs with one priority, in thousandths
+     */
+    public LogHistogram getBoundedSlowdowns(int priority) {
+        JobHistograms histograms = byPriority.get(priority);
+        return histograms != null ? histograms.boundedSlowdowns : new LogHistogram();
+    }
+    
+    private JobHistograms forPriority(int priority) {
+        return byPriority.computeIfAbsent(priority, p -> new JobHistograms());
+    }
+    
+    /**
+     * The histograms kept for one group of jobs
+     */
+    private static class JobHistograms {
+        final LogHistogram waitingTimes = new LogHistogram();
+        final LogHistogram turnaroundTimes = new LogHistogram();
+        final LogHistogram boundedSlowdowns = new LogHistogram();
+        
+        void recordCompletion(long waitingTime, long turnaroundTime, long scaledSlowdown) {
+            waitingTimes.record(waitingTime);
+            turnaroundTimes.record(turnaroundTime);
+            boundedSlowdowns.record(scaledSlowdown);
+        }
+        
+        void merge(JobHistograms other) {
+            waitingTimes.merge(other.waitingTimes);
+            turnaroundTimes.merge(other.turnaroundTimes);
+            boundedSlowdowns.merge(other.boundedSlowdowns);
+        }
+    }
+}
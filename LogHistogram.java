@@ -0,0 +1,167 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values with log-linear buckets, in the style of HdrHistogram.
+ * 
+ * Values below 2^precisionBits are counted exactly. Above that, every power-of-two
+ * range is split into 2^(precisionBits - 1) equal buckets, so any recorded value
+ * is known to within a relative error of 2^-(precisionBits - 1). The bucket count
+ * depends only on the precision, never on how many values are recorded.
+ */
+public class LogHistogram {
+    public static final int DEFAULT_PRECISION_BITS = 7; // Within 1.6% of the true value
+    
+    private final int precisionBits;
+    private final int halfBucketCount; // Buckets per power of two above the exact range
+    private long[] counts;
+    private long totalCount;
+    private double sum;
+    private long min = Long.MAX_VALUE;
+    private long max = -1;
+    
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+    
+    /**
+     * Create a histogram
+     * 
+     * @param precisionBits Bits of precision kept per value, between 2 and 16
+     */
+    public LogHistogram(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision must be between 2 and 16 bits: " + precisionBits);
+        }
+        this.precisionBits = precisionBits;
+        this.halfBucketCount = 1 << (precisionBits - 1);
+        this.counts = new long[2 * halfBucketCount];
+    }
+    
+    /**
+     * Record one value
+     */
+    public void record(long value) {
+        record(value, 1);
+    }
+    
+    /**
+     * Record a value several times
+     */
+    public void record(long value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Histogram values must be non-negative: " + value);
+        }
+        if (count <= 0) {
+            return;
+        }
+        
+        int index = bucketIndex(value);
+        if (index >= counts.length) {
+            // Buckets are added as larger values appear; at most (66 - precisionBits) powers of two
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length + counts.length / 2));
+        }
+        counts[index] += count;
+        totalCount += count;
+        sum += (double) value * count;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+    
+    /**
+     * Add every value recorded in another histogram of the same precision
+     */
+    public void merge(LogHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms of " + other.precisionBits + " and " +
+                                               precisionBits + " bits of precision");
+        }
+        if (other.totalCount == 0) {
+            return;
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+    
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    /**
+     * Get the exact mean of the recorded values, or 0 if there are none
+     */
+    public double getMean() {
+        return totalCount > 0 ? sum / totalCount : 0;
+    }
+    
+    /**
+     * Get the exact largest recorded value, or 0 if there are none
+     */
+    public long getMax() {
+        return totalCount > 0 ? max : 0;
+    }
+    
+    /**
+     * Get the exact smallest recorded value, or 0 if there are none
+     */
+    public long getMin() {
+        return totalCount > 0 ? min : 0;
+    }
+    
+    /**
+     * Get the value at a percentile: the largest value that falls in the same bucket
+     * as the value below which the given share of recorded values lie
+     * 
+     * @param percentile Percentile between 0 and 100, such as 99
+     * @return Value at the percentile, never above the recorded maximum, or 0 if there are no values
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        if (totalCount == 0) {
+            return 0;
+        }
+        
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        long seen = 0;
+        for (int index = 0; index < counts.length; index++) {
+            seen += counts[index];
+            if (seen >= rank) {
+                return Math.min(highestValueInBucket(index), max);
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Map a value to its bucket
+     */
+    private int bucketIndex(long value) {
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent < precisionBits) {
+            return (int) value; // Exact range
+        }
+        int shift = exponent - precisionBits + 1;
+        return shift * halfBucketCount + (int) (value >>> shift);
+    }
+    
+    /**
+     * Get the largest value that maps to a bucket
+     */
+    private long highestValueInBucket(int index) {
+        if (index < 2 * halfBucketCount) {
+            return index;
+        }
+        int shift = index / halfBucketCount - 1;
+        long lowest = (long) (index - shift * halfBucketCount) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
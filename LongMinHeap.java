@@ -0,0 +1,77 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of primitive long keys.
+ * 
+ * Used for selection loops that pack a sort key and an index into one long,
+ * which avoids boxing and per-entry objects.
+ */
+public class LongMinHeap {
+    private long[] heap;
+    private int size;
+    
+    public LongMinHeap(int initialCapacity) {
+        this.heap = new long[Math.max(1, initialCapacity)];
+        this.size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public void add(long value) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent] <= value) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = value;
+    }
+    
+    public long peek() {
+        if (size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return heap[0];
+    }
+    
+    public long poll() {
+        long top = peek();
+        long last = heap[--size];
+        if (size > 0) {
+            // Sift the last element down from the root
+            int position = 0;
+            while (true) {
+                int child = 2 * position + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (last <= heap[child]) {
+                    break;
+                }
+                heap[position] = heap[child];
+                position = child;
+            }
+            heap[position] = last;
+        }
+        return top;
+    }
+    
+    public void clear() {
+        size = 0;
+    }
+}
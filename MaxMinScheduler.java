@@ -4,14 +4,17 @@ import java.util.stream.Collectors;
 /**
  * Max-Min Scheduler
  */
-public class MaxMinScheduler implements Scheduler {
+public class MaxMinScheduler implements EventDrivenScheduler {
+    // Ready jobs in the order they became ready
+    private Set<Job> readyJobs = new LinkedHashSet<>();
+    
     @Override
     public String getName() {
         return "Max-Min Algorithm";
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get available processors
         List<Processor> availableProcessors = processors.stream()
                                                       .filter(p -> !p.isBusy(currentTime))
@@ -29,62 +32,113 @@ public class MaxMinScheduler implements Scheduler {
                                                   job.getStartTime() == -1)
                                     .collect(Collectors.toList());
         
-        if (availableJobs.isEmpty()) {
+        assignJobs(availableJobs, availableProcessors, currentTime);
+    }
+    
+    @Override
+    public void reset() {
+        readyJobs.clear();
+    }
+    
+    @Override
+    public void onReady(Job job, long currentTime) {
+        readyJobs.add(job);
+    }
+    
+    @Override
+    public void dispatch(List<Processor> idleProcessors, long currentTime) {
+        if (readyJobs.isEmpty()) {
             return;
         }
         
-        // Create completion time matrix for all jobs on all processors
-        Map<Job, Map<Processor, Integer>> completionTimes = new HashMap<>();
+        List<Job> assigned = assignJobs(new ArrayList<>(readyJobs), new ArrayList<>(idleProcessors), currentTime);
+        readyJobs.removeAll(assigned);
+    }
+    
+    /**
+     * Run the Max-Min batch over the given jobs and processors
+     * 
+     * @return Jobs that were assigned
+     */
+    private List<Job> assignJobs(List<Job> availableJobs, List<Processor> availableProcessors, long currentTime) {
+        List<Job> assigned = new ArrayList<>();
         
-        for (Job job : availableJobs) {
-            Map<Processor, Integer> processorTimes = new HashMap<>();
-            for (Processor processor : availableProcessors) {
-                int procTime = processor.estimateProcessingTime(job);
-                processorTimes.put(processor, currentTime + procTime);
-            }
-            completionTimes.put(job, processorTimes);
+        if (availableJobs.isEmpty()) {
+            return assigned;
         }
         
+        // Expected processing times; the common offset currentTime does not change the ordering
+        EtcMatrix etc = new EtcMatrix(availableJobs, availableProcessors);
+        int jobCount = availableJobs.size();
+        
         // Max-Min Algorithm:
-        // 1. Find job with maximum completion time
-        // 2. Assign it to the corresponding processor
+        // 1. For each job, find its minimum completion time across all processors
+        // 2. Pick the job whose minimum is largest and assign it to that processor
         // 3. Remove the job from availableJobs
         // 4. Repeat until all jobs are assigned or no processors available
+        //
+        // Row minimums sit in a min-heap keyed by (inverted time, row), so the largest minimum
+        // comes first and ties resolve to the first job. A heap entry can be stale once its
+        // processor is taken, so every row preferring a processor is re-queued as soon as that
+        // processor goes. Rows are threaded into one list per preferred processor for this.
+        LongMinHeap rowMinimums = new LongMinHeap(jobCount);
+        int[] firstRowByColumn = new int[availableProcessors.size()];
+        int[] nextRowInColumn = new int[jobCount];
+        boolean[] rowAssigned = new boolean[jobCount];
+        Arrays.fill(firstRowByColumn, -1);
+        
+        for (int row = 0; row < jobCount; row++) {
+            queueRow(etc, row, rowMinimums, firstRowByColumn, nextRowInColumn);
+        }
         
-        while (!availableJobs.isEmpty() && !availableProcessors.isEmpty()) {
-            Job maxJob = null;
-            Processor minProcessor = null;
-            int maxMinCompletionTime = Integer.MIN_VALUE;
+        int freeProcessors = availableProcessors.size();
+        while (!rowMinimums.isEmpty() && freeProcessors > 0) {
+            long entry = rowMinimums.poll();
+            int row = (int) entry;
             
-            // For each job, find its minimum completion time across all processors
-            for (Job job : availableJobs) {
-                int minCompletionTime = Integer.MAX_VALUE;
-                Processor bestProcessor = null;
-                
-                for (Processor processor : availableProcessors) {
-                    int completionTime = completionTimes.get(job).get(processor);
-                    if (completionTime < minCompletionTime) {
-                        minCompletionTime = completionTime;
-                        bestProcessor = processor;
-                    }
-                }
-                
-                // Keep track of the job with the maximum of these minimums
-                if (minCompletionTime > maxMinCompletionTime) {
-                    maxMinCompletionTime = minCompletionTime;
-                    maxJob = job;
-                    minProcessor = bestProcessor;
-                }
+            if (rowAssigned[row] || etc.getRowMinimum(row) != decodeTime(entry)) {
+                continue; // Superseded by a newer entry for this row
             }
             
-            if (maxJob != null && minProcessor != null) {
-                // Assign job to processor
-                minProcessor.assignJob(maxJob, currentTime);
-                availableJobs.remove(maxJob);
-                availableProcessors.remove(minProcessor);
-            } else {
-                break;
+            // Assign job to processor
+            int column = etc.getBestColumn(row);
+            Job job = availableJobs.get(row);
+            availableProcessors.get(column).assignJob(job, currentTime);
+            etc.takeColumn(column);
+            rowAssigned[row] = true;
+            freeProcessors--;
+            assigned.add(job);
+            
+            // Rows that preferred this processor move on to their next best one
+            int waitingRow = firstRowByColumn[column];
+            firstRowByColumn[column] = -1;
+            while (waitingRow != -1) {
+                int next = nextRowInColumn[waitingRow];
+                if (!rowAssigned[waitingRow]) {
+                    queueRow(etc, waitingRow, rowMinimums, firstRowByColumn, nextRowInColumn);
+                }
+                waitingRow = next;
             }
         }
+        
+        return assigned;
+    }
+    
+    /**
+     * Queue a row's current minimum and link it to the processor that provides it
+     */
+    private static void queueRow(EtcMatrix etc, int row, LongMinHeap rowMinimums,
+                                 int[] firstRowByColumn, int[] nextRowInColumn) {
+        int column = etc.getBestColumn(row);
+        if (column == -1) {
+            return;
+        }
+        rowMinimums.add(((long) (Integer.MAX_VALUE - etc.getTime(row, column)) << 32) | row);
+        nextRowInColumn[row] = firstRowByColumn[column];
+        firstRowByColumn[column] = row;
+    }
+    
+    private static int decodeTime(long entry) {
+        return Integer.MAX_VALUE - (int) (entry >>> 32);
     }
 }
\ No newline at end of file
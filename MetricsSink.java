@@ -0,0 +1,37 @@
+/**
+ * Receives the events of a simulation that metrics are computed from.
+ *
+ * The simulation reports every arrival, every job placed on a processor and
+ * every completion as it happens, and when it stops, every job that arrived
+ * but did not complete. A sink therefore never needs to look at the job list
+ * after the run, and a job can be dropped as soon as its completion has been
+ * reported.
+ */
+public interface MetricsSink {
+    /**
+     * A job has entered the system
+     */
+    default void onArrival(Job job, long currentTime) {
+    }
+
+    /**
+     * A job has been placed on a processor
+     *
+     * @param processingTime Time the processor will be busy with the job
+     */
+    default void onAssignment(Job job, Processor processor, long currentTime, long processingTime) {
+    }
+
+    /**
+     * A job has finished; its start and completion times are set
+     */
+    void onCompletion(Job job, long currentTime);
+
+    /**
+     * The simulation stopped before a job that had arrived could complete
+     *
+     * @param waitingTime Time the job waited before starting, or until the simulation stopped
+     */
+    default void onUnfinished(Job job, long waitingTime) {
+    }
+}
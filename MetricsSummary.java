@@ -0,0 +1,75 @@
+/**
+ * Running statistics of every SchedulingMetrics field over many replicas.
+ * 
+ * A summary either accumulates the metrics of one scheduler, or the paired
+ * differences between two schedulers run on the same replicas. Pairing removes
+ * the variation the replicas share, so differences usually need far fewer
+ * replicas to become significant than comparing two separate means.
+ */
+public class MetricsSummary {
+    private final RunningStatistics makespan = new RunningStatistics();
+    private final RunningStatistics averageWaitingTime = new RunningStatistics();
+    private final RunningStatistics averageTurnaroundTime = new RunningStatistics();
+    private final RunningStatistics throughput = new RunningStatistics();
+    private final RunningStatistics resourceUtilization = new RunningStatistics();
+    
+    /**
+     * Add the metrics of one replica
+     */
+    public void add(SchedulingMetrics metrics) {
+        makespan.add(metrics.getMakespan());
+        averageWaitingTime.add(metrics.getAverageWaitingTime());
+        averageTurnaroundTime.add(metrics.getAverageTurnaroundTime());
+        throughput.add(metrics.getThroughput());
+        resourceUtilization.add(metrics.getResourceUtilization());
+    }
+    
+    /**
+     * Add the difference between two schedulers' metrics on the same replica
+     * 
+     * @param first Metrics the second ones are subtracted from
+     * @param second Metrics of the other scheduler
+     */
+    public void addDifference(SchedulingMetrics first, SchedulingMetrics second) {
+        makespan.add(first.getMakespan() - second.getMakespan());
+        averageWaitingTime.add(first.getAverageWaitingTime() - second.getAverageWaitingTime());
+        averageTurnaroundTime.add(first.getAverageTurnaroundTime() - second.getAverageTurnaroundTime());
+        throughput.add(first.getThroughput() - second.getThroughput());
+        resourceUtilization.add(first.getResourceUtilization() - second.getResourceUtilization());
+    }
+    
+    /**
+     * Add every replica of another summary
+     */
+    public void merge(MetricsSummary other) {
+        makespan.merge(other.makespan);
+        averageWaitingTime.merge(other.averageWaitingTime);
+        averageTurnaroundTime.merge(other.averageTurnaroundTime);
+        throughput.merge(other.throughput);
+        resourceUtilization.merge(other.resourceUtilization);
+    }
+    
+    public long getReplicaCount() {
+        return makespan.getCount();
+    }
+    
+    public RunningStatistics getMakespan() {
+        return makespan;
+    }
+    
+    public RunningStatistics getAverageWaitingTime() {
+        return averageWaitingTime;
+    }
+    
+    public RunningStatistics getAverageTurnaroundTime() {
+        return averageTurnaroundTime;
+    }
+    
+    public RunningStatistics getThroughput() {
+        return throughput;
+    }
+    
+    public RunningStatistics getResourceUtilization() {
+        return resourceUtilization;
+    }
+}
@@ -4,14 +4,17 @@ import java.util.stream.Collectors;
 /**
  * Min-Min Scheduler
  */
-public class MinMinScheduler implements Scheduler {
+public class MinMinScheduler implements EventDrivenScheduler {
+    // Ready jobs in the order they became ready
+    private Set<Job> readyJobs = new LinkedHashSet<>();
+    
     @Override
     public String getName() {
         return "Min-Min Algorithm";
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get available processors
         List<Processor> availableProcessors = processors.stream()
                                                       .filter(p -> !p.isBusy(currentTime))
@@ -29,53 +32,84 @@ public class MinMinScheduler implements Scheduler {
                                                   job.getStartTime() == -1)
                                     .collect(Collectors.toList());
         
-        if (availableJobs.isEmpty()) {
+        assignJobs(availableJobs, availableProcessors, currentTime);
+    }
+    
+    @Override
+    public void reset() {
+        readyJobs.clear();
+    }
+    
+    @Override
+    public void onReady(Job job, long currentTime) {
+        readyJobs.add(job);
+    }
+    
+    @Override
+    public void dispatch(List<Processor> idleProcessors, long currentTime) {
+        if (readyJobs.isEmpty()) {
             return;
         }
         
-        // Create completion time matrix for all jobs on all processors
-        Map<Job, Map<Processor, Integer>> completionTimes = new HashMap<>();
+        List<Job> assigned = assignJobs(new ArrayList<>(readyJobs), new ArrayList<>(idleProcessors), currentTime);
+        readyJobs.removeAll(assigned);
+    }
+    
+    /**
+     * Run the Min-Min batch over the given jobs and processors
+     * 
+     * @return Jobs that were assigned
+     */
+    private List<Job> assignJobs(List<Job> availableJobs, List<Processor> availableProcessors, long currentTime) {
+        List<Job> assigned = new ArrayList<>();
         
-        for (Job job : availableJobs) {
-            Map<Processor, Integer> processorTimes = new HashMap<>();
-            for (Processor processor : availableProcessors) {
-                int procTime = processor.estimateProcessingTime(job);
-                processorTimes.put(processor, currentTime + procTime);
-            }
-            completionTimes.put(job, processorTimes);
+        if (availableJobs.isEmpty()) {
+            return assigned;
         }
         
+        // Expected processing times; the common offset currentTime does not change the ordering
+        EtcMatrix etc = new EtcMatrix(availableJobs, availableProcessors);
+        
         // Min-Min Algorithm:
         // 1. Find job with minimum completion time
         // 2. Assign it to the corresponding processor
         // 3. Remove the job from availableJobs
         // 4. Repeat until all jobs are assigned or no processors available
+        //
+        // Each job's minimum over the free processors sits in a heap keyed by (time, row), so ties
+        // resolve to the first job and then the first processor, as a row-by-row scan would.
+        // A processor being taken can only raise a row's minimum, so stale entries are
+        // refreshed when they reach the top instead of eagerly.
+        LongMinHeap rowMinimums = new LongMinHeap(availableJobs.size());
+        for (int row = 0; row < availableJobs.size(); row++) {
+            rowMinimums.add(encode(etc.getRowMinimum(row), row));
+        }
         
-        while (!availableJobs.isEmpty() && !availableProcessors.isEmpty()) {
-            Job minJob = null;
-            Processor minProcessor = null;
-            int minCompletionTime = Integer.MAX_VALUE;
+        int freeProcessors = availableProcessors.size();
+        while (!rowMinimums.isEmpty() && freeProcessors > 0) {
+            long entry = rowMinimums.poll();
+            int row = (int) entry;
+            int column = etc.getBestColumn(row);
+            int time = etc.getTime(row, column);
             
-            // Find job with minimum completion time
-            for (Job job : availableJobs) {
-                for (Processor processor : availableProcessors) {
-                    int completionTime = completionTimes.get(job).get(processor);
-                    if (completionTime < minCompletionTime) {
-                        minCompletionTime = completionTime;
-                        minJob = job;
-                        minProcessor = processor;
-                    }
-                }
+            if (time != (int) (entry >>> 32)) {
+                // Best processor was taken since this entry was queued
+                rowMinimums.add(encode(time, row));
+                continue;
             }
             
-            if (minJob != null && minProcessor != null) {
-                // Assign job to processor
-                minProcessor.assignJob(minJob, currentTime);
-                availableJobs.remove(minJob);
-                availableProcessors.remove(minProcessor);
-            } else {
-                break;
-            }
+            // Assign job to processor
+            Job job = availableJobs.get(row);
+            availableProcessors.get(column).assignJob(job, currentTime);
+            etc.takeColumn(column);
+            freeProcessors--;
+            assigned.add(job);
         }
+        
+        return assigned;
+    }
+    
+    private static long encode(int time, int row) {
+        return ((long) time << 32) | row;
     }
 }
\ No newline at end of file
@@ -37,6 +37,9 @@ public class NeuralNetworkPredictor {
     private double lastTrainingError;
     private double validationError;
     
+    // Frozen predictors no longer learn and can be shared by concurrent simulations
+    private boolean frozen;
+    
     /**
      * Create a new Neural Network Runtime Predictor
      */
@@ -51,6 +54,30 @@ public class NeuralNetworkPredictor {
         initializeNetwork();
     }
     
+    /**
+     * Stop learning, so the predictor can be shared read-only.
+     * 
+     * After this, completed jobs are no longer recorded and the model is no
+     * longer retrained; predictions and reports only read the trained network,
+     * so any number of threads may use a frozen predictor at once.
+     * 
+     * @return This predictor
+     */
+    public NeuralNetworkPredictor freeze() {
+        this.frozen = true;
+        return this;
+    }
+    
+    public boolean isFrozen() {
+        return frozen;
+    }
+    
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Predictor is frozen");
+        }
+    }
+    
     /**
      * Initialize the neural network with random weights
      */
@@ -163,11 +190,14 @@ public class NeuralNetworkPredictor {
      * @param job The completed job
      */
     public void recordJobCompletion(ResourceAwareJob job) {
+        if (frozen) {
+            return; // Shared predictors do not learn from individual runs
+        }
         if (job.getCompletionTime() == -1 || job.getStartTime() == -1) {
             return; // Job not completed yet
         }
         
-        int actualExecutionTime = job.getCompletionTime() - job.getStartTime();
+        int actualExecutionTime = (int) (job.getCompletionTime() - job.getStartTime());
         
         // Create historical record
         JobHistoryRecord record = new JobHistoryRecord(
@@ -196,6 +226,7 @@ public class NeuralNetworkPredictor {
      * @param filePath Path to the CSV file
      */
     public void loadHistoricalData(String filePath) {
+        checkNotFrozen();
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             String line;
             boolean header = true;
@@ -669,6 +700,7 @@ public class NeuralNetworkPredictor {
      * @param epochs Maximum number of training epochs
      */
     public void setHyperparameters(double learningRate, int epochs) {
+        checkNotFrozen();
         this.learningRate = learningRate;
         this.epochs = epochs;
     }
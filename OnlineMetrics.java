@@ -0,0 +1,107 @@
+import java.util.*;
+
+/**
+ * SchedulingMetrics computed from running totals as a simulation reports its events.
+ * 
+ * Makespan, averages, throughput and utilization are updated on every arrival,
+ * assignment and completion, and latency percentiles are kept in a
+ * LatencyCollector, so the metrics are ready the moment the run ends and no
+ * job has to be kept for a final pass. Waiting times are averaged over the
+ * jobs that arrived before the simulation stopped.
+ * 
+ * Utilization only counts busy time up to the makespan. A job counts its
+ * processing time once it completes; the jobs still on a processor, such as
+ * those a horizon cut off, are kept until then and count only the part of
+ * their processing before the makespan.
+ */
+public class OnlineMetrics implements MetricsSink {
+    private final int processorCount;
+    private final LatencyCollector latencies = new LatencyCollector();
+    private long arrivedCount;
+    private long finishedCount;
+    private long totalWaitingTime;
+    private long totalTurnaroundTime;
+    private long totalBusyTime; // Of completed jobs
+    private long makespan;
+    private final Map<Integer, long[]> runningIntervals = new HashMap<>(); // Start and end of assigned jobs, by id
+    
+    /**
+     * Create empty metrics for a run
+     * 
+     * @param processorCount Number of processors the run uses, for utilization
+     */
+    public OnlineMetrics(int processorCount) {
+        this.processorCount = processorCount;
+    }
+    
+    @Override
+    public void onArrival(Job job, long currentTime) {
+        arrivedCount++;
+    }
+    
+    @Override
+    public void onAssignment(Job job, Processor processor, long currentTime, long processingTime) {
+        // A job assigned again after losing its processor keeps the time it was given before
+        long[] previous = runningIntervals.put(job.getId(), new long[] {currentTime, currentTime + processingTime});
+        if (previous != null) {
+            totalBusyTime += previous[1] - previous[0];
+        }
+    }
+    
+    @Override
+    public void onCompletion(Job job, long currentTime) {
+        finishedCount++;
+        long[] interval = runningIntervals.remove(job.getId());
+        if (interval != null) {
+            totalBusyTime += interval[1] - interval[0];
+        }
+        totalWaitingTime += waitingTime(job);
+        totalTurnaroundTime += job.getTurnaroundTime();
+        makespan = Math.max(makespan, job.getCompletionTime());
+        latencies.recordCompletion(job);
+    }
+    
+    @Override
+    public void onUnfinished(Job job, long waitingTime) {
+        totalWaitingTime += Math.max(0, waitingTime);
+        latencies.recordUnfinished(job, waitingTime);
+    }
+    
+    /**
+     * Get the waiting time of a completed job: until it started, or its turnaround
+     * beyond its execution time if its start was never recorded
+     */
+    static long waitingTime(Job job) {
+        long waitingTime = job.getStartTime() != -1 ? job.getStartTime() - job.getArrivalTime()
+                                                     : job.getTurnaroundTime() - job.getExecutionTime();
+        return Math.max(0, waitingTime);
+    }
+    
+    public LatencyCollector getLatencies() {
+        return latencies;
+    }
+    
+    public long getArrivedCount() {
+        return arrivedCount;
+    }
+    
+    public long getFinishedCount() {
+        return finishedCount;
+    }
+    
+    /**
+     * Get the metrics of everything reported so far
+     */
+    public SchedulingMetrics toMetrics() {
+        double averageWaitingTime = arrivedCount > 0 ? (double) totalWaitingTime / arrivedCount : 0;
+        double averageTurnaroundTime = finishedCount > 0 ? (double) totalTurnaroundTime / finishedCount : 0;
+        double throughput = makespan > 0 ? (double) finishedCount / makespan : 0;
+        long busyTime = totalBusyTime;
+        for (long[] interval : runningIntervals.values()) {
+            busyTime += Math.max(0, Math.min(interval[1], makespan) - interval[0]);
+        }
+        double resourceUtilization = makespan > 0 ? (double) busyTime / (processorCount * makespan) : 0;
+        return new SchedulingMetrics(makespan, averageWaitingTime, averageTurnaroundTime, throughput, resourceUtilization,
+                                     latencies);
+    }
+}
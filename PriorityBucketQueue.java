@@ -0,0 +1,71 @@
+import java.util.ArrayDeque;
+
+/**
+ * Bucket queue of jobs by priority (1-10), highest priority first and FIFO
+ * within a priority level. Add and poll are O(1) since the number of
+ * priority levels is fixed.
+ */
+public class PriorityBucketQueue {
+    public static final int MIN_PRIORITY = 1;
+    public static final int MAX_PRIORITY = 10;
+    
+    private ArrayDeque<Job>[] buckets;
+    private int highestNonEmpty; // Upper bound on the highest non-empty bucket index
+    private int size;
+    
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PriorityBucketQueue() {
+        this.buckets = new ArrayDeque[MAX_PRIORITY - MIN_PRIORITY + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.highestNonEmpty = -1;
+        this.size = 0;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Queue a job behind any jobs of the same priority
+     */
+    public void add(Job job) {
+        int bucket = bucketIndex(job.getPriority());
+        buckets[bucket].addLast(job);
+        highestNonEmpty = Math.max(highestNonEmpty, bucket);
+        size++;
+    }
+    
+    /**
+     * Remove and return the oldest job of the highest priority
+     */
+    public Job poll() {
+        while (highestNonEmpty >= 0) {
+            Job job = buckets[highestNonEmpty].pollFirst();
+            if (job != null) {
+                size--;
+                return job;
+            }
+            highestNonEmpty--;
+        }
+        return null;
+    }
+    
+    public void clear() {
+        for (ArrayDeque<Job> bucket : buckets) {
+            bucket.clear();
+        }
+        highestNonEmpty = -1;
+        size = 0;
+    }
+    
+    private int bucketIndex(int priority) {
+        // Out-of-range priorities are clamped to the nearest level
+        return Math.min(MAX_PRIORITY, Math.max(MIN_PRIORITY, priority)) - MIN_PRIORITY;
+    }
+}
@@ -4,14 +4,17 @@ import java.util.stream.Collectors;
 /**
  * Priority Scheduler
  */
-public class PriorityScheduler implements Scheduler {
+public class PriorityScheduler implements EventDrivenScheduler {
+    // Ready jobs by priority (highest first), first come first served within a priority
+    private PriorityBucketQueue readyQueue = new PriorityBucketQueue();
+    
     @Override
     public String getName() {
         return "Priority Scheduling";
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Get available processors
         List<Processor> availableProcessors = processors.stream()
                                                       .filter(p -> !p.isBusy(currentTime))
@@ -30,14 +33,35 @@ public class PriorityScheduler implements Scheduler {
                                     .sorted(Comparator.comparingInt(Job::getPriority).reversed())
                                     .collect(Collectors.toList());
         
-        // Assign jobs to available processors
+        // Assign jobs to available processors, walking the sorted list instead of shifting it
+        int nextJob = 0;
         for (Processor processor : availableProcessors) {
-            if (availableJobs.isEmpty()) {
+            if (nextJob == availableJobs.size()) {
                 break;
             }
             
-            Job job = availableJobs.remove(0);
+            Job job = availableJobs.get(nextJob++);
             processor.assignJob(job, currentTime);
         }
     }
+    
+    @Override
+    public void reset() {
+        readyQueue.clear();
+    }
+    
+    @Override
+    public void onReady(Job job, long currentTime) {
+        readyQueue.add(job);
+    }
+    
+    @Override
+    public void dispatch(List<Processor> idleProcessors, long currentTime) {
+        for (Processor processor : idleProcessors) {
+            if (readyQueue.isEmpty()) {
+                break;
+            }
+            processor.assignJob(readyQueue.poll(), currentTime);
+        }
+    }
 }
\ No newline at end of file
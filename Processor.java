@@ -5,8 +5,8 @@ public class Processor {
     private int id;
     private double speedFactor;
     private Job currentJob;
-    private int busyUntil;
-    private int totalBusyTime;
+    private long busyUntil;
+    private long totalBusyTime;
     
     public Processor(int id, double speedFactor) {
         this.id = id;
@@ -33,11 +33,11 @@ public class Processor {
         return speedFactor;
     }
     
-    public boolean isBusy(int currentTime) {
+    public boolean isBusy(long currentTime) {
         return currentTime < busyUntil;
     }
     
-    public int getBusyUntil() {
+    public long getBusyUntil() {
         return busyUntil;
     }
     
@@ -45,7 +45,7 @@ public class Processor {
         return currentJob;
     }
     
-    public void assignJob(Job job, int currentTime) {
+    public void assignJob(Job job, long currentTime) {
         this.currentJob = job;
         int processingTime = calculateProcessingTime(job);
         this.busyUntil = currentTime + processingTime;
@@ -57,7 +57,7 @@ public class Processor {
         }
     }
     
-    public void completeJob(int currentTime) {
+    public void completeJob(long currentTime) {
         if (currentJob != null) {
             currentJob.setCompletionTime(currentTime);
             currentJob = null;
@@ -72,7 +72,7 @@ public class Processor {
         return (int) Math.ceil(job.getEstimatedExecutionTime() / speedFactor);
     }
     
-    public int getTotalBusyTime() {
+    public long getTotalBusyTime() {
         return totalBusyTime;
     }
     
@@ -0,0 +1,101 @@
+import java.util.*;
+
+/**
+ * Summaries of a replicated comparison: the metrics of every scheduler and the
+ * paired differences between every two of them, over all replicas.
+ * 
+ * Only running statistics are kept, so the size of the results depends on the
+ * number of schedulers, not on the number of replicas or jobs.
+ */
+public class ReplicationResults {
+    private final List<String> schedulerNames;
+    private final MetricsSummary[] summaries;
+    private final MetricsSummary[][] differences; // [first][second] holds first minus second
+    
+    ReplicationResults(List<String> schedulerNames) {
+        int count = schedulerNames.size();
+        this.schedulerNames = Collections.unmodifiableList(new ArrayList<>(schedulerNames));
+        this.summaries = new MetricsSummary[count];
+        this.differences = new MetricsSummary[count][count];
+        for (int i = 0; i < count; i++) {
+            summaries[i] = new MetricsSummary();
+            for (int j = 0; j < count; j++) {
+                if (i != j) {
+                    differences[i][j] = new MetricsSummary();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Add the metrics of every scheduler on one replica
+     * 
+     * @param metrics Metrics per scheduler, in scheduler order
+     */
+    void addReplica(SchedulingMetrics[] metrics) {
+        for (int i = 0; i < metrics.length; i++) {
+            summaries[i].add(metrics[i]);
+            for (int j = 0; j < metrics.length; j++) {
+                if (i != j) {
+                    differences[i][j].addDifference(metrics[i], metrics[j]);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Add the replicas of results for the same schedulers
+     */
+    void merge(ReplicationResults other) {
+        if (!schedulerNames.equals(other.schedulerNames)) {
+            throw new IllegalArgumentException("Results are for different schedulers: " + other.schedulerNames);
+        }
+        for (int i = 0; i < summaries.length; i++) {
+            summaries[i].merge(other.summaries[i]);
+            for (int j = 0; j < summaries.length; j++) {
+                if (i != j) {
+                    differences[i][j].merge(other.differences[i][j]);
+                }
+            }
+        }
+    }
+    
+    public List<String> getSchedulerNames() {
+        return schedulerNames;
+    }
+    
+    public long getReplicaCount() {
+        return summaries.length > 0 ? summaries[0].getReplicaCount() : 0;
+    }
+    
+    /**
+     * Get the statistics of one scheduler's metrics over all replicas
+     */
+    public MetricsSummary getSummary(String scheduler) {
+        return summaries[indexOf(scheduler)];
+    }
+    
+    /**
+     * Get the statistics of the paired differences between two schedulers
+     * 
+     * @param first Scheduler whose metrics the second one's are subtracted from
+     * @param second Other scheduler
+     * @return Summary of first minus second, per replica
+     */
+    public MetricsSummary getDifference(String first, String second) {
+        int i = indexOf(first);
+        int j = indexOf(second);
+        if (i == j) {
+            throw new IllegalArgumentException("Cannot compare a scheduler with itself: " + first);
+        }
+        return differences[i][j];
+    }
+    
+    private int indexOf(String scheduler) {
+        int index = schedulerNames.indexOf(scheduler);
+        if (index == -1) {
+            throw new IllegalArgumentException("Unknown scheduler: " + scheduler);
+        }
+        return index;
+    }
+}
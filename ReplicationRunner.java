@@ -0,0 +1,139 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+/**
+ * Monte Carlo replication of a scheduler comparison.
+ * 
+ * Each replica generates the workload for its own seed and runs every
+ * scheduler on it, so all schedulers see the same jobs and their differences
+ * can be paired. Replicas are split across a ForkJoin pool; each task folds its
+ * replicas into running statistics as soon as they finish and only the
+ * statistics are merged, so memory does not grow with the number of replicas.
+ */
+public class ReplicationRunner {
+    private final LongFunction<List<JobSpec>> workload;
+    private final List<? extends Processor> processors;
+    private final List<Supplier<? extends Scheduler>> schedulers = new ArrayList<>();
+    private long maxSimulationTime = SimulationEnvironment.RUN_UNTIL_DRAINED;
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+    
+    /**
+     * Create a runner for one workload
+     * 
+     * @param workload Creates the specs of a replica from its seed; called on pool threads
+     * @param processors Processors every replica simulates; each run works on its own copies
+     */
+    public ReplicationRunner(LongFunction<List<JobSpec>> workload, List<? extends Processor> processors) {
+        if (processors.isEmpty()) {
+            throw new IllegalArgumentException("No processors to simulate");
+        }
+        this.workload = workload;
+        this.processors = new ArrayList<>(processors);
+    }
+    
+    /**
+     * Add a scheduler to compare
+     * 
+     * @param factory Creates a fresh scheduler for every replica; called on pool threads
+     */
+    public void addScheduler(Supplier<? extends Scheduler> factory) {
+        schedulers.add(factory);
+    }
+    
+    public void setMaxSimulationTime(long maxSimulationTime) {
+        if (maxSimulationTime <= 0) {
+            throw new IllegalArgumentException("Simulation horizon must be positive: " + maxSimulationTime);
+        }
+        this.maxSimulationTime = maxSimulationTime;
+    }
+    
+    /**
+     * Set the pool replicas run on, instead of the common ForkJoin pool
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+    
+    /**
+     * Run replicas with consecutive seeds
+     * 
+     * @param firstSeed Seed of the first replica
+     * @param replicas Number of replicas
+     * @return Statistics over all replicas
+     */
+    public ReplicationResults run(long firstSeed, int replicas) {
+        if (replicas <= 0) {
+            throw new IllegalArgumentException("Replica count must be positive: " + replicas);
+        }
+        if (schedulers.isEmpty()) {
+            throw new IllegalStateException("No schedulers to compare");
+        }
+        return pool.invoke(new ReplicaTask(schedulerNames(), firstSeed, replicas));
+    }
+    
+    /**
+     * Run one replica: every scheduler on the workload of one seed
+     */
+    private void runReplica(long seed, ReplicationResults results) {
+        JobState jobState = new JobState(workload.apply(seed));
+        SimulationEnvironment environment = new SimulationEnvironment(maxSimulationTime);
+        
+        SchedulingMetrics[] metrics = new SchedulingMetrics[schedulers.size()];
+        for (int i = 0; i < metrics.length; i++) {
+            Scheduler scheduler = schedulers.get(i).get();
+            if (!scheduler.getName().equals(results.getSchedulerNames().get(i))) {
+                throw new IllegalStateException("Scheduler factory " + i + " changed name to " + scheduler.getName());
+            }
+            metrics[i] = environment.runSimulation(scheduler, jobState, new ArrayList<>(processors));
+        }
+        results.addReplica(metrics);
+    }
+    
+    private List<String> schedulerNames() {
+        List<String> names = new ArrayList<>();
+        for (Supplier<? extends Scheduler> factory : schedulers) {
+            String name = factory.get().getName();
+            if (names.contains(name)) {
+                throw new IllegalStateException("Duplicate scheduler: " + name);
+            }
+            names.add(name);
+        }
+        return names;
+    }
+    
+    /**
+     * Run a range of replicas, splitting it in half until single replicas remain
+     */
+    private class ReplicaTask extends RecursiveTask<ReplicationResults> {
+        private static final long serialVersionUID = 1L;
+        
+        private final List<String> schedulerNames;
+        private final long firstSeed;
+        private final int replicas;
+        
+        ReplicaTask(List<String> schedulerNames, long firstSeed, int replicas) {
+            this.schedulerNames = schedulerNames;
+            this.firstSeed = firstSeed;
+            this.replicas = replicas;
+        }
+        
+        @Override
+        protected ReplicationResults compute() {
+            if (replicas == 1) {
+                ReplicationResults results = new ReplicationResults(schedulerNames);
+                runReplica(firstSeed, results);
+                return results;
+            }
+            
+            int half = replicas / 2;
+            ReplicaTask second = new ReplicaTask(schedulerNames, firstSeed + half, replicas - half);
+            second.fork();
+            ReplicationResults results = new ReplicaTask(schedulerNames, firstSeed, half).compute();
+            results.merge(second.join());
+            return results;
+        }
+    }
+}
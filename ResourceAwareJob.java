@@ -17,7 +17,7 @@ public class ResourceAwareJob extends DependencyAwareJob {
     /**
      * Create a new ResourceAwareJob
      */
-    public ResourceAwareJob(int id, int arrivalTime, int executionTime, int priority) {
+    public ResourceAwareJob(int id, long arrivalTime, int executionTime, int priority) {
         super(id, arrivalTime, executionTime, priority);
         
         // Default resource requirements
@@ -43,6 +43,17 @@ public class ResourceAwareJob extends DependencyAwareJob {
         this.cpuConstrained = other.cpuConstrained;
     }
     
+    /**
+     * Clear the run state, including constraints found by the last processor
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.memoryConstrained = false;
+        this.networkConstrained = false;
+        this.cpuConstrained = false;
+    }
+    
     /**
      * Set resource requirements
      */
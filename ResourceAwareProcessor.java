@@ -107,7 +107,7 @@ public class ResourceAwareProcessor extends Processor {
      * Assign a job to this processor with resource allocation
      */
     @Override
-    public void assignJob(Job job, int currentTime) {
+    public void assignJob(Job job, long currentTime) {
         if (job instanceof ResourceAwareJob) {
             ResourceAwareJob resourceJob = (ResourceAwareJob) job;
             
@@ -150,7 +150,7 @@ public class ResourceAwareProcessor extends Processor {
      * Complete a job and release its resources
      */
     @Override
-    public void completeJob(int currentTime) {
+    public void completeJob(long currentTime) {
         Job completedJob = getCurrentJob();
         
         if (completedJob != null && completedJob instanceof ResourceAwareJob) {
@@ -179,7 +179,7 @@ public class ResourceAwareProcessor extends Processor {
     /**
      * Record current resource usage for analytics
      */
-    private void recordResourceUsage(int currentTime) {
+    private void recordResourceUsage(long currentTime) {
         ResourceUsageSnapshot snapshot = new ResourceUsageSnapshot(
             currentTime,
             totalMemoryCapacity - availableMemory,
@@ -22,7 +22,7 @@ public class ResourceAwareScheduler implements Scheduler {
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Filter jobs that are ready to run
         List<Job> availableJobs = jobs.stream()
                                     .filter(job -> job.getArrivalTime() <= currentTime && 
@@ -57,19 +57,18 @@ public class ResourceAwareScheduler implements Scheduler {
      * Schedule resource-aware jobs on resource-aware processors
      */
     private void resourceAwareScheduling(List<ResourceAwareJob> jobs, List<ResourceAwareProcessor> processors, 
-                                       int currentTime, List<Job> completedJobs) {
+                                       long currentTime, List<Job> completedJobs) {
         if (jobs.isEmpty() || processors.isEmpty()) {
             return;
         }
         
-        // Priority queue for jobs based on resource efficiency
+        // Order jobs by resource efficiency, scoring each job once instead of per comparison (higher is better)
+        Map<ResourceAwareJob, Double> efficiencyScores = new HashMap<>();
+        for (ResourceAwareJob job : jobs) {
+            efficiencyScores.put(job, calculateResourceEfficiencyScore(job));
+        }
         List<ResourceAwareJob> sortedJobs = new ArrayList<>(jobs);
-        sortedJobs.sort((a, b) -> {
-            // Calculate resource efficiency score (higher is better)
-            double scoreA = calculateResourceEfficiencyScore(a);
-            double scoreB = calculateResourceEfficiencyScore(b);
-            return Double.compare(scoreB, scoreA);
-        });
+        sortedJobs.sort((a, b) -> Double.compare(efficiencyScores.get(b), efficiencyScores.get(a)));
         
         // Priority queue for processors based on available resources
         List<ResourceAwareProcessor> sortedProcessors = new ArrayList<>(processors);
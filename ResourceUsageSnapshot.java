@@ -2,19 +2,19 @@
  * Class to store resource usage at a point in time
  */
 public class ResourceUsageSnapshot {
-    private int timestamp;
+    private long timestamp;
     private int memoryUsage;
     private int networkUsage;
     private int cpuUsage;
     
-    public ResourceUsageSnapshot(int timestamp, int memoryUsage, int networkUsage, int cpuUsage) {
+    public ResourceUsageSnapshot(long timestamp, int memoryUsage, int networkUsage, int cpuUsage) {
         this.timestamp = timestamp;
         this.memoryUsage = memoryUsage;
         this.networkUsage = networkUsage;
         this.cpuUsage = cpuUsage;
     }
     
-    public int getTimestamp() {
+    public long getTimestamp() {
         return timestamp;
     }
     
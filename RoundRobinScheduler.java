@@ -19,7 +19,7 @@ public class RoundRobinScheduler implements Scheduler {
     }
     
     @Override
-    public void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs) {
+    public void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs) {
         // Add newly arrived jobs to ready queue
         jobs.stream()
             .filter(job -> job.getArrivalTime() == currentTime && 
@@ -68,9 +68,7 @@ public class RoundRobinScheduler implements Scheduler {
             processor.assignJob(tempJob, currentTime);
             
             // Update the original job's remaining time
-            for (int i = 0; i < processTime; i++) {
-                job.decrementRemainingTime();
-            }
+            job.decrementRemainingTime(processTime);
             
             // If the job is now completed, add it to completed jobs
             if (job.isCompleted()) {
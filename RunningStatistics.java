@@ -0,0 +1,172 @@
+/**
+ * Online mean and variance of a stream of values (Welford's algorithm).
+ * 
+ * Memory stays constant however many values are added, and two accumulators
+ * filled independently, such as by parallel replicas, can be merged into one
+ * without losing precision.
+ */
+public class RunningStatistics {
+    private long count;
+    private double mean;
+    private double sumOfSquaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    /**
+     * Add one observation
+     */
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        sumOfSquaredDeviations += delta * (value - mean);
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+    
+    /**
+     * Add every observation of another accumulator, as if they had been added here
+     */
+    public void merge(RunningStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            sumOfSquaredDeviations = other.sumOfSquaredDeviations;
+            min = other.min;
+            max = other.max;
+            return;
+        }
+        
+        long combinedCount = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / combinedCount;
+        sumOfSquaredDeviations += other.sumOfSquaredDeviations + delta * delta * count * other.count / combinedCount;
+        count = combinedCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Get the mean, or NaN before the first observation
+     */
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+    
+    /**
+     * Get the sample variance, or NaN with fewer than two observations
+     */
+    public double getVariance() {
+        return count > 1 ? sumOfSquaredDeviations / (count - 1) : Double.NaN;
+    }
+    
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+    
+    public double getStandardError() {
+        return Math.sqrt(getVariance() / count);
+    }
+    
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+    
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+    
+    /**
+     * Get the half-width of a Student-t confidence interval for the mean
+     * 
+     * @param level Confidence level, such as 0.95
+     * @return Half-width, or NaN with fewer than two observations
+     */
+    public double getConfidenceHalfWidth(double level) {
+        if (level <= 0 || level >= 1) {
+            throw new IllegalArgumentException("Confidence level must be between 0 and 1: " + level);
+        }
+        if (count < 2) {
+            return Double.NaN;
+        }
+        return studentTQuantile(0.5 + level / 2, count - 1) * getStandardError();
+    }
+    
+    /**
+     * Check whether the confidence interval for the mean excludes zero, such as
+     * for a paired difference that is unlikely to be noise
+     */
+    public boolean isSignificant(double level) {
+        return Math.abs(getMean()) > getConfidenceHalfWidth(level);
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%.2f +/- %.2f (n=%d)", getMean(), getConfidenceHalfWidth(0.95), count);
+    }
+    
+    /**
+     * Quantile of Student's t distribution; exact for one and two degrees of
+     * freedom, otherwise a Cornish-Fisher expansion around the normal quantile
+     */
+    static double studentTQuantile(double p, long degreesOfFreedom) {
+        if (degreesOfFreedom == 1) {
+            return Math.tan(Math.PI * (p - 0.5));
+        }
+        if (degreesOfFreedom == 2) {
+            return (2 * p - 1) * Math.sqrt(2 / (4 * p * (1 - p)));
+        }
+        
+        double z = normalQuantile(p);
+        double n = degreesOfFreedom;
+        double z2 = z * z;
+        double z3 = z2 * z;
+        double z5 = z3 * z2;
+        double z7 = z5 * z2;
+        double z9 = z7 * z2;
+        return z
+            + (z3 + z) / (4 * n)
+            + (5 * z5 + 16 * z3 + 3 * z) / (96 * n * n)
+            + (3 * z7 + 19 * z5 + 17 * z3 - 15 * z) / (384 * n * n * n)
+            + (79 * z9 + 776 * z7 + 1482 * z5 - 1920 * z3 - 945 * z) / (92160 * n * n * n * n);
+    }
+    
+    /**
+     * Quantile of the standard normal distribution (Acklam's rational approximation)
+     */
+    static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be between 0 and 1: " + p);
+        }
+        
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                            6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                            3.754408661907416e+00};
+        
+        if (p < 0.02425) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5]) /
+                   ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - 0.02425) {
+            return -normalQuantile(1 - p);
+        }
+        
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q /
+               (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of job execution times.
+ *
+ * Samples are whole time units of at least 1; heavy tails are capped at
+ * Integer.MAX_VALUE rather than overflowing.
+ */
+public interface RuntimeDistribution {
+    /**
+     * Get a short description of the distribution
+     */
+    String getName();
+
+    /**
+     * Draw one execution time
+     */
+    int sample(SplittableRandom random);
+
+    /**
+     * Uniform execution times in [min, max], as the original generators use
+     */
+    class Uniform implements RuntimeDistribution {
+        private int min;
+        private int max;
+
+        public Uniform(int min, int max) {
+            if (min < 1 || max < min) {
+                throw new IllegalArgumentException("Invalid range [" + min + ", " + max + "]");
+            }
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        public String getName() {
+            return "Uniform[" + min + ", " + max + "]";
+        }
+
+        @Override
+        public int sample(SplittableRandom random) {
+            return min + random.nextInt(max - min + 1);
+        }
+    }
+
+    /**
+     * Pareto execution times: most jobs near the scale, a few very long ones.
+     * A shape at or below 2 gives infinite variance, at or below 1 an infinite mean.
+     */
+    class Pareto implements RuntimeDistribution {
+        private double scale;
+        private double shape;
+
+        /**
+         * Create a Pareto distribution
+         *
+         * @param scale Smallest execution time
+         * @param shape Tail index; smaller values mean heavier tails
+         */
+        public Pareto(double scale, double shape) {
+            if (!(scale > 0) || !(shape > 0)) {
+                throw new IllegalArgumentException("Scale and shape must be positive");
+            }
+            this.scale = scale;
+            this.shape = shape;
+        }
+
+        @Override
+        public String getName() {
+            return String.format("Pareto(%.3g, %.3g)", scale, shape);
+        }
+
+        @Override
+        public int sample(SplittableRandom random) {
+            return toExecutionTime(scale / Math.pow(1 - random.nextDouble(), 1 / shape));
+        }
+    }
+
+    /**
+     * Lognormal execution times, the usual fit for batch job runtimes
+     */
+    class LogNormal implements RuntimeDistribution {
+        private double median;
+        private double sigma;
+
+        /**
+         * Create a lognormal distribution
+         *
+         * @param median Median execution time
+         * @param sigma Standard deviation of the log of the execution time
+         */
+        public LogNormal(double median, double sigma) {
+            if (!(median > 0) || !(sigma >= 0)) {
+                throw new IllegalArgumentException("Median must be positive and sigma non-negative");
+            }
+            this.median = median;
+            this.sigma = sigma;
+        }
+
+        @Override
+        public String getName() {
+            return String.format("LogNormal(median %.3g, sigma %.3g)", median, sigma);
+        }
+
+        @Override
+        public int sample(SplittableRandom random) {
+            return toExecutionTime(median * Math.exp(sigma * gaussian(random)));
+        }
+    }
+
+    /**
+     * Mixture of short interactive jobs and long batch jobs
+     */
+    class Bimodal implements RuntimeDistribution {
+        private RuntimeDistribution shortJobs;
+        private RuntimeDistribution longJobs;
+        private double longFraction;
+
+        /**
+         * Create a bimodal distribution
+         *
+         * @param shortJobs Distribution of the short mode
+         * @param longJobs Distribution of the long mode
+         * @param longFraction Probability that a job comes from the long mode
+         */
+        public Bimodal(RuntimeDistribution shortJobs, RuntimeDistribution longJobs, double longFraction) {
+            if (!(longFraction >= 0 && longFraction <= 1)) {
+                throw new IllegalArgumentException("Long fraction must be in [0, 1]: " + longFraction);
+            }
+            this.shortJobs = shortJobs;
+            this.longJobs = longJobs;
+            this.longFraction = longFraction;
+        }
+
+        @Override
+        public String getName() {
+            return String.format("Bimodal(%s, %s, %.0f%% long)", shortJobs.getName(), longJobs.getName(),
+                                 longFraction * 100);
+        }
+
+        @Override
+        public int sample(SplittableRandom random) {
+            return random.nextDouble() < longFraction ? longJobs.sample(random) : shortJobs.sample(random);
+        }
+    }
+
+    /**
+     * Round a continuous sample up to a whole, positive execution time
+     */
+    static int toExecutionTime(double value) {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, Math.ceil(value)));
+    }
+
+    /**
+     * Draw a standard normal value (Marsaglia polar method)
+     */
+    static double gaussian(SplittableRandom random) {
+        double u;
+        double v;
+        double s;
+        do {
+            u = 2 * random.nextDouble() - 1;
+            v = 2 * random.nextDouble() - 1;
+            s = u * u + v * v;
+        } while (s >= 1 || s == 0);
+        return u * Math.sqrt(-2 * Math.log(s) / s);
+    }
+}
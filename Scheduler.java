@@ -5,5 +5,5 @@ import java.util.List;
  */
 public interface Scheduler {
     String getName();
-    void scheduleJobs(List<Job> jobs, List<Processor> processors, int currentTime, List<Job> completedJobs);
+    void scheduleJobs(List<Job> jobs, List<Processor> processors, long currentTime, List<Job> completedJobs);
 }
\ No newline at end of file
@@ -0,0 +1,300 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Benchmark of one scheduling decision: a single scheduleJobs() call with a
+ * whole ready set waiting and every processor idle.
+ * 
+ * Every scheduler is measured on plain, dependency-aware and resource-aware
+ * jobs, for ready sets of 10 to 100,000 jobs and 1 to 1,000 processors. Jobs
+ * are reset and processors copied before each call, outside the timed region,
+ * so every call makes the same decision. Each case is warmed up until
+ * WARMUP_JOBS jobs have been scheduled, so small ready sets get thousands of
+ * calls before measuring, within a time budget. For each case it reports
+ * median and 90th percentile latency and the bytes all live threads,
+ * including ForkJoin workers of parallel schedulers, allocated per decision,
+ * and writes all results to a JSON file.
+ * 
+ * Cases with more job-processor pairs than the limit are skipped, and so are
+ * larger ready sets for a scheduler, job kind and processor count once one
+ * decision takes longer than MAX_DECISION_NANOS. Skipped cases are written
+ * as skipped entries, so a comparison against a baseline that ran them fails.
+ * 
+ * Usage: java SchedulerBenchmark [iterations] [output file] [max job-processor pairs]
+ */
+public class SchedulerBenchmark {
+    private static final int[] READY_SET_SIZES = {10, 100, 1_000, 10_000, 100_000};
+    private static final int[] PROCESSOR_COUNTS = {1, 10, 100, 1_000};
+    private static final int WARMUP_ITERATIONS = 3; // At least this many warmup calls per case
+    private static final int WARMUP_JOBS = 100_000; // Small ready sets are repeated until this many jobs were scheduled
+    private static final long MAX_WARMUP_NANOS = 2_000_000_000L;
+    private static final long MAX_DECISION_NANOS = 2_000_000_000L;
+    private static final long DEFAULT_MAX_PAIRS = 10_000_000L;
+    
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path output = Paths.get(args.length > 1 ? args[1] : "scheduler_benchmark.json");
+        long maxPairs = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_MAX_PAIRS;
+        
+        List<Supplier<Scheduler>> schedulers = Arrays.asList(
+            FCFSScheduler::new,
+            SJFScheduler::new,
+            PriorityScheduler::new,
+            () -> new RoundRobinScheduler(4),
+            MinMinScheduler::new,
+            MaxMinScheduler::new,
+            HybridMinMinSJFScheduler::new,
+            () -> new DependencyAwareScheduler(new FCFSScheduler()),
+            () -> new ResourceAwareScheduler(new FCFSScheduler()),
+            () -> new IntegratedAdvancedScheduler(new FCFSScheduler())
+        );
+        
+        AllocationCounter allocations = new AllocationCounter();
+        BenchmarkReport report = new BenchmarkReport("SchedulerBenchmark");
+        
+        System.out.println("Scheduler Decision Benchmark");
+        System.out.println("============================");
+        System.out.printf("%-46s%-18s%-16s%-14s%-14s%-16s%n",
+                         "Scheduler", "Jobs", "Batch", "Median ms", "P90 ms", "KB/decision");
+        System.out.println("----------------------------------------------------------------------------------------------------------------------------");
+        
+        for (JobSpec.Kind kind : JobSpec.Kind.values()) {
+            for (int processorCount : PROCESSOR_COUNTS) {
+                List<Processor> processors = createProcessors(kind, processorCount, new Random(42));
+                
+                for (Supplier<Scheduler> supplier : schedulers) {
+                    Scheduler scheduler = supplier.get();
+                    boolean tooSlow = false;
+                    
+                    for (int jobCount : READY_SET_SIZES) {
+                        String batch = jobCount + "x" + processorCount;
+                        String skipReason = tooSlow ? "a smaller ready set took over " + MAX_DECISION_NANOS + " ns"
+                                          : (long) jobCount * processorCount > maxPairs ? "over " + maxPairs + " pairs"
+                                          : null;
+                        if (skipReason != null) {
+                            System.out.printf("%-46s%-18s%-16s%s%n", scheduler.getName(), kind, batch, "skipped");
+                            report.add(scheduler.getName() + "/" + kind + "/" + batch)
+                                  .put("scheduler", scheduler.getName())
+                                  .put("jobKind", kind.name())
+                                  .put("jobs", jobCount)
+                                  .put("processors", processorCount)
+                                  .skip(skipReason);
+                            continue;
+                        }
+                        
+                        JobState state = new JobState(createJobs(kind, jobCount, new Random(42)));
+                        Decision decision = measure(scheduler, state, processors, iterations, allocations);
+                        tooSlow = decision.latencies[0] > MAX_DECISION_NANOS;
+                        
+                        long median = decision.latencies[decision.latencies.length / 2];
+                        long p90 = decision.latencies[(int) Math.ceil(0.9 * decision.latencies.length) - 1];
+                        System.out.printf("%-46s%-18s%-16s%-14.3f%-14.3f%-16s%n",
+                                         scheduler.getName(), kind, batch, median / 1e6, p90 / 1e6,
+                                         decision.allocatedBytes >= 0
+                                             ? String.format("%.1f", decision.allocatedBytes / 1024.0) : "n/a");
+                        
+                        report.add(scheduler.getName() + "/" + kind + "/" + batch)
+                              .put("scheduler", scheduler.getName())
+                              .put("jobKind", kind.name())
+                              .put("jobs", jobCount)
+                              .put("processors", processorCount)
+                              .put("iterations", decision.latencies.length)
+                              .put("medianNanos", median)
+                              .put("p90Nanos", p90)
+                              .put("minNanos", decision.latencies[0])
+                              .put("maxNanos", decision.latencies[decision.latencies.length - 1])
+                              .put("allocatedBytesPerDecision", decision.allocatedBytes)
+                              .put("assignedJobs", decision.assignedJobs);
+                    }
+                }
+            }
+        }
+        
+        report.write(output);
+        System.out.println("\nResults written to " + output);
+    }
+    
+    /**
+     * Time one scheduleJobs() call on fresh jobs and processors, several times
+     * 
+     * @return Sorted latencies, mean bytes allocated per call (-1 if not measurable)
+     *         and how many jobs the last call started
+     */
+    private static Decision measure(Scheduler scheduler, JobState state, List<Processor> templates,
+                                    int iterations, AllocationCounter allocations) {
+        List<Job> completedJobs = new ArrayList<>();
+        long[] latencies = new long[iterations];
+        long allocatedBytes = 0;
+        int assignedJobs = 0;
+        
+        // Warmup stops early once it has taken long enough to dominate the case
+        int warmups = Math.max(WARMUP_ITERATIONS, WARMUP_JOBS / state.getJobs().size());
+        long warmupStart = System.nanoTime();
+        for (int i = 0; i < warmups && System.nanoTime() - warmupStart < MAX_WARMUP_NANOS; i++) {
+            state.reset();
+            List<Processor> processors = copyProcessors(templates);
+            resetScheduler(scheduler);
+            scheduler.scheduleJobs(state.getJobs(), processors, 0, completedJobs);
+        }
+        
+        for (int i = 0; i < iterations; i++) {
+            state.reset();
+            List<Processor> processors = copyProcessors(templates);
+            resetScheduler(scheduler);
+            
+            long allocatedBefore = allocations.current();
+            long start = System.nanoTime();
+            scheduler.scheduleJobs(state.getJobs(), processors, 0, completedJobs);
+            latencies[i] = System.nanoTime() - start;
+            allocatedBytes += allocations.current() - allocatedBefore;
+            
+            if (latencies[i] > MAX_DECISION_NANOS) {
+                // Keep the measurements so far; more would not change the verdict
+                latencies = Arrays.copyOf(latencies, i + 1);
+                break;
+            }
+        }
+        
+        for (Job job : state.getJobs()) {
+            if (job.getStartTime() != -1) {
+                assignedJobs++;
+            }
+        }
+        
+        Arrays.sort(latencies);
+        return new Decision(latencies, allocations.isSupported() ? allocatedBytes / latencies.length : -1,
+                            assignedJobs);
+    }
+    
+    /**
+     * Clear the ready set an event-driven scheduler keeps between calls
+     */
+    private static void resetScheduler(Scheduler scheduler) {
+        if (scheduler instanceof EventDrivenScheduler) {
+            ((EventDrivenScheduler) scheduler).reset();
+        }
+    }
+    
+    private static List<Processor> copyProcessors(List<Processor> templates) {
+        List<Processor> processors = new ArrayList<>(templates.size());
+        for (Processor processor : templates) {
+            processors.add(processor instanceof ResourceAwareProcessor
+                               ? new ResourceAwareProcessor((ResourceAwareProcessor) processor)
+                               : new Processor(processor));
+        }
+        return processors;
+    }
+    
+    /**
+     * Create a ready set of one kind, with every job arrived at time 0.
+     * 
+     * Dependency-aware jobs prefer or conflict with earlier jobs but never require
+     * them, so every job stays ready while the scheduler still walks the dependencies.
+     */
+    private static List<JobSpec> createJobs(JobSpec.Kind kind, int jobCount, Random random) {
+        List<Job> jobs = new ArrayList<>(jobCount);
+        for (int i = 0; i < jobCount; i++) {
+            int executionTime = 1 + random.nextInt(50);
+            int priority = 1 + random.nextInt(10);
+            
+            Job job;
+            if (kind == JobSpec.Kind.PLAIN) {
+                job = new Job(i, 0, executionTime, priority);
+            } else if (kind == JobSpec.Kind.DEPENDENCY_AWARE) {
+                DependencyAwareJob dependencyJob = new DependencyAwareJob(i, 0, executionTime, priority);
+                for (int d = 0; d < 2 && i > 0; d++) {
+                    Job dependency = jobs.get(random.nextInt(i));
+                    dependencyJob.addDependency(dependency, random.nextInt(4) == 0
+                                                    ? DependencyAwareJob.DependencyType.CONFLICTS_WITH
+                                                    : DependencyAwareJob.DependencyType.PREFERS);
+                }
+                job = dependencyJob;
+            } else {
+                ResourceAwareJob resourceJob = new ResourceAwareJob(i, 0, executionTime, priority);
+                resourceJob.setResourceRequirements(512 + random.nextInt(7680), 10 + random.nextInt(990),
+                                                    10 + random.nextInt(390));
+                job = resourceJob;
+            }
+            jobs.add(job);
+        }
+        return JobSpec.fromJobs(jobs);
+    }
+    
+    /**
+     * Create processors matching the job kind: resource-aware processors drawn from
+     * the demo's processor types for resource-aware jobs, plain ones otherwise
+     */
+    private static List<Processor> createProcessors(JobSpec.Kind kind, int processorCount, Random random) {
+        double[] speedFactors = {0.5, 1.0, 1.5, 2.0, 2.5, 3.0};
+        int[] memoryCapacities = {4096, 8192, 16384, 32768, 65536, 131072};
+        int[] networkCapacities = {100, 250, 500, 1000, 2000, 10000};
+        int[] cpuCapacities = {100, 200, 400, 600, 800, 1600};
+        
+        List<Processor> processors = new ArrayList<>();
+        for (int i = 0; i < processorCount; i++) {
+            int type = random.nextInt(speedFactors.length);
+            processors.add(kind == JobSpec.Kind.RESOURCE_AWARE
+                               ? new ResourceAwareProcessor(i, speedFactors[type], memoryCapacities[type],
+                                                            networkCapacities[type], cpuCapacities[type])
+                               : new Processor(i, speedFactors[type]));
+        }
+        return processors;
+    }
+    
+    /**
+     * Measurements of one benchmarked case
+     */
+    private static class Decision {
+        final long[] latencies;
+        final long allocatedBytes;
+        final int assignedJobs;
+        
+        Decision(long[] latencies, long allocatedBytes, int assignedJobs) {
+            this.latencies = latencies;
+            this.allocatedBytes = allocatedBytes;
+            this.assignedJobs = assignedJobs;
+        }
+    }
+    
+    /**
+     * Bytes allocated by all live threads, where the JVM can count them. The benchmark
+     * thread is the only busy one apart from the ForkJoin workers a parallel scheduler
+     * uses, so the difference between two readings is what a decision allocated; a
+     * worker that exits in between takes its count with it.
+     */
+    private static class AllocationCounter {
+        private final com.sun.management.ThreadMXBean threads;
+        
+        AllocationCounter() {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            com.sun.management.ThreadMXBean counting = null;
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                counting = (com.sun.management.ThreadMXBean) bean;
+                if (counting.isThreadAllocatedMemorySupported()) {
+                    counting.setThreadAllocatedMemoryEnabled(true);
+                } else {
+                    counting = null;
+                }
+            }
+            this.threads = counting;
+        }
+        
+        boolean isSupported() {
+            return threads != null;
+        }
+        
+        long current() {
+            if (threads == null) {
+                return 0;
+            }
+            long total = 0;
+            for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                total += Math.max(0, bytes); // -1 for threads that exited after the ids were taken
+            }
+            return total;
+        }
+    }
+}
@@ -7,14 +7,26 @@ public class SchedulingMetrics {
     private double averageTurnaroundTime;
     private double throughput;
     private double resourceUtilization;
+    private LatencyCollector latencies; // Null when only averages are known
     
     public SchedulingMetrics(double makespan, double averageWaitingTime, double averageTurnaroundTime, 
                            double throughput, double resourceUtilization) {
+        this(makespan, averageWaitingTime, averageTurnaroundTime, throughput, resourceUtilization, null);
+    }
+    
+    /**
+     * Create metrics that also carry the latency distribution of the run
+     * 
+     * @param latencies Percentiles and per-priority breakdowns, or null if not collected
+     */
+    public SchedulingMetrics(double makespan, double averageWaitingTime, double averageTurnaroundTime, 
+                           double throughput, double resourceUtilization, LatencyCollector latencies) {
         this.makespan = makespan;
         this.averageWaitingTime = averageWaitingTime;
         this.averageTurnaroundTime = averageTurnaroundTime;
         this.throughput = throughput;
         this.resourceUtilization = resourceUtilization;
+        this.latencies = latencies;
     }
     
     public double getMakespan() {
@@ -36,4 +48,46 @@ public class SchedulingMetrics {
     public double getResourceUtilization() {
         return resourceUtilization;
     }
+    
+    /**
+     * Get the latency distribution of the run
+     * 
+     * @return Collector with percentiles and per-priority breakdowns, or null if none was collected
+     */
+    public LatencyCollector getLatencies() {
+        return latencies;
+    }
+    
+    /**
+     * Get a waiting-time percentile, such as 95 or 99
+     * 
+     * @throws IllegalStateException If no latency distribution was collected
+     */
+    public long getWaitingTimePercentile(double percentile) {
+        return requireLatencies().getWaitingTimePercentile(percentile);
+    }
+    
+    public long getMaxWaitingTime() {
+        return requireLatencies().getWaitingTimes().getMax();
+    }
+    
+    /**
+     * Get a bounded-slowdown percentile, such as 95 or 99
+     * 
+     * @throws IllegalStateException If no latency distribution was collected
+     */
+    public double getBoundedSlowdownPercentile(double percentile) {
+        return requireLatencies().getBoundedSlowdownPercentile(percentile);
+    }
+    
+    public double getMaxBoundedSlowdown() {
+        return requireLatencies().getMaxBoundedSlowdown();
+    }
+    
+    private LatencyCollector requireLatencies() {
+        if (latencies == null) {
+            throw new IllegalStateException("No latency distribution was collected for these metrics");
+        }
+        return latencies;
+    }
 }
\ No newline at end of file
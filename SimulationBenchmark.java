@@ -0,0 +1,128 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * End-to-end benchmark of the simulator: wall-clock time of whole
+ * runSimulation() calls and the simulated events processed per second.
+ * 
+ * Every DependencyGraphGenerator pattern is simulated at 1,000, 100,000 and
+ * 1,000,000 jobs under FCFS on 16 processors. An event is a job arrival or
+ * completion taken from the event queue. Workloads are generated and their
+ * jobs created once per case, outside the timed region; each run resets them
+ * in place. Cases over the job limit are written as skipped. Results are
+ * written to a JSON file and, when a baseline is given, compared against it
+ * with BenchmarkComparison, exiting with status 1 if any case is slower than
+ * the baseline by more than the threshold or was not measured.
+ * 
+ * Usage: java SimulationBenchmark [iterations] [output file] [baseline file] [threshold percent] [max jobs]
+ * A baseline is a results file from an earlier run; pass - to run without one.
+ */
+public class SimulationBenchmark {
+    private static final String[] PATTERNS = {"linear", "tree", "diamond", "pipeline", "random"};
+    private static final int[] JOB_COUNTS = {1_000, 100_000, 1_000_000};
+    private static final int PROCESSOR_COUNT = 16;
+    private static final int WARMUP_ITERATIONS = 1;
+    private static final int WARMUP_JOBS = 100_000; // Small workloads are repeated until this many jobs were simulated
+    
+    public static void main(String[] args) throws IOException {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        Path output = Paths.get(args.length > 1 ? args[1] : "simulation_benchmark.json");
+        Path baseline = args.length > 2 && !args[2].equals("-") ? Paths.get(args[2]) : null;
+        double threshold = args.length > 3 ? Double.parseDouble(args[3]) : BenchmarkComparison.DEFAULT_THRESHOLD_PERCENT;
+        int maxJobs = args.length > 4 ? Integer.parseInt(args[4]) : Integer.MAX_VALUE;
+        
+        SimulationEnvironment env = new SimulationEnvironment();
+        List<Processor> processors = env.createProcessors(PROCESSOR_COUNT, 1.0);
+        EventCounter counter = new EventCounter();
+        env.setMetricsSink(counter);
+        BenchmarkReport report = new BenchmarkReport("SimulationBenchmark");
+        
+        System.out.println("Simulator Throughput Benchmark");
+        System.out.println("==============================");
+        System.out.printf("%-12s%-12s%-14s%-14s%-14s%-18s%n",
+                         "Pattern", "Jobs", "Events", "Median ms", "Max ms", "Events/sec");
+        System.out.println("----------------------------------------------------------------------------------");
+        
+        for (String pattern : PATTERNS) {
+            for (int jobCount : JOB_COUNTS) {
+                if (jobCount > maxJobs) {
+                    report.add(pattern + "/" + jobCount)
+                          .put("pattern", pattern)
+                          .put("jobs", jobCount)
+                          .skip("over the job limit of " + maxJobs);
+                    continue;
+                }
+                
+                DependencyGraphGenerator generator = new DependencyGraphGenerator(42);
+                JobState state = JobState.fromJobs(generator.generatePatternedDependencies(pattern, jobCount));
+                Scheduler scheduler = new FCFSScheduler();
+                
+                int warmups = Math.max(WARMUP_ITERATIONS, WARMUP_JOBS / jobCount);
+                for (int i = 0; i < warmups; i++) {
+                    env.runSimulation(scheduler, state, processors);
+                }
+                
+                long[] latencies = new long[iterations];
+                SchedulingMetrics metrics = null;
+                for (int i = 0; i < iterations; i++) {
+                    counter.events = 0;
+                    long start = System.nanoTime();
+                    metrics = env.runSimulation(scheduler, state, processors);
+                    latencies[i] = System.nanoTime() - start;
+                }
+                Arrays.sort(latencies);
+                
+                // Every run of a case simulates the same events
+                long events = counter.events;
+                long median = latencies[iterations / 2];
+                double eventsPerSecond = events / (median / 1e9);
+                System.out.printf("%-12s%-12d%-14d%-14.1f%-14.1f%-18.0f%n", pattern, jobCount, events,
+                                 median / 1e6, latencies[iterations - 1] / 1e6, eventsPerSecond);
+                
+                report.add(pattern + "/" + jobCount)
+                      .put("pattern", pattern)
+                      .put("jobs", jobCount)
+                      .put("processors", PROCESSOR_COUNT)
+                      .put("scheduler", scheduler.getName())
+                      .put("iterations", iterations)
+                      .put("events", events)
+                      .put("medianNanos", median)
+                      .put("minNanos", latencies[0])
+                      .put("maxNanos", latencies[iterations - 1])
+                      .put("eventsPerSecond", eventsPerSecond)
+                      .put("makespan", metrics.getMakespan());
+            }
+        }
+        
+        report.write(output);
+        System.out.println("\nResults written to " + output);
+        
+        if (baseline != null) {
+            System.out.println();
+            BenchmarkComparison comparison = new BenchmarkComparison(BenchmarkReport.read(baseline), report,
+                                                                     BenchmarkComparison.DEFAULT_MEASUREMENT, threshold);
+            comparison.print();
+            if (comparison.isFailed()) {
+                System.exit(1);
+            }
+        }
+    }
+    
+    /**
+     * Counts the arrivals and completions a simulation processes
+     */
+    private static class EventCounter implements MetricsSink {
+        long events;
+        
+        @Override
+        public void onArrival(Job job, long currentTime) {
+            events++;
+        }
+        
+        @Override
+        public void onCompletion(Job job, long currentTime) {
+            events++;
+        }
+    }
+}
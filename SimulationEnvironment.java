@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -5,7 +7,68 @@ import java.util.stream.Collectors;
  * SimulationEnvironment class to manage job scheduling simulations
  */
 public class SimulationEnvironment {
-    private static final int MAX_SIMULATION_TIME = 1000; // Maximum simulation time
+    // Horizon value meaning "run until every job has finished or can no longer make progress"
+    public static final long RUN_UNTIL_DRAINED = Long.MAX_VALUE;
+    
+    private long maxSimulationTime; // Events at or after this time are not processed
+    private ColumnarWriter outcomeWriter; // Receives one JOB_OUTCOMES row per job, if set
+    private MetricsSink metricsSink; // Sees the events of every run, if set
+    
+    /**
+     * Create an environment that runs each simulation until the workload drains
+     */
+    public SimulationEnvironment() {
+        this(RUN_UNTIL_DRAINED);
+    }
+    
+    /**
+     * Create an environment with a fixed simulation horizon
+     * 
+     * @param maxSimulationTime Time at which simulations are cut off
+     */
+    public SimulationEnvironment(long maxSimulationTime) {
+        setMaxSimulationTime(maxSimulationTime);
+    }
+    
+    public long getMaxSimulationTime() {
+        return maxSimulationTime;
+    }
+    
+    public void setMaxSimulationTime(long maxSimulationTime) {
+        if (maxSimulationTime <= 0) {
+            throw new IllegalArgumentException("Simulation horizon must be positive: " + maxSimulationTime);
+        }
+        this.maxSimulationTime = maxSimulationTime;
+    }
+    
+    public ColumnarWriter getOutcomeWriter() {
+        return outcomeWriter;
+    }
+    
+    /**
+     * Record the outcome of every job in later simulations
+     * 
+     * @param outcomeWriter Writer with the JOB_OUTCOMES schema, or null to stop recording
+     */
+    public void setOutcomeWriter(ColumnarWriter outcomeWriter) {
+        if (outcomeWriter != null && !outcomeWriter.getSchema().sameLayout(ColumnarSchema.JOB_OUTCOMES)) {
+            throw new IllegalArgumentException("Outcome writer schema is " + outcomeWriter.getSchema().getName());
+        }
+        this.outcomeWriter = outcomeWriter;
+    }
+    
+    public MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+    
+    /**
+     * Report the events of later simulations to a sink, in addition to the metrics each run returns
+     * 
+     * @param metricsSink Sink to notify, or null to stop reporting
+     */
+    public void setMetricsSink(MetricsSink metricsSink) {
+        this.metricsSink = metricsSink;
+    }
     
     /**
      * Generate a list of random jobs for simulation
@@ -32,6 +95,18 @@ public class SimulationEnvironment {
         return jobs;
     }
     
+    /**
+     * Generate jobs from a workload model, such as Poisson or bursty arrivals with heavy-tailed runtimes.
+     * Use model.iterator() directly for workloads too large to hold as a list.
+     * 
+     * @param count Number of jobs to generate
+     * @param model Arrival process and runtime distribution
+     * @return List of generated jobs
+     */
+    public List<Job> generateJobs(int count, WorkloadModel model) {
+        return model.generate(count);
+    }
+    
     /**
      * Create processors with different speed factors
      * 
@@ -64,70 +139,422 @@ public class SimulationEnvironment {
      * @return Metrics from the simulation
      */
     public SchedulingMetrics runSimulation(Scheduler scheduler, List<Job> originalJobs, List<Processor> originalProcessors) {
-        // Create deep copies to avoid modifying the originals
-        List<Job> jobs = originalJobs.stream().map(job -> new Job(job)).collect(Collectors.toList());
+        // Simulate fresh jobs of the same kinds to avoid modifying the originals
+        return runSimulation(scheduler, JobState.fromJobs(originalJobs), originalProcessors);
+    }
+    
+    /**
+     * Run a simulation over the jobs of a JobState.
+     * 
+     * The state is reset first and its jobs are simulated in place, so running
+     * several schedulers over one state creates no job copies; the jobs hold this
+     * run's results until the next reset. Critical path information follows the
+     * run's completions while it lasts and describes the whole graph again after.
+     * 
+     * @param scheduler The scheduling algorithm to use
+     * @param jobState Jobs to schedule
+     * @param originalProcessors List of processors to use
+     * @return Metrics from the simulation
+     */
+    public SchedulingMetrics runSimulation(Scheduler scheduler, JobState jobState, List<Processor> originalProcessors) {
+        jobState.reset();
+        List<Job> jobs = jobState.getJobs();
         List<Processor> processors = originalProcessors.stream().map(proc -> new Processor(proc)).collect(Collectors.toList());
         
-        int currentTime = 0;
+        JobTable jobTable = new JobTable(jobs);
+        DependencyTracker dependencyTracker = new DependencyTracker(jobs);
+        ConflictIndex conflictIndex = new ConflictIndex(jobs);
+        
+        // Keep slack and criticality of dependency-aware jobs in step with what has completed
+        List<DependencyAwareJob> dependencyJobs = jobs.stream()
+                                                      .filter(job -> job instanceof DependencyAwareJob)
+                                                      .map(job -> (DependencyAwareJob) job)
+                                                      .collect(Collectors.toList());
+        CriticalPathAnalyzer criticalPathAnalyzer = dependencyJobs.isEmpty() ? null : new CriticalPathAnalyzer(dependencyJobs);
         List<Job> completedJobs = new ArrayList<>();
-        boolean allJobsCompleted = false;
+        OnlineMetrics metrics = new OnlineMetrics(processors.size());
+        MetricsSink sink = withMetricsSink(metrics);
         
-        while (currentTime < MAX_SIMULATION_TIME && !allJobsCompleted) {
-            // Process completed jobs
-            for (Processor processor : processors) {
-                if (processor.isBusy(currentTime)) {
-                    continue;
-                }
+        // Seed the event queue with every job arrival
+        PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+        long eventSequence = 0;
+        for (Job job : jobs) {
+            events.add(SimulationEvent.arrival(job.getArrivalTime(), job, eventSequence++));
+        }
+        
+        // Job each processor has a completion event queued for
+        Job[] trackedJobs = new Job[processors.size()];
+        Map<Integer, Integer> processorByJobId = outcomeWriter != null ? new HashMap<>() : null; // Unfinished jobs
+        
+        // Event-driven schedulers keep their own ready structures and are fed incrementally
+        EventDrivenScheduler eventScheduler = null;
+        Set<Job> blockedJobs = new LinkedHashSet<>(); // Arrived, but waiting on dependencies
+        if (scheduler instanceof EventDrivenScheduler) {
+            eventScheduler = (EventDrivenScheduler) scheduler;
+            eventScheduler.reset();
+        }
+        
+        long currentTime = 0;
+        
+        // Jump from one event time to the next instead of ticking through idle periods
+        while (!jobTable.allCompleted() && !events.isEmpty() && events.peek().getTime() < maxSimulationTime) {
+            currentTime = events.peek().getTime();
+            
+            // Apply every event at this instant before making a scheduling decision
+            while (!events.isEmpty() && events.peek().getTime() == currentTime) {
+                SimulationEvent event = events.poll();
                 
-                Job completedJob = processor.getCurrentJob();
-                if (completedJob != null) {
-                    // Find the original job and mark it as completed
-                    for (Job job : jobs) {
-                        if (job.getId() == completedJob.getId() && !job.isCompleted()) {
-                            // Set completion time if not already set
-                            if (job.getCompletionTime() == -1) {
-                                job.setCompletionTime(currentTime);
+                if (event.getType() == SimulationEvent.EventType.COMPLETION) {
+                    Processor processor = event.getProcessor();
+                    if (processor.getCurrentJob() == event.getJob()) {
+                        Job completedJob = completeJob(processor, jobTable, currentTime, completedJobs);
+                        if (completedJob != null) {
+                            completedJob.setWaitingTime(OnlineMetrics.waitingTime(completedJob));
+                            sink.onCompletion(completedJob, currentTime);
+                            if (processorByJobId != null) {
+                                processorByJobId.remove(completedJob.getId());
+                                writeOutcome(completedJob, completedJob.getWaitingTime(), processor.getId());
+                            }
+                            conflictIndex.markFinished(completedJob.getId());
+                            List<Job> newlyReady = dependencyTracker.markCompleted(completedJob.getId());
+                            if (criticalPathAnalyzer != null) {
+                                criticalPathAnalyzer.markCompleted(completedJob.getId());
                             }
-                            // Ensure remaining time is zero
-                            while (job.getRemainingTime() > 0) {
-                                job.decrementRemainingTime();
+                            if (eventScheduler != null) {
+                                eventScheduler.onCompletion(completedJob, currentTime);
+                                releaseBlockedJobs(eventScheduler, newlyReady, blockedJobs, currentTime);
                             }
-                            completedJobs.add(job);
-                            break;
                         }
                     }
-                    processor.completeJob(currentTime);
+                } else {
+                    sink.onArrival(event.getJob(), currentTime);
+                    if (eventScheduler == null) {
+                        continue;
+                    }
+                    
+                    // Legacy schedulers see arrivals through the job list, event-driven ones are told
+                    Job job = event.getJob();
+                    eventScheduler.onArrival(job, currentTime);
+                    if (dependencyTracker.isReady(job.getId())) {
+                        eventScheduler.onReady(job, currentTime);
+                    } else {
+                        blockedJobs.add(job);
+                    }
                 }
             }
             
             // Schedule jobs
-            scheduler.scheduleJobs(jobs, processors, currentTime, completedJobs);
+            if (eventScheduler != null) {
+                List<Processor> idleProcessors = new ArrayList<>();
+                for (Processor processor : processors) {
+                    if (!processor.isBusy(currentTime)) {
+                        idleProcessors.add(processor);
+                    }
+                }
+                if (!idleProcessors.isEmpty()) {
+                    eventScheduler.dispatch(idleProcessors, currentTime);
+                }
+            } else {
+                scheduler.scheduleJobs(jobs, processors, currentTime, completedJobs);
+            }
             
-            // Update waiting time for jobs that have arrived but not started
+            // Queue a completion event for every processor that just received a job
+            for (int i = 0; i < processors.size(); i++) {
+                Processor processor = processors.get(i);
+                Job currentJob = processor.getCurrentJob();
+                
+                if (currentJob != trackedJobs[i]) {
+                    // A job replaced without completing has left its processor too
+                    if (trackedJobs[i] != null) {
+                        conflictIndex.markFinished(trackedJobs[i].getId());
+                    }
+                    if (currentJob != null) {
+                        conflictIndex.markRunning(currentJob.getId());
+                        if (processorByJobId != null) {
+                            processorByJobId.put(currentJob.getId(), processor.getId());
+                        }
+                        sink.onAssignment(currentJob, processor, currentTime, processor.getBusyUntil() - currentTime);
+                        
+                        // A zero-length job is noticed on the next time unit, as it would be when ticking
+                        long completionTime = Math.max(processor.getBusyUntil(), currentTime + 1);
+                        events.add(SimulationEvent.completion(completionTime, processor, currentJob, eventSequence++));
+                    }
+                }
+                trackedJobs[i] = currentJob;
+            }
+        }
+        
+        // Jobs the simulation stopped before completing waited from arrival until start, or until the end
+        if (!jobTable.allCompleted()) {
+            long endTime = events.isEmpty() ? currentTime : maxSimulationTime - 1;
             for (Job job : jobs) {
-                if (job.getArrivalTime() <= currentTime && !job.isCompleted() && job.getStartTime() == -1) {
-                    job.incrementWaitingTime();
+                if (!jobTable.isCompleted(job.getId())) {
+                    recordUnfinishedJob(job, endTime, sink, processorByJobId);
                 }
             }
+        }
+        
+        // Critical path getters describe the graph again, not what this run completed
+        if (criticalPathAnalyzer != null) {
+            criticalPathAnalyzer.detach();
+            jobState.restoreCriticalPaths();
+        }
+        
+        return metrics.toMetrics();
+    }
+    
+    /**
+     * Replay a stream of jobs, such as a TraceReader or WorkloadModel.iterator(), through a scheduler.
+     * 
+     * Jobs are pulled from the source only when simulated time reaches their arrival and are
+     * dropped once they complete, so the heap holds just the jobs in the system, however long
+     * the trace is. Schedulers are given those jobs and the jobs completed at the current
+     * instant. Trace jobs carry no dependencies. Jobs are simulated in place, not copied.
+     * With an outcome writer set, each job's outcome is written as it leaves the system.
+     * 
+     * @param scheduler The scheduling algorithm to use
+     * @param trace Jobs in non-decreasing arrival order
+     * @param originalProcessors List of processors to use
+     * @return Metrics over every job that arrived before the simulation stopped
+     * @throws IllegalArgumentException if the trace is not sorted by arrival time
+     */
+    public SchedulingMetrics replayTrace(Scheduler scheduler, Iterator<? extends Job> trace,
+                                        List<Processor> originalProcessors) {
+        List<Processor> processors = originalProcessors.stream().map(proc -> new Processor(proc)).collect(Collectors.toList());
+        Map<Integer, Job> activeJobs = new LinkedHashMap<>(); // Arrived and not completed, by id in arrival order
+        List<Job> justCompleted = new ArrayList<>();
+        
+        PriorityQueue<SimulationEvent> events = new PriorityQueue<>();
+        long eventSequence = 0;
+        Job[] trackedJobs = new Job[processors.size()];
+        Map<Integer, Integer> processorByJobId = outcomeWriter != null ? new HashMap<>() : null;
+        
+        EventDrivenScheduler eventScheduler = null;
+        if (scheduler instanceof EventDrivenScheduler) {
+            eventScheduler = (EventDrivenScheduler) scheduler;
+            eventScheduler.reset();
+        }
+        
+        // Running totals replace the per-job lists of runSimulation
+        OnlineMetrics metrics = new OnlineMetrics(processors.size());
+        MetricsSink sink = withMetricsSink(metrics);
+        
+        Job nextArrival = trace.hasNext() ? trace.next() : null;
+        long currentTime = 0;
+        
+        while (true) {
+            long nextTime = Long.MAX_VALUE;
+            if (nextArrival != null) {
+                nextTime = nextArrival.getArrivalTime();
+            }
+            if (!events.isEmpty()) {
+                nextTime = Math.min(nextTime, events.peek().getTime());
+            }
+            if (nextTime == Long.MAX_VALUE || nextTime >= maxSimulationTime) {
+                break;
+            }
+            currentTime = nextTime;
+            
+            // Completions at this instant come before arrivals, as in runSimulation
+            justCompleted.clear();
+            while (!events.isEmpty() && events.peek().getTime() == currentTime) {
+                SimulationEvent event = events.poll();
+                Processor processor = event.getProcessor();
+                if (processor.getCurrentJob() == event.getJob()) {
+                    // The processor may hold a stand-in copy of the job, so resolve the job by id
+                    Job job = activeJobs.get(event.getJob().getId());
+                    boolean finished = job != null && !job.isCompleted();
+                    if (finished) {
+                        job.markCompleted(currentTime);
+                        justCompleted.add(job);
+                    }
+                    processor.completeJob(currentTime);
+                    if (finished && eventScheduler != null) {
+                        eventScheduler.onCompletion(job, currentTime);
+                    }
+                }
+            }
+            
+            while (nextArrival != null && nextArrival.getArrivalTime() == currentTime) {
+                Job job = nextArrival;
+                activeJobs.put(job.getId(), job);
+                sink.onArrival(job, currentTime);
+                if (eventScheduler != null) {
+                    eventScheduler.onArrival(job, currentTime);
+                    eventScheduler.onReady(job, currentTime);
+                }
+                
+                nextArrival = trace.hasNext() ? trace.next() : null;
+                if (nextArrival != null && nextArrival.getArrivalTime() < currentTime) {
+                    throw new IllegalArgumentException("Trace is not sorted by arrival time at " + nextArrival);
+                }
+            }
+            
+            // Schedule jobs
+            if (eventScheduler != null) {
+                List<Processor> idleProcessors = new ArrayList<>();
+                for (Processor processor : processors) {
+                    if (!processor.isBusy(currentTime)) {
+                        idleProcessors.add(processor);
+                    }
+                }
+                if (!idleProcessors.isEmpty()) {
+                    eventScheduler.dispatch(idleProcessors, currentTime);
+                }
+            } else {
+                scheduler.scheduleJobs(new ArrayList<>(activeJobs.values()), processors, currentTime, justCompleted);
+            }
             
-            // Check if all jobs are completed
-            allJobsCompleted = jobs.stream().allMatch(Job::isCompleted);
+            // Queue a completion event for every processor that just received a job
+            for (int i = 0; i < processors.size(); i++) {
+                Processor processor = processors.get(i);
+                Job currentJob = processor.getCurrentJob();
+                
+                if (currentJob != null && currentJob != trackedJobs[i]) {
+                    if (processorByJobId != null) {
+                        processorByJobId.put(currentJob.getId(), processor.getId());
+                    }
+                    sink.onAssignment(currentJob, processor, currentTime, processor.getBusyUntil() - currentTime);
+                    
+                    // A zero-length job is noticed on the next time unit, as it would be when ticking
+                    long completionTime = Math.max(processor.getBusyUntil(), currentTime + 1);
+                    events.add(SimulationEvent.completion(completionTime, processor, currentJob, eventSequence++));
+                }
+                trackedJobs[i] = currentJob;
+            }
             
-            // Increment time
-            currentTime++;
+            // Drop finished jobs so the heap only holds jobs still in the system. Only completion
+            // events finish jobs under an event-driven scheduler; legacy ones may finish them too.
+            if (eventScheduler != null) {
+                for (Job job : justCompleted) {
+                    activeJobs.remove(job.getId());
+                    retireJob(job, sink, processorByJobId);
+                }
+            } else {
+                for (Iterator<Job> it = activeJobs.values().iterator(); it.hasNext(); ) {
+                    Job job = it.next();
+                    if (job.isCompleted()) {
+                        it.remove();
+                        retireJob(job, sink, processorByJobId);
+                    }
+                }
+            }
         }
         
-        // Calculate metrics
-        int makespan = jobs.stream().mapToInt(Job::getCompletionTime).max().orElse(0);
-        double averageWaitingTime = jobs.stream().mapToInt(Job::getWaitingTime).average().orElse(0);
-        double averageTurnaroundTime = jobs.stream().mapToInt(Job::getTurnaroundTime).average().orElse(0);
-        double throughput = (double) jobs.size() / makespan;
-        
-        // Calculate resource utilization (total busy time / (total processors * makespan))
-        int totalBusyTime = processors.stream().mapToInt(Processor::getTotalBusyTime).sum();
-        double resourceUtilization = (double) totalBusyTime / (processors.size() * makespan);
+        // Jobs that never started have waited until the simulation stopped
+        long endTime = nextArrival == null && events.isEmpty() ? currentTime : maxSimulationTime - 1;
+        for (Job job : activeJobs.values()) {
+            recordUnfinishedJob(job, endTime, sink, processorByJobId);
+        }
         
-        return new SchedulingMetrics(makespan, averageWaitingTime, averageTurnaroundTime, throughput, resourceUtilization);
+        return metrics.toMetrics();
+    }
+    
+    /**
+     * Report a completed job of a replay as it leaves the system
+     */
+    private void retireJob(Job job, MetricsSink sink, Map<Integer, Integer> processorByJobId) {
+        job.setWaitingTime(OnlineMetrics.waitingTime(job));
+        sink.onCompletion(job, job.getCompletionTime());
+        if (processorByJobId != null) {
+            Integer processorId = processorByJobId.remove(job.getId());
+            writeOutcome(job, job.getWaitingTime(), processorId != null ? processorId : -1);
+        }
+    }
+    
+    /**
+     * Report the sink of this environment alongside the metrics of a run
+     */
+    private MetricsSink withMetricsSink(OnlineMetrics metrics) {
+        if (metricsSink == null) {
+            return metrics;
+        }
+        MetricsSink extraSink = metricsSink;
+        return new MetricsSink() {
+            @Override
+            public void onArrival(Job job, long currentTime) {
+                metrics.onArrival(job, currentTime);
+                extraSink.onArrival(job, currentTime);
+            }
+            
+            @Override
+            public void onAssignment(Job job, Processor processor, long currentTime, long processingTime) {
+                metrics.onAssignment(job, processor, currentTime, processingTime);
+                extraSink.onAssignment(job, processor, currentTime, processingTime);
+            }
+            
+            @Override
+            public void onCompletion(Job job, long currentTime) {
+                metrics.onCompletion(job, currentTime);
+                extraSink.onCompletion(job, currentTime);
+            }
+            
+            @Override
+            public void onUnfinished(Job job, long waitingTime) {
+                metrics.onUnfinished(job, waitingTime);
+                extraSink.onUnfinished(job, waitingTime);
+            }
+        };
+    }
+    
+    /**
+     * Append one job's outcome to the outcome writer
+     */
+    private void writeOutcome(Job job, long waitingTime, int processorId) {
+        try {
+            outcomeWriter.writeJobOutcome(job, waitingTime, processorId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * Release a processor whose job has finished and mark the job as completed
+     */
+    private Job completeJob(Processor processor, JobTable jobTable, long currentTime, List<Job> completedJobs) {
+        // The processor may hold a stand-in copy of the job, so resolve the simulated job by id
+        Job job = jobTable.complete(processor.getCurrentJob().getId(), currentTime);
+        if (job != null) {
+            completedJobs.add(job);
+        }
+        processor.completeJob(currentTime);
+        return job;
+    }
+    
+    /**
+     * Hand blocked jobs whose dependencies are now satisfied to an event-driven scheduler
+     * 
+     * @param newlyReady Jobs whose last unmet dependency just completed; some may not have arrived yet
+     */
+    private void releaseBlockedJobs(EventDrivenScheduler eventScheduler, List<Job> newlyReady,
+                                    Set<Job> blockedJobs, long currentTime) {
+        for (Job job : newlyReady) {
+            if (blockedJobs.remove(job)) {
+                eventScheduler.onReady(job, currentTime);
+            }
+        }
+    }
+    
+    /**
+     * Report a job the simulation stopped before completing. Its waiting time runs from
+     * arrival until it started, or until the simulation stopped; a job that had not arrived
+     * gets an outcome row but counts for nothing else.
+     * 
+     * @param endTime Last simulated time
+     * @param processorByJobId Last processor of each unfinished job that ran, or null without an outcome writer
+     */
+    private void recordUnfinishedJob(Job job, long endTime, MetricsSink sink, Map<Integer, Integer> processorByJobId) {
+        long waitingTime = -1;
+        if (job.getArrivalTime() <= endTime) {
+            long waitedUntil = job.getStartTime() != -1 ? job.getStartTime() : endTime + 1;
+            waitingTime = Math.max(0, waitedUntil - job.getArrivalTime());
+            job.setWaitingTime(waitingTime);
+            sink.onUnfinished(job, waitingTime);
+        }
+        if (processorByJobId != null) {
+            Integer processorId = processorByJobId.remove(job.getId());
+            writeOutcome(job, waitingTime, processorId != null ? processorId : -1);
+        }
     }
     
     /**
@@ -141,11 +568,11 @@ public class SimulationEnvironment {
         System.out.println("\n----- Schedule Visualization for " + algorithm + " -----");
         
         // Find makespan
-        int makespan = jobs.stream().mapToInt(Job::getCompletionTime).max().orElse(0);
+        long makespan = jobs.stream().mapToLong(Job::getCompletionTime).max().orElse(0);
         
         // Print header
         System.out.print("Time: ");
-        for (int t = 0; t < makespan; t += 5) {
+        for (long t = 0; t < makespan; t += 5) {
             System.out.printf("%5d", t);
         }
         System.out.println();
@@ -155,7 +582,7 @@ public class SimulationEnvironment {
             System.out.print("P" + processor.getId() + ":   ");
             
             // For each processor, show which job was running at each time
-            for (int t = 0; t < makespan; t += 5) {
+            for (long t = 0; t < makespan; t += 5) {
                 boolean jobFound = false;
                 
                 for (Job job : jobs) {
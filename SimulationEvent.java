@@ -0,0 +1,66 @@
+/**
+ * Event processed by the discrete-event simulation loop in SimulationEnvironment
+ */
+public class SimulationEvent implements Comparable<SimulationEvent> {
+    // Completions sort before arrivals so processors are freed before new work is considered
+    public enum EventType {
+        COMPLETION,
+        ARRIVAL
+    }
+
+    private long time;
+    private EventType type;
+    private Job job;
+    private Processor processor;
+    private long sequence;
+
+    private SimulationEvent(long time, EventType type, Job job, Processor processor, long sequence) {
+        this.time = time;
+        this.type = type;
+        this.job = job;
+        this.processor = processor;
+        this.sequence = sequence;
+    }
+
+    /**
+     * Create an event for a job entering the system
+     */
+    public static SimulationEvent arrival(long time, Job job, long sequence) {
+        return new SimulationEvent(time, EventType.ARRIVAL, job, null, sequence);
+    }
+
+    /**
+     * Create an event for a processor finishing its current job
+     */
+    public static SimulationEvent completion(long time, Processor processor, Job job, long sequence) {
+        return new SimulationEvent(time, EventType.COMPLETION, job, processor, sequence);
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public EventType getType() {
+        return type;
+    }
+
+    public Job getJob() {
+        return job;
+    }
+
+    public Processor getProcessor() {
+        return processor;
+    }
+
+    @Override
+    public int compareTo(SimulationEvent other) {
+        if (time != other.time) {
+            return Long.compare(time, other.time);
+        }
+        if (type != other.type) {
+            return type.compareTo(other.type);
+        }
+        // Insertion order keeps simultaneous events deterministic
+        return Long.compare(sequence, other.sequence);
+    }
+}
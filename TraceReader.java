@@ -0,0 +1,387 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads a job trace through a memory-mapped window, one job at a time.
+ * 
+ * Two formats are detected automatically:
+ * - CSV with a header row, as in job_history_advanced.csv. Columns are found
+ *   by name: JobId and ActualTime (or ExecutionTime) are required; ArrivalTime,
+ *   EstimatedTime, Priority, IsIOBound, MemoryReq, NetworkReq and CpuReq are
+ *   optional, and any other column is skipped. Without ArrivalTime every job
+ *   arrives at time zero. Traces with a resource column yield ResourceAwareJobs.
+ * - The fixed-width binary format written by TraceWriter.
+ * 
+ * Fields are parsed straight from the mapped bytes, and the window slides
+ * forward through the file, so only the window and the current job are ever
+ * on the heap however large the trace is.
+ */
+public class TraceReader implements Iterator<Job>, Closeable {
+    public enum Format {
+        CSV,
+        BINARY
+    }
+    
+    // Bytes mapped at a time; large traces are read through a sliding window
+    private static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+    
+    // CSV column kinds
+    private static final int IGNORED = 0;
+    private static final int JOB_ID = 1;
+    private static final int ARRIVAL_TIME = 2;
+    private static final int EXECUTION_TIME = 3;
+    private static final int ESTIMATED_TIME = 4;
+    private static final int PRIORITY = 5;
+    private static final int IO_BOUND = 6;
+    private static final int MEMORY = 7;
+    private static final int NETWORK = 8;
+    private static final int CPU = 9;
+    
+    private FileChannel channel;
+    private long fileSize;
+    private long windowSize;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private int position; // Read position within the window
+    
+    private Format format;
+    private int[] columns; // Kind of each CSV column
+    private boolean resourceColumns;
+    private long[] fields = new long[CPU + 1];
+    private long lineNumber;
+    
+    private Job nextJob;
+    
+    /**
+     * Open a trace file
+     * 
+     * @param filePath Path to a CSV or binary trace
+     * @throws IOException if the file cannot be read or its header is invalid
+     */
+    public TraceReader(String filePath) throws IOException {
+        this(filePath, DEFAULT_WINDOW_SIZE);
+    }
+    
+    /**
+     * Open a trace file with a specific mapping window
+     * 
+     * @param windowSize Bytes mapped at a time; must hold the longest CSV line
+     */
+    TraceReader(String filePath, long windowSize) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ);
+        try {
+            this.fileSize = channel.size();
+            this.windowSize = Math.max(TraceWriter.HEADER_SIZE + TraceWriter.RECORD_SIZE,
+                                       windowSize - windowSize % TraceWriter.RECORD_SIZE);
+            mapWindow(0);
+            
+            if (fileSize >= TraceWriter.HEADER_SIZE && window.getInt(0) == TraceWriter.MAGIC) {
+                readBinaryHeader();
+            } else {
+                readCsvHeader();
+            }
+            advance();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    public Format getFormat() {
+        return format;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return nextJob != null;
+    }
+    
+    /**
+     * Get the next job of the trace
+     * 
+     * @throws IllegalArgumentException if the trace is malformed at this job
+     */
+    @Override
+    public Job next() {
+        if (nextJob == null) {
+            throw new NoSuchElementException();
+        }
+        Job job = nextJob;
+        advance();
+        return job;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        window = null;
+        channel.close();
+    }
+    
+    private void mapWindow(long start) throws IOException {
+        windowStart = start;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowSize, fileSize - start));
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        position = 0;
+    }
+    
+    /**
+     * Slide the window forward so it starts at the current read position
+     */
+    private void slideWindow() {
+        try {
+            mapWindow(windowStart + position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private boolean atEndOfFile() {
+        return windowStart + position >= fileSize;
+    }
+    
+    private void advance() {
+        nextJob = format == Format.BINARY ? readBinaryRecord() : readCsvLine();
+    }
+    
+    private void readBinaryHeader() throws IOException {
+        int version = window.getInt(4);
+        int recordSize = window.getInt(8);
+        if (version != TraceWriter.VERSION || recordSize != TraceWriter.RECORD_SIZE) {
+            throw new IOException("Unsupported binary trace version " + version + " with record size " + recordSize);
+        }
+        if ((fileSize - TraceWriter.HEADER_SIZE) % TraceWriter.RECORD_SIZE != 0) {
+            throw new IOException("Binary trace ends in a partial record");
+        }
+        format = Format.BINARY;
+        position = TraceWriter.HEADER_SIZE;
+    }
+    
+    private Job readBinaryRecord() {
+        if (atEndOfFile()) {
+            return null;
+        }
+        if (position + TraceWriter.RECORD_SIZE > window.limit()) {
+            slideWindow();
+        }
+        
+        int base = position;
+        position += TraceWriter.RECORD_SIZE;
+        long arrivalTime = window.getLong(base);
+        int id = window.getInt(base + 8);
+        int executionTime = window.getInt(base + 12);
+        int priority = window.getInt(base + 20);
+        int flags = window.getInt(base + 24);
+        
+        Job job;
+        if ((flags & TraceWriter.FLAG_RESOURCES) != 0) {
+            ResourceAwareJob resourceJob = new ResourceAwareJob(id, arrivalTime, executionTime, priority);
+            resourceJob.setResourceRequirements(window.getInt(base + 28), window.getInt(base + 32),
+                                                window.getInt(base + 36));
+            job = resourceJob;
+        } else {
+            job = new Job(id, arrivalTime, executionTime, priority);
+        }
+        job.setEstimatedExecutionTime(window.getInt(base + 16));
+        job.setIOBound((flags & TraceWriter.FLAG_IO_BOUND) != 0);
+        return job;
+    }
+    
+    private void readCsvHeader() throws IOException {
+        format = Format.CSV;
+        int lineEnd = findLineEnd();
+        if (lineEnd == -1) {
+            throw new IOException("Trace has no header line");
+        }
+        
+        // The header is the only line decoded into strings
+        byte[] headerBytes = new byte[lineEnd - position];
+        for (int i = 0; i < headerBytes.length; i++) {
+            headerBytes[i] = window.get(position + i);
+        }
+        String[] names = new String(headerBytes, StandardCharsets.UTF_8).trim().split(",");
+        columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = columnKind(names[i].trim());
+            resourceColumns |= columns[i] == MEMORY || columns[i] == NETWORK || columns[i] == CPU;
+        }
+        boolean hasId = false;
+        boolean hasExecutionTime = false;
+        for (int column : columns) {
+            hasId |= column == JOB_ID;
+            hasExecutionTime |= column == EXECUTION_TIME;
+        }
+        if (!hasId || !hasExecutionTime) {
+            throw new IOException("Trace header needs JobId and ActualTime columns");
+        }
+        
+        skipLineEnd(lineEnd);
+        lineNumber = 1;
+    }
+    
+    private static int columnKind(String name) {
+        switch (name.toLowerCase()) {
+            case "jobid": return JOB_ID;
+            case "arrivaltime": return ARRIVAL_TIME;
+            case "actualtime":
+            case "executiontime": return EXECUTION_TIME;
+            case "estimatedtime": return ESTIMATED_TIME;
+            case "priority": return PRIORITY;
+            case "isiobound": return IO_BOUND;
+            case "memoryreq": return MEMORY;
+            case "networkreq": return NETWORK;
+            case "cpureq": return CPU;
+            default: return IGNORED;
+        }
+    }
+    
+    private Job readCsvLine() {
+        while (true) {
+            if (atEndOfFile()) {
+                return null;
+            }
+            int lineEnd = findLineEnd();
+            lineNumber++;
+            if (lineEnd > position && !isBlank(position, lineEnd)) {
+                Job job = parseCsvFields(position, lineEnd);
+                skipLineEnd(lineEnd);
+                return job;
+            }
+            skipLineEnd(lineEnd);
+        }
+    }
+    
+    /**
+     * Find the end of the line at the read position, sliding the window if the line crosses it
+     * 
+     * @return Window index of the line's newline, or of the end of the file
+     */
+    private int findLineEnd() {
+        while (true) {
+            for (int i = position; i < window.limit(); i++) {
+                if (window.get(i) == '\n') {
+                    return i;
+                }
+            }
+            if (windowStart + window.limit() >= fileSize) {
+                return window.limit();
+            }
+            if (position == 0) {
+                throw new IllegalArgumentException("Trace line " + (lineNumber + 1) + " is longer than the mapping window");
+            }
+            slideWindow();
+        }
+    }
+    
+    private void skipLineEnd(int lineEnd) {
+        position = Math.min(lineEnd + 1, window.limit());
+    }
+    
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = window.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private Job parseCsvFields(int from, int to) {
+        Arrays.fill(fields, 0);
+        fields[PRIORITY] = 1;
+        fields[ESTIMATED_TIME] = -1;
+        fields[MEMORY] = 1024;
+        fields[NETWORK] = 100;
+        fields[CPU] = 100;
+        
+        int fieldStart = from;
+        for (int column = 0; column < columns.length; column++) {
+            if (fieldStart > to) {
+                throw malformed("has " + column + " of " + columns.length + " fields");
+            }
+            int fieldEnd = fieldStart;
+            while (fieldEnd < to && window.get(fieldEnd) != ',') {
+                fieldEnd++;
+            }
+            if (columns[column] == IO_BOUND) {
+                fields[IO_BOUND] = parseBoolean(fieldStart, fieldEnd) ? 1 : 0;
+            } else if (columns[column] != IGNORED) {
+                fields[columns[column]] = parseLong(fieldStart, fieldEnd);
+            }
+            fieldStart = fieldEnd + 1;
+        }
+        
+        int id = toInt(fields[JOB_ID], "JobId");
+        int executionTime = toInt(fields[EXECUTION_TIME], "ActualTime");
+        int priority = toInt(fields[PRIORITY], "Priority");
+        Job job;
+        if (resourceColumns) {
+            ResourceAwareJob resourceJob = new ResourceAwareJob(id, fields[ARRIVAL_TIME], executionTime, priority);
+            resourceJob.setResourceRequirements(toInt(fields[MEMORY], "MemoryReq"), toInt(fields[NETWORK], "NetworkReq"),
+                                                toInt(fields[CPU], "CpuReq"));
+            job = resourceJob;
+        } else {
+            job = new Job(id, fields[ARRIVAL_TIME], executionTime, priority);
+        }
+        if (fields[ESTIMATED_TIME] != -1) {
+            job.setEstimatedExecutionTime(toInt(fields[ESTIMATED_TIME], "EstimatedTime"));
+        }
+        job.setIOBound(fields[IO_BOUND] != 0);
+        return job;
+    }
+    
+    private long parseLong(int from, int to) {
+        while (from < to && isSpace(window.get(from))) {
+            from++;
+        }
+        while (to > from && isSpace(window.get(to - 1))) {
+            to--;
+        }
+        boolean negative = from < to && window.get(from) == '-';
+        int i = negative ? from + 1 : from;
+        if (i == to) {
+            throw malformed("has an empty or non-numeric field");
+        }
+        
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = window.get(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                throw malformed("has a field that is not a whole number");
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+    
+    private boolean parseBoolean(int from, int to) {
+        while (from < to && isSpace(window.get(from))) {
+            from++;
+        }
+        byte first = from < to ? window.get(from) : 0;
+        return first == 't' || first == 'T' || first == '1';
+    }
+    
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+    
+    private int toInt(long value, String column) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw malformed("has " + column + " out of range");
+        }
+        return (int) value;
+    }
+    
+    private IllegalArgumentException malformed(String problem) {
+        return new IllegalArgumentException("Trace line " + lineNumber + " " + problem);
+    }
+}
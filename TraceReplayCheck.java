@@ -0,0 +1,119 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Round-trip check of trace replay: a generated workload is written as a
+ * binary trace with TraceWriter and as a CSV trace, both are read back with
+ * TraceReader through a mapping window of a few lines, and replaying them must
+ * give the same metrics as runSimulation() over the workload itself.
+ * 
+ * Both event-driven schedulers and a legacy one that is handed the active jobs
+ * are replayed. The tiny window makes every CSV line and binary record cross
+ * window boundaries many times. Each scheduler is run again with the horizon
+ * at half the full run's makespan, where both kinds of run must still agree
+ * and utilization must not exceed 100%.
+ * 
+ * Usage: java TraceReplayCheck [jobs]
+ * Exits with status 1 if any check fails.
+ */
+public class TraceReplayCheck {
+    private static final long WINDOW_SIZE = 64; // Bytes, just over the longest CSV line
+    private static final int PROCESSOR_COUNT = 4;
+    private static final double TOLERANCE = 1e-9;
+    
+    private static int failures = 0;
+    
+    public static void main(String[] args) throws IOException {
+        int jobCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+        WorkloadModel model = new WorkloadModel(new ArrivalProcess.Poisson(2.0),
+                                                new RuntimeDistribution.Uniform(1, 10), 42);
+        List<Job> jobs = new ArrayList<>(jobCount);
+        model.iterator(jobCount).forEachRemaining(jobs::add);
+        
+        Path binary = Files.createTempFile("trace", ".jtrc");
+        Path csv = Files.createTempFile("trace", ".csv");
+        try {
+            try (TraceWriter writer = new TraceWriter(binary.toString())) {
+                writer.writeAll(jobs.iterator());
+            }
+            writeCsv(csv, jobs);
+            
+            SimulationEnvironment env = new SimulationEnvironment();
+            List<Processor> processors = env.createProcessors(PROCESSOR_COUNT, 1.0);
+            List<Supplier<Scheduler>> schedulers = Arrays.asList(
+                FCFSScheduler::new,
+                SJFScheduler::new,
+                PriorityScheduler::new,
+                () -> new DependencyAwareScheduler(new FCFSScheduler())
+            );
+            
+            for (Supplier<Scheduler> supplier : schedulers) {
+                SchedulingMetrics expected = env.runSimulation(supplier.get(), jobs, processors);
+                replay(env, supplier, Arrays.asList(binary, csv), processors, expected, "");
+                
+                SimulationEnvironment cutEnv = new SimulationEnvironment((long) expected.getMakespan() / 2);
+                SchedulingMetrics cut = cutEnv.runSimulation(supplier.get(), jobs, processors);
+                String label = supplier.get().getName() + " cut at " + cutEnv.getMaxSimulationTime();
+                if (cut.getResourceUtilization() > 1 + TOLERANCE) {
+                    failures++;
+                    System.out.println("FAIL " + label + ": utilization " + cut.getResourceUtilization());
+                }
+                replay(cutEnv, supplier, Arrays.asList(binary, csv), processors, cut,
+                       " cut at " + cutEnv.getMaxSimulationTime());
+            }
+        } finally {
+            Files.deleteIfExists(binary);
+            Files.deleteIfExists(csv);
+        }
+        
+        System.out.println(failures == 0 ? "Replayed traces of " + jobCount + " jobs matched runSimulation"
+                                         : failures + " check(s) failed");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+    
+    private static void replay(SimulationEnvironment env, Supplier<Scheduler> supplier, List<Path> traces,
+                               List<Processor> processors, SchedulingMetrics expected, String suffix)
+            throws IOException {
+        for (Path trace : traces) {
+            Scheduler scheduler = supplier.get();
+            try (TraceReader reader = new TraceReader(trace.toString(), WINDOW_SIZE)) {
+                String label = scheduler.getName() + " on " + reader.getFormat() + " trace" + suffix;
+                compare(label, expected, env.replayTrace(scheduler, reader, processors));
+            }
+        }
+    }
+    
+    private static void writeCsv(Path path, List<Job> jobs) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("JobId,ArrivalTime,ActualTime,EstimatedTime,Priority\n");
+            for (Job job : jobs) {
+                writer.write(job.getId() + "," + job.getArrivalTime() + "," + job.getExecutionTime() + "," +
+                             job.getEstimatedExecutionTime() + "," + job.getPriority() + "\n");
+            }
+        }
+    }
+    
+    private static void compare(String label, SchedulingMetrics expected, SchedulingMetrics actual) {
+        compare(label, "makespan", expected.getMakespan(), actual.getMakespan());
+        compare(label, "average waiting time", expected.getAverageWaitingTime(), actual.getAverageWaitingTime());
+        compare(label, "average turnaround time", expected.getAverageTurnaroundTime(),
+                actual.getAverageTurnaroundTime());
+        compare(label, "throughput", expected.getThroughput(), actual.getThroughput());
+        compare(label, "utilization", expected.getResourceUtilization(), actual.getResourceUtilization());
+        compare(label, "p99 waiting time", expected.getWaitingTimePercentile(99), actual.getWaitingTimePercentile(99));
+        compare(label, "max waiting time", expected.getMaxWaitingTime(), actual.getMaxWaitingTime());
+        compare(label, "max bounded slowdown", expected.getMaxBoundedSlowdown(), actual.getMaxBoundedSlowdown());
+    }
+    
+    private static void compare(String label, String metric, double expected, double actual) {
+        if (Math.abs(expected - actual) > TOLERANCE * Math.max(1, Math.abs(expected))) {
+            failures++;
+            System.out.println("FAIL " + label + ": " + metric + " " + actual + ", runSimulation gave " + expected);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Writes jobs in the compact binary trace format read by TraceReader.
+ * 
+ * The file starts with a 16-byte header (magic "JTRC", format version,
+ * record size, reserved) followed by one 40-byte little-endian record per
+ * job: arrival time (long), id, execution time, estimated execution time,
+ * priority, flags, memory, network and CPU requirement (ints). Fixed-width
+ * records need no parsing and let a reader jump to any job.
+ */
+public class TraceWriter implements Closeable {
+    static final int MAGIC = 0x4352544A; // "JTRC" read as a little-endian int
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_SIZE = 40;
+    
+    static final int FLAG_IO_BOUND = 1;
+    static final int FLAG_RESOURCES = 2;
+    
+    private FileChannel channel;
+    private ByteBuffer buffer;
+    private long jobCount;
+    
+    /**
+     * Create a binary trace, replacing any existing file
+     * 
+     * @param filePath Path of the trace to write
+     */
+    public TraceWriter(String filePath) throws IOException {
+        this.channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+                                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(RECORD_SIZE * 4096).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_SIZE).putInt(0);
+    }
+    
+    /**
+     * Append a job; traces are replayed in file order, so write jobs in arrival order
+     */
+    public void write(Job job) throws IOException {
+        if (buffer.remaining() < RECORD_SIZE) {
+            flush();
+        }
+        
+        int flags = job.isIOBound() ? FLAG_IO_BOUND : 0;
+        int memory = 0;
+        int network = 0;
+        int cpu = 0;
+        if (job instanceof ResourceAwareJob) {
+            ResourceAwareJob resourceJob = (ResourceAwareJob) job;
+            flags |= FLAG_RESOURCES;
+            memory = resourceJob.getMemoryRequirement();
+            network = resourceJob.getNetworkRequirement();
+            cpu = resourceJob.getCpuRequirement();
+        }
+        
+        buffer.putLong(job.getArrivalTime())
+              .putInt(job.getId())
+              .putInt(job.getExecutionTime())
+              .putInt(job.getEstimatedExecutionTime())
+              .putInt(job.getPriority())
+              .putInt(flags)
+              .putInt(memory)
+              .putInt(network)
+              .putInt(cpu);
+        jobCount++;
+    }
+    
+    /**
+     * Append every job from a source, such as a TraceReader or WorkloadModel.iterator()
+     * 
+     * @return Number of jobs written
+     */
+    public long writeAll(Iterator<? extends Job> jobs) throws IOException {
+        long written = 0;
+        while (jobs.hasNext()) {
+            write(jobs.next());
+            written++;
+        }
+        return written;
+    }
+    
+    public long getJobCount() {
+        return jobCount;
+    }
+    
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.*;
+
+/**
+ * Pluggable model of an independent-job workload: an arrival process, a
+ * runtime distribution and uniform priorities from 1 to 10.
+ * 
+ * Jobs are produced lazily through an iterator, so a workload of any size
+ * needs only the memory of the jobs the caller keeps. The same seed always
+ * gives the same workload.
+ */
+public class WorkloadModel {
+    private ArrivalProcess arrivalProcess;
+    private RuntimeDistribution runtimeDistribution;
+    private long seed;
+    
+    /**
+     * Create a workload model
+     * 
+     * @param arrivalProcess Process producing arrival times
+     * @param runtimeDistribution Distribution of execution times
+     * @param seed Seed for every random draw
+     */
+    public WorkloadModel(ArrivalProcess arrivalProcess, RuntimeDistribution runtimeDistribution, long seed) {
+        this.arrivalProcess = arrivalProcess;
+        this.runtimeDistribution = runtimeDistribution;
+        this.seed = seed;
+    }
+    
+    public ArrivalProcess getArrivalProcess() {
+        return arrivalProcess;
+    }
+    
+    public RuntimeDistribution getRuntimeDistribution() {
+        return runtimeDistribution;
+    }
+    
+    public long getSeed() {
+        return seed;
+    }
+    
+    public String getName() {
+        return arrivalProcess.getName() + " / " + runtimeDistribution.getName();
+    }
+    
+    /**
+     * Iterate over a workload without holding it in memory
+     * 
+     * @param count Number of jobs to produce
+     * @return Jobs with ids 0..count-1 in arrival order
+     */
+    public Iterator<Job> iterator(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Job count must be non-negative: " + count);
+        }
+        
+        // Arrivals and job attributes come from separate streams, so changing one model keeps the other's draws
+        SplittableRandom jobRandom = new SplittableRandom(seed);
+        PrimitiveIterator.OfLong arrivalTimes = arrivalProcess.arrivalTimes(jobRandom.split());
+        return new Iterator<Job>() {
+            private int nextId;
+            
+            @Override
+            public boolean hasNext() {
+                return nextId < count;
+            }
+            
+            @Override
+            public Job next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                long arrivalTime = arrivalTimes.nextLong();
+                int executionTime = runtimeDistribution.sample(jobRandom);
+                int priority = jobRandom.nextInt(10) + 1;
+                return new Job(nextId++, arrivalTime, executionTime, priority);
+            }
+        };
+    }
+    
+    /**
+     * Generate a workload as a list
+     * 
+     * @param count Number of jobs to generate
+     * @return Jobs with ids 0..count-1 in arrival order
+     */
+    public List<Job> generate(int count) {
+        List<Job> jobs = new ArrayList<>(count);
+        iterator(count).forEachRemaining(jobs::add);
+        return jobs;
+    }
+}
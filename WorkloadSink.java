@@ -0,0 +1,21 @@
+/**
+ * Receives a generated workload one job at a time.
+ *
+ * Jobs arrive in id order, each followed by its own dependencies, which
+ * always point at jobs that were already delivered.
+ */
+public interface WorkloadSink {
+    /**
+     * Accept the next job
+     */
+    void acceptJob(int id, long arrivalTime, int executionTime, int priority);
+
+    /**
+     * Accept a dependency of the job most recently accepted
+     *
+     * @param jobId Job that depends on the other
+     * @param dependencyId Job it depends on
+     * @param type Type of dependency relationship
+     */
+    void acceptDependency(int jobId, int dependencyId, DependencyAwareJob.DependencyType type);
+}